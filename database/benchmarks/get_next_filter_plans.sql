@@ -0,0 +1,137 @@
+-- Compares the query plans of the getNext claim statement filtering on names (old) and on IDs (new)
+-- for 1,000,000 cards in 20 Areas, 200 Categories, and 1,000 Subcategories, with 90% of the cards viewed.
+-- Run against a development database. Everything runs in one transaction, which is rolled back at the end.
+-- EXPLAIN ANALYZE executes the claim statements, so each one records a view, which is also rolled back.
+
+BEGIN TRANSACTION;
+
+INSERT INTO areas (area_name)
+SELECT 'Benchmark Area ' || a FROM generate_series(1, 20) a;
+
+INSERT INTO categories (category_name)
+SELECT 'Benchmark Category ' || c FROM generate_series(1, 200) c;
+
+INSERT INTO subcategories (subcategory_name)
+SELECT 'Benchmark Subcategory ' || s FROM generate_series(1, 1000) s;
+
+-- Each Area has 10 Categories and each Category has 5 Subcategories.
+INSERT INTO flashcards (front, back, area_id, category_id, subcategory_id)
+SELECT 'Benchmark Front ' || g, 'Benchmark Back ' || g, a.id, c.id, s.id
+FROM generate_series(1, 1000000) g
+JOIN areas a ON a.area_name = 'Benchmark Area ' || (g % 20 + 1)
+JOIN categories c ON c.category_name = 'Benchmark Category ' || (g % 200 + 1)
+JOIN subcategories s ON s.subcategory_name = 'Benchmark Subcategory ' || (g % 1000 + 1);
+
+-- Triggers are disabled for the setup, so flashcard_views isn't populated with the setup views.
+ALTER TABLE flashcard_last_view DISABLE TRIGGER USER;
+INSERT INTO flashcard_last_view (flashcard_id, view_timestamp)
+SELECT f.id, now() - (random() * interval '365 days')
+FROM flashcards f JOIN areas a ON f.area_id = a.id
+WHERE a.area_name LIKE 'Benchmark Area %' AND f.id % 10 <> 0;
+ALTER TABLE flashcard_last_view ENABLE TRIGGER USER;
+
+ANALYZE areas;
+ANALYZE categories;
+ANALYZE subcategories;
+ANALYZE flashcards;
+ANALYZE flashcard_last_view;
+
+-- Old statement, filtering on names with "OR 'all'" conditions: Area only.
+PREPARE claim_by_names (varchar, varchar, varchar, int) AS
+WITH next_card AS (SELECT f.id, v.view_timestamp AS previous_view FROM flashcards f
+    LEFT OUTER JOIN areas a ON f.area_id = a.id
+    LEFT OUTER JOIN categories c ON f.category_id = c.id
+    LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id
+    LEFT OUTER JOIN flashcard_last_view v ON f.id = v.flashcard_id
+    WHERE (a.area_name = $1 OR $1 = 'all')
+    AND (c.category_name = $2 OR $2 = 'all')
+    AND (s.subcategory_name = $3 OR $3 = 'all')
+    ORDER BY v.view_timestamp NULLS FIRST, f.id LIMIT $4
+    FOR NO KEY UPDATE OF f SKIP LOCKED),
+viewed AS (INSERT INTO flashcard_last_view (flashcard_id, view_timestamp)
+    SELECT id, clock_timestamp() FROM next_card
+    ON CONFLICT (flashcard_id) DO UPDATE SET view_timestamp = EXCLUDED.view_timestamp
+    RETURNING flashcard_id, view_timestamp)
+SELECT f.id, front, back, a.area_name, c.category_name, s.subcategory_name, viewed.view_timestamp FROM viewed
+    JOIN next_card n ON n.id = viewed.flashcard_id
+    JOIN flashcards f ON f.id = viewed.flashcard_id
+    LEFT OUTER JOIN areas a ON f.area_id = a.id
+    LEFT OUTER JOIN categories c ON f.category_id = c.id
+    LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id
+    ORDER BY n.previous_view NULLS FIRST, f.id;
+
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE claim_by_names ('Benchmark Area 7', 'all', 'all', 1);
+
+-- Old statement: Area, Category, and Subcategory.
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE claim_by_names ('Benchmark Area 7', 'Benchmark Category 7', 'Benchmark Subcategory 7', 1);
+
+-- New statements, filtering on IDs resolved before the claim. Only the flashcards columns being filtered are used.
+PREPARE claim_by_area_id (bigint, int) AS
+WITH next_card AS (SELECT f.id, v.view_timestamp AS previous_view FROM flashcards f
+    LEFT OUTER JOIN flashcard_last_view v ON f.id = v.flashcard_id
+    WHERE f.area_id = $1
+    ORDER BY v.view_timestamp NULLS FIRST, f.id LIMIT $2
+    FOR NO KEY UPDATE OF f SKIP LOCKED),
+viewed AS (INSERT INTO flashcard_last_view (flashcard_id, view_timestamp)
+    SELECT id, clock_timestamp() FROM next_card
+    ON CONFLICT (flashcard_id) DO UPDATE SET view_timestamp = EXCLUDED.view_timestamp
+    RETURNING flashcard_id, view_timestamp)
+SELECT f.id, front, back, a.area_name, c.category_name, s.subcategory_name, viewed.view_timestamp FROM viewed
+    JOIN next_card n ON n.id = viewed.flashcard_id
+    JOIN flashcards f ON f.id = viewed.flashcard_id
+    LEFT OUTER JOIN areas a ON f.area_id = a.id
+    LEFT OUTER JOIN categories c ON f.category_id = c.id
+    LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id
+    ORDER BY n.previous_view NULLS FIRST, f.id;
+
+PREPARE claim_by_all_ids (bigint, bigint, bigint, int) AS
+WITH next_card AS (SELECT f.id, v.view_timestamp AS previous_view FROM flashcards f
+    LEFT OUTER JOIN flashcard_last_view v ON f.id = v.flashcard_id
+    WHERE f.area_id = $1 AND f.category_id = $2 AND f.subcategory_id = $3
+    ORDER BY v.view_timestamp NULLS FIRST, f.id LIMIT $4
+    FOR NO KEY UPDATE OF f SKIP LOCKED),
+viewed AS (INSERT INTO flashcard_last_view (flashcard_id, view_timestamp)
+    SELECT id, clock_timestamp() FROM next_card
+    ON CONFLICT (flashcard_id) DO UPDATE SET view_timestamp = EXCLUDED.view_timestamp
+    RETURNING flashcard_id, view_timestamp)
+SELECT f.id, front, back, a.area_name, c.category_name, s.subcategory_name, viewed.view_timestamp FROM viewed
+    JOIN next_card n ON n.id = viewed.flashcard_id
+    JOIN flashcards f ON f.id = viewed.flashcard_id
+    LEFT OUTER JOIN areas a ON f.area_id = a.id
+    LEFT OUTER JOIN categories c ON f.category_id = c.id
+    LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id
+    ORDER BY n.previous_view NULLS FIRST, f.id;
+
+-- The application resolves the IDs with one lookup per name. The lookups are repeated here to get the IDs.
+CREATE TEMPORARY TABLE benchmark_ids ON COMMIT DROP AS
+SELECT (SELECT id FROM areas WHERE area_name = 'Benchmark Area 7') AS area_id,
+       (SELECT id FROM categories WHERE category_name = 'Benchmark Category 7') AS category_id,
+       (SELECT id FROM subcategories WHERE subcategory_name = 'Benchmark Subcategory 7') AS subcategory_id;
+
+-- EXECUTE parameters can't be subqueries, so the prepared statements are run from a function that reads the IDs.
+CREATE FUNCTION pg_temp.explain_claim(statement text) RETURNS SETOF text AS $$
+DECLARE
+    ids benchmark_ids%ROWTYPE;
+BEGIN
+    SELECT * INTO ids FROM benchmark_ids;
+    RETURN QUERY EXECUTE format('EXPLAIN (ANALYZE, BUFFERS) EXECUTE %s', format(statement,
+        ids.area_id, ids.category_id, ids.subcategory_id));
+END;
+$$ LANGUAGE plpgsql;
+
+-- New statement: Area only, with the existing indexes.
+SELECT * FROM pg_temp.explain_claim('claim_by_area_id (%1$s, 1)');
+
+-- New statement: Area, Category, and Subcategory, with the existing indexes.
+SELECT * FROM pg_temp.explain_claim('claim_by_all_ids (%1$s, %2$s, %3$s, 1)');
+
+-- With an index on the filtered flashcards columns, the new statements only read the matching cards.
+-- The old statements can't use the index, because the filters are on the name tables.
+CREATE INDEX ix_benchmark_flashcards_area_category_subcategory ON flashcards (area_id, category_id, subcategory_id);
+ANALYZE flashcards;
+
+SELECT * FROM pg_temp.explain_claim('claim_by_area_id (%1$s, 1)');
+SELECT * FROM pg_temp.explain_claim('claim_by_all_ids (%1$s, %2$s, %3$s, 1)');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE claim_by_names ('Benchmark Area 7', 'Benchmark Category 7', 'Benchmark Subcategory 7', 1);
+
+ROLLBACK TRANSACTION;
@@ -1,10 +1,14 @@
 -- DBVisualizer Free doesn't support function creation, so run from another tool such as pgAdmin.
+-- Creates the version 1 schema. Later versions are applied by the migrations in src/main/resources/db/migration
+-- when the application starts.
 
 BEGIN TRANSACTION;
 
+DROP TABLE IF EXISTS flyway_schema_history;
 DROP TRIGGER IF EXISTS ins_flashcard_last_view ON flashcard_last_view;
 DROP TRIGGER IF EXISTS upd_flashcard_last_view ON flashcard_last_view;
 DROP TABLE IF EXISTS flashcard_views;
+DROP TABLE IF EXISTS flashcard_views_unpartitioned;
 DROP SEQUENCE IF EXISTS seq_flashcard_views_id;
 DROP TABLE IF EXISTS flashcard_last_view;
 DROP SEQUENCE IF EXISTS seq_flashcard_last_view_id;
@@ -0,0 +1,128 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/* Regression benchmark for getCardById on cards with a long view history. getCardById reads the last view from
+   flashcard_last_view, so its time shouldn't grow with the number of views. viewHistoryJoin is the previous query,
+   which joined every row of flashcard_views for the card.
+   The datasource properties are read as in RowMappingBenchmark. The cards and views are added in one transaction,
+   which is rolled back at the end. Run with: mvn -P jmh clean package exec:exec -Djmh.args=GetCardByIdBenchmark */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetCardByIdBenchmark {
+
+    private static final int CARDS = 10;
+
+    @Param({"1", "100000"})
+    private int viewsPerCard;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcFlashcardDAO flashcardDAO;
+    private List<Long> ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void addCardsAndViews() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = getClass().getResourceAsStream("/application.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        }
+
+        dataSource = new SingleConnectionDataSource();
+        dataSource.setUrl(getProperty(properties, "spring.datasource.url"));
+        dataSource.setUsername(getProperty(properties, "spring.datasource.username"));
+        dataSource.setPassword(getProperty(properties, "spring.datasource.password"));
+        dataSource.setAutoCommit(false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate));
+
+        ids = jdbcTemplate.queryForList("INSERT INTO flashcards (front, back) " +
+                "SELECT 'Benchmark Front ' || g, 'Benchmark Back ' || g FROM generate_series(1, ?) g " +
+                "RETURNING id", Long.class, CARDS);
+        /* The views are added to flashcard_views directly, rather than through the flashcard_last_view triggers,
+           which add one view per statement for a card. */
+        jdbcTemplate.update("INSERT INTO flashcard_views (flashcard_id, view_timestamp) " +
+                "SELECT f.id, clock_timestamp() - v * interval '1 minute' FROM flashcards f " +
+                "CROSS JOIN generate_series(1, ?) v WHERE f.front LIKE 'Benchmark Front %'", viewsPerCard);
+        jdbcTemplate.update("ALTER TABLE flashcard_last_view DISABLE TRIGGER USER");
+        jdbcTemplate.update("INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "SELECT flashcard_id, max(view_timestamp) FROM flashcard_views fv " +
+                "JOIN flashcards f ON fv.flashcard_id = f.id WHERE f.front LIKE 'Benchmark Front %' " +
+                "GROUP BY flashcard_id");
+        jdbcTemplate.update("ALTER TABLE flashcard_last_view ENABLE TRIGGER USER");
+        jdbcTemplate.execute("ANALYZE flashcard_views");
+    }
+
+    private static String getProperty(Properties properties, String name) {
+        String environmentValue = System.getenv(name.replace('.', '_').toUpperCase());
+        return environmentValue != null ? environmentValue : properties.getProperty(name);
+    }
+
+    @TearDown(Level.Trial)
+    public void rollback() throws SQLException {
+        dataSource.getConnection().rollback();
+        dataSource.destroy();
+    }
+
+    private Long nextId() {
+        next = (next + 1) % ids.size();
+        return ids.get(next);
+    }
+
+    @Benchmark
+    public Flashcard getCardById() {
+        return flashcardDAO.getCardById(nextId());
+    }
+
+    @Benchmark
+    public List<Flashcard> viewHistoryJoin() {
+        String sql = "SELECT f.id, front, back, a.area_name AS area, c.category_name AS category, " +
+                "s.subcategory_name AS subcategory, fv.view_timestamp AS last_viewed FROM flashcards f " +
+                "LEFT OUTER JOIN areas a ON f.area_id = a.id " +
+                "LEFT OUTER JOIN categories c ON f.category_id = c.id " +
+                "LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id " +
+                "LEFT OUTER JOIN flashcard_views fv ON f.id = fv.flashcard_id " +
+                "WHERE f.id = ?";
+        return jdbcTemplate.query(sql, (resultSet, rowNumber) -> {
+            Flashcard flashcard = new Flashcard();
+            flashcard.setId(resultSet.getLong("id"));
+            flashcard.setFront(resultSet.getString("front"));
+            flashcard.setBack(resultSet.getString("back"));
+            flashcard.setArea(resultSet.getString("area"));
+            flashcard.setCategory(resultSet.getString("category"));
+            flashcard.setSubcategory(resultSet.getString("subcategory"));
+            flashcard.setLastViewed(resultSet.getTimestamp("last_viewed"));
+            return flashcard;
+        }, nextId());
+    }
+}
@@ -0,0 +1,101 @@
+package com.bealean.flashcards_api.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/* Compares mapping the getAreas list query from a SqlRowSet, which copies every row into a disconnected
+   row set before it is read, with mapping each row directly from the ResultSet with a RowMapper.
+   The datasource properties are read from application.properties, and can be overridden with environment
+   variables, such as SPRING_DATASOURCE_URL, as for the application.
+   The Areas are added in one transaction, which is rolled back at the end, like the SQL benchmarks
+   in database/benchmarks. Run with: mvn -P jmh clean package exec:exec */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    /* 0 uses the driver default, which reads the whole result at once. */
+    @Param({"0", "1000"})
+    private int fetchSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcAreaDAO areaDAO;
+
+    @Setup(Level.Trial)
+    public void addAreas() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = getClass().getResourceAsStream("/application.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        }
+
+        dataSource = new SingleConnectionDataSource();
+        dataSource.setUrl(getProperty(properties, "spring.datasource.url"));
+        dataSource.setUsername(getProperty(properties, "spring.datasource.username"));
+        dataSource.setPassword(getProperty(properties, "spring.datasource.password"));
+        /* The PostgreSQL driver only reads results in batches of the fetch size outside of autocommit. */
+        dataSource.setAutoCommit(false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        areaDAO = new JdbcAreaDAO(jdbcTemplate);
+
+        jdbcTemplate.update("INSERT INTO areas (area_name) " +
+                "SELECT 'Benchmark Area ' || a FROM generate_series(1, ?) a", rows);
+    }
+
+    private static String getProperty(Properties properties, String name) {
+        String environmentValue = System.getenv(name.replace('.', '_').toUpperCase());
+        return environmentValue != null ? environmentValue : properties.getProperty(name);
+    }
+
+    @TearDown(Level.Trial)
+    public void rollback() throws SQLException {
+        dataSource.getConnection().rollback();
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<String> sqlRowSet() {
+        List<String> areaList = new ArrayList<>();
+        SqlRowSet results = jdbcTemplate.queryForRowSet("SELECT area_name FROM areas ORDER BY area_name");
+        while (results.next()) {
+            areaList.add(results.getString("area_name"));
+        }
+        return areaList;
+    }
+
+    @Benchmark
+    public List<String> rowMapper() {
+        return areaDAO.getAreas();
+    }
+}
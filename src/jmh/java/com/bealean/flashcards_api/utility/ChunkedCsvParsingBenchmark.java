@@ -0,0 +1,112 @@
+package com.bealean.flashcards_api.utility;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/* Compares reading a large ImportUtility CSV with CsvRecordReader on one thread, as ImportUtility does by default,
+   with ChunkedCsvReader on a ForkJoinPool of parallelism threads. 0 uses one thread per available processor.
+   The CSV is about fileMegabytes MB, and every tenth card has a Back of three lines and a quoted comma,
+   so chunk boundaries fall within quoted fields. No cards are sent to the API.
+   Run with: mvn -P jmh clean package exec:exec -Djmh.args="ChunkedCsvParsingBenchmark" */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class ChunkedCsvParsingBenchmark {
+
+    @Param({"2048"})
+    private int fileMegabytes;
+
+    @Param({"0"})
+    private int parallelism;
+
+    private Path csv;
+    private long rows;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void writeCsv() throws IOException {
+        csv = Files.createTempFile("chunked-csv-parsing-benchmark", ".csv");
+        long targetBytes = fileMegabytes * 1024L * 1024L;
+        long bytes = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            String header = "\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n";
+            writer.write(header);
+            bytes += header.length();
+            while (bytes < targetBytes) {
+                rows++;
+                String back = rows % 10 == 0 ? "Back line 1\nBack line 2, with a comma\nBack line 3" :
+                        "Back of card " + rows;
+                String row = "\"" + rows + "\",\"Front of card " + rows + " with \"\"quoted\"\" words\",\"" + back +
+                        "\",\"Benchmark Area\",\"Benchmark Category " + rows % 100 + "\",\"Subcategory\"\n";
+                writer.write(row);
+                bytes += row.length();
+            }
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        long readerRows = csvRecordReader(null);
+        long chunkedRows = chunkedCsvReader(null);
+        if (readerRows != rows || chunkedRows != rows) {
+            throw new IllegalStateException("Expected " + rows + " cards, CsvRecordReader read " + readerRows +
+                    " and ChunkedCsvReader read " + chunkedRows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCsv() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long csvRecordReader(Blackhole blackhole) throws IOException {
+        try (CsvRecordReader reader = new CsvRecordReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8))) {
+            reader.readRecord();
+            return consumeRecords(reader, blackhole);
+        }
+    }
+
+    @Benchmark
+    public long chunkedCsvReader(Blackhole blackhole) throws IOException {
+        try (CsvRecordSource reader = ImportUtility.openCsv(csv, null, pool)) {
+            return consumeRecords(reader, blackhole);
+        }
+    }
+
+    /* The setup check runs the benchmarks without a Blackhole. */
+    private static long consumeRecords(CsvRecordSource reader, Blackhole blackhole) throws IOException {
+        long cards = 0;
+        List<String> fields;
+        while ((fields = reader.readRecord()) != null) {
+            if (blackhole != null) {
+                blackhole.consume(fields);
+                blackhole.consume(reader.getByteOffset());
+            }
+            cards++;
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bealean.flashcards_api.utility;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/* Compares reading the cards of an ImportUtility CSV with CsvRecordReader, which reads each character once,
+   with the previous regex split, which compiled the lookbehind Pattern for every row and split the whole
+   accumulated text again for each extra line of a card that spans several lines.
+   The CSV has rows cards, in the ImportUtility format. Every tenth card has a Back of backLines lines, and
+   every card has escaped double quotes, no more than two pairs together, which the regex split supports.
+   No cards are sent to the API. Run with: mvn -P jmh clean package exec:exec -Djmh.args="CsvParsingBenchmark" */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class CsvParsingBenchmark {
+    private static final int EXPECTED_FIELD_COUNT = 6;
+    private static final int LOOKBEHIND_QUOTE_PAIRS_UPPER_LIMIT = 2;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"1", "10"})
+    private int backLines;
+
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void writeCsv() throws IOException {
+        csv = Files.createTempFile("csv-parsing-benchmark", ".csv");
+        StringBuilder multiLineBack = new StringBuilder("Back line 1");
+        for (int line = 2; line <= backLines; line++) {
+            multiLineBack.append("\nBack line ").append(line).append(" with a ,comma");
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n");
+            for (int row = 1; row <= rows; row++) {
+                String back = row % 10 == 0 ? multiLineBack.toString() : "Back of card " + row;
+                writer.write("\"" + row + "\",\"Front of card " + row + " with \"\"quoted\"\",\"\"words\"\"\",\"" +
+                        back + "\",\"Benchmark Area\",\"Benchmark Category " + row % 100 + "\",\"Subcategory\"\n");
+            }
+        }
+        long regexCards = regexSplit(null);
+        long readerCards = csvRecordReader(null);
+        if (regexCards != rows || readerCards != rows) {
+            throw new IllegalStateException("Expected " + rows + " cards, regex split read " + regexCards +
+                    " and CsvRecordReader read " + readerCards);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCsv() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long csvRecordReader(Blackhole blackhole) throws IOException {
+        long cards = 0;
+        try (CsvRecordReader reader = new CsvRecordReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8))) {
+            reader.readRecord();
+            List<String> fields;
+            while ((fields = reader.readRecord()) != null) {
+                consume(blackhole, fields.get(1), fields.get(2), fields.get(5));
+                cards++;
+            }
+        }
+        return cards;
+    }
+
+    /* The parsing of the previous ImportUtility.importFlashcards, without validating or sending the cards. */
+    @Benchmark
+    public long regexSplit(Blackhole blackhole) throws IOException {
+        long cards = 0;
+        File file = csv.toFile();
+        try (Scanner scanner = new Scanner(file)) {
+            if (scanner.hasNext()) {
+                scanner.nextLine();
+            }
+            while (scanner.hasNext()) {
+                Pattern pattern = Pattern.compile("((?<!\")\",\"|((?<=(?<!\")(\"\"){1," +
+                        LOOKBEHIND_QUOTE_PAIRS_UPPER_LIMIT + "})\",\"))");
+                String flashcardLine = scanner.nextLine();
+                String[] flashcardFields = pattern.split(flashcardLine);
+                if (flashcardFields.length < EXPECTED_FIELD_COUNT) {
+                    StringBuilder flashcardLines = new StringBuilder(flashcardLine);
+                    int fieldCount = flashcardFields.length;
+                    while (fieldCount < EXPECTED_FIELD_COUNT) {
+                        flashcardLines.append("\n");
+                        flashcardLines.append(scanner.nextLine());
+                        fieldCount = pattern.split(flashcardLines).length;
+                    }
+                    flashcardFields = pattern.split(flashcardLines);
+                }
+                String front = flashcardFields[1].replaceAll("\"\"", "\"");
+                String back = flashcardFields[2].replaceAll("\"\"", "\"");
+                String subcategory = flashcardFields[5];
+                consume(blackhole, front, back, subcategory.substring(0, subcategory.length() - 1));
+                cards++;
+            }
+        }
+        return cards;
+    }
+
+    /* The setup check runs the benchmarks without a Blackhole. */
+    private static void consume(Blackhole blackhole, String front, String back, String subcategory) {
+        if (blackhole != null) {
+            blackhole.consume(front);
+            blackhole.consume(back);
+            blackhole.consume(subcategory);
+        }
+    }
+}
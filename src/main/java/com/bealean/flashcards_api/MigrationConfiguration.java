@@ -0,0 +1,17 @@
+package com.bealean.flashcards_api;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/* Flyway runs the migrations in src/main/resources/db/migration at startup and records the applied
+   versions in the flyway_schema_history table. A database created with database/schema.sql has the
+   version 1 schema, but no history table, so it is baselined at version 1 and only later versions run. */
+@Configuration
+public class MigrationConfiguration {
+
+    @Bean
+    public FlywayConfigurationCustomizer baselineSchemaScriptDatabases() {
+        return configuration -> configuration.baselineOnMigrate(true).baselineVersion("1");
+    }
+}
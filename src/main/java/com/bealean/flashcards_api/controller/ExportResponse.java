@@ -0,0 +1,79 @@
+package com.bealean.flashcards_api.controller;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/* Builds the streamed responses of the export endpoints. The export writes to a buffered UTF-8 Writer,
+   so rows are sent in blocks and the response is never held in memory, and the response is compressed
+   with gzip when the request accepts it. */
+final class ExportResponse {
+
+    private ExportResponse() {
+    }
+
+    /* headers are sent with the response, along with Vary: Accept-Encoding and Content-Encoding when it's compressed.
+       Anything that can fail the request must be checked before this is called,
+       since an error can't change the status once rows are written. */
+    static ResponseEntity<StreamingResponseBody> stream(String acceptEncoding, HttpHeaders headers, Consumer<Writer> export) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    gzip ? new GZIPOutputStream(outputStream) : outputStream, StandardCharsets.UTF_8));
+            try {
+                export.accept(writer);
+            } catch (DataAccessException e) {
+                /* The status has already been sent, so the response is ended without the remaining rows.
+                   The client resumes from the last complete line where the export supports it. */
+                System.out.println("Caught Exception: " + e.getMessage());
+                throw e;
+            }
+            writer.close();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(headers)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /* Accept-Encoding lists codings with an optional weight, such as "gzip;q=0.5, br". A weight of 0 means the
+       coding is not acceptable. A coding that doesn't parse as a weight is treated as not acceptable. */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase();
+            if (!name.equals("gzip") && !name.equals("x-gzip")) {
+                continue;
+            }
+            double weight = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        weight = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        weight = 0;
+                    }
+                }
+            }
+            return weight > 0;
+        }
+        return false;
+    }
+}
@@ -2,19 +2,47 @@ package com.bealean.flashcards_api.controller;
 
 import com.bealean.flashcards_api.dao.FlashcardDAO;
 import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import com.bealean.flashcards_api.model.FlashcardLookupResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @RestController
 @CrossOrigin
 public class FlashcardController {
 
+    /* Batches are added in chunks of this many cards, each in its own transaction, so a large batch
+       doesn't hold one long transaction or build statements with unbounded arrays. */
+    static final int BATCH_CHUNK_SIZE = 1000;
+
     @Autowired
     FlashcardDAO flashcardDAO;
 
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
     @RequestMapping(path = "/new-flashcard", method = RequestMethod.POST)
     @ResponseStatus(HttpStatus.CREATED)
     public Flashcard addFlashcard(@Valid @RequestBody Flashcard flashcard) {
@@ -28,4 +56,102 @@ public class FlashcardController {
         return flashcardDAO.getNext(area, category, subcategory);
     }
 
+    @RequestMapping(path = "/get-next-cards", method = RequestMethod.GET)
+    public List<Flashcard> getNextFlashcards(@RequestParam int n,
+                                             @RequestParam(required = false) String area,
+                                             @RequestParam(required = false) String category,
+                                             @RequestParam(required = false) String subcategory) {
+        return flashcardDAO.getNextBatch(area, category, subcategory, n);
+    }
+
+    /* ids is a comma separated list. Results are returned in request order, with a NOT_FOUND result
+       for each ID that doesn't exist. */
+    @RequestMapping(path = "/flashcards", method = RequestMethod.GET)
+    public List<FlashcardLookupResult> getFlashcardsByIds(@RequestParam List<Long> ids) {
+        return flashcardDAO.getCardsByIds(ids);
+    }
+
+    /* Same as GET /flashcards, with the IDs sent as a JSON array, for lists too long for a URL. */
+    @RequestMapping(path = "/flashcards/lookup", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<FlashcardLookupResult> lookUpFlashcardsByIds(@RequestBody List<Long> ids) {
+        return flashcardDAO.getCardsByIds(ids);
+    }
+
+    @RequestMapping(path = "/flashcards/batch", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<FlashcardBatchResult> addFlashcards(@RequestBody List<Flashcard> flashcards) {
+        List<FlashcardBatchResult> results = new ArrayList<>();
+        for (int start = 0; start < flashcards.size(); start += BATCH_CHUNK_SIZE) {
+            addChunk(flashcards.subList(start, Math.min(start + BATCH_CHUNK_SIZE, flashcards.size())), start, results);
+        }
+        return results;
+    }
+
+    /* Newline delimited JSON, with one card on each line, is read as a stream,
+       so only one chunk of cards is held in memory at a time. Blank lines are skipped. */
+    @RequestMapping(path = "/flashcards/batch", method = RequestMethod.POST, consumes = "application/x-ndjson")
+    public List<FlashcardBatchResult> addFlashcardsFromNdjson(InputStream body) throws IOException {
+        List<FlashcardBatchResult> results = new ArrayList<>();
+        List<Flashcard> chunk = new ArrayList<>();
+        int start = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(objectMapper.readValue(line, Flashcard.class));
+            } catch (JsonProcessingException e) {
+                chunk.add(null);
+            }
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                addChunk(chunk, start, results);
+                start += chunk.size();
+                chunk.clear();
+            }
+        }
+        addChunk(chunk, start, results);
+        return results;
+    }
+
+    /* Cards that fail Bean Validation are rejected with the validation messages, and the rest are added
+       with one call to addFlashcards. If the chunk can't be added, each of its cards is rejected. */
+    private void addChunk(List<Flashcard> chunk, int start, List<FlashcardBatchResult> results) {
+        FlashcardBatchResult[] chunkResults = new FlashcardBatchResult[chunk.size()];
+        List<Flashcard> validCards = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Flashcard flashcard = chunk.get(i);
+            if (flashcard == null) {
+                chunkResults[i] = FlashcardBatchResult.rejected(start + i, "Card is not a valid JSON object.");
+                continue;
+            }
+            Set<String> messages = new TreeSet<>();
+            for (ConstraintViolation<Flashcard> violation : validator.validate(flashcard)) {
+                messages.add(violation.getMessage());
+            }
+            if (messages.isEmpty()) {
+                validCards.add(flashcard);
+                validIndexes.add(i);
+            } else {
+                chunkResults[i] = FlashcardBatchResult.rejected(start + i, String.join(" ", messages));
+            }
+        }
+
+        if (!validCards.isEmpty()) {
+            try {
+                List<FlashcardBatchResult> added = flashcardDAO.addFlashcards(validCards);
+                for (int j = 0; j < added.size(); j++) {
+                    FlashcardBatchResult result = added.get(j);
+                    result.setIndex(start + validIndexes.get(j));
+                    chunkResults[validIndexes.get(j)] = result;
+                }
+            } catch (ResponseStatusException e) {
+                for (int i : validIndexes) {
+                    chunkResults[i] = FlashcardBatchResult.rejected(start + i, e.getReason());
+                }
+            }
+        }
+        results.addAll(Arrays.asList(chunkResults));
+    }
 }
@@ -0,0 +1,35 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardExportDAO;
+import com.bealean.flashcards_api.dao.FlashcardExportFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/* Streams cards as a CSV in the format ImportUtility and POST /flashcards/import read, so an export can be
+   imported into another database, or the same one, where every card already exists. area, category, and
+   subcategory are optional, and 'all' matches any value, as for get-next-card. The response is compressed with
+   gzip when the request accepts it. */
+@RestController
+@CrossOrigin
+public class FlashcardExportController {
+
+    @Autowired
+    FlashcardExportDAO flashcardExportDAO;
+
+    @RequestMapping(path = "/flashcards/export", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportFlashcards(
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String subcategory,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        /* Checked before the response starts, since an error can't change the status once cards are written. */
+        FlashcardExportFilter filter = flashcardExportDAO.getExportFilter(area, category, subcategory);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8");
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"flashcards.csv\"");
+        return ExportResponse.stream(acceptEncoding, headers, writer -> flashcardExportDAO.exportFlashcards(filter, writer));
+    }
+}
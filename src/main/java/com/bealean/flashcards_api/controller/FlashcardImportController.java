@@ -0,0 +1,38 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardImportDAO;
+import com.bealean.flashcards_api.model.FlashcardImportResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/* Imports a CSV in the format ImportUtility reads, with a header row and six quoted fields on each card row.
+   A text/csv body is parsed as it is received. A multipart upload is read from the file part, which the servlet
+   container writes to a temporary file, so spring.servlet.multipart.max-file-size and max-request-size
+   must allow the size of the CSV. */
+@RestController
+@CrossOrigin
+public class FlashcardImportController {
+
+    @Autowired
+    FlashcardImportDAO flashcardImportDAO;
+
+    @RequestMapping(path = "/flashcards/import", method = RequestMethod.POST, consumes = "text/csv")
+    public FlashcardImportResult importFlashcards(InputStream body) {
+        return flashcardImportDAO.importFlashcards(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @RequestMapping(path = "/flashcards/import", method = RequestMethod.POST,
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public FlashcardImportResult importFlashcardsFromFile(@RequestParam MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return flashcardImportDAO.importFlashcards(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.ImportJobDAO;
+import com.bealean.flashcards_api.model.ImportCheckpoint;
+import com.bealean.flashcards_api.model.ImportJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/* Import jobs of ImportUtility. ImportUtility adds a job when an import starts, saves a checkpoint as the rows
+   are sent, and resumes the job from its checkpoint when an import is restarted with the job ID.
+   Each job includes its progress, as a percentage of the CSV read, and the rows per second of its current run. */
+@RestController
+@CrossOrigin
+public class ImportJobController {
+
+    @Autowired
+    ImportJobDAO importJobDAO;
+
+    @RequestMapping(path = "/import-jobs", method = RequestMethod.POST)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ImportJob addImportJob(@RequestBody ImportJob importJob) {
+        return importJobDAO.addImportJob(importJob);
+    }
+
+    @RequestMapping(path = "/import-jobs", method = RequestMethod.GET)
+    public List<ImportJob> getImportJobs() {
+        return importJobDAO.getImportJobs();
+    }
+
+    @RequestMapping(path = "/import-jobs/{id}", method = RequestMethod.GET)
+    public ImportJob getImportJob(@PathVariable long id) {
+        return importJobDAO.getImportJob(id);
+    }
+
+    @RequestMapping(path = "/import-jobs/{id}/resume", method = RequestMethod.POST)
+    public ImportJob resumeImportJob(@PathVariable long id) {
+        return importJobDAO.resumeImportJob(id);
+    }
+
+    @RequestMapping(path = "/import-jobs/{id}/checkpoint", method = RequestMethod.PUT)
+    public ImportJob saveCheckpoint(@PathVariable long id, @RequestBody ImportCheckpoint checkpoint) {
+        return importJobDAO.saveCheckpoint(id, checkpoint);
+    }
+}
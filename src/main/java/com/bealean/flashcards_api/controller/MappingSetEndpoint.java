@@ -0,0 +1,33 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.MappingSet;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/* GET /actuator/taxonomymappings returns the number of mappings in the in-memory mapping set.
+   POST /actuator/taxonomymappings reloads the set from the database, after the area_category_subcategory
+   table has been edited without the API. Exposed with management.endpoints.web.exposure.include. */
+@Component
+@Endpoint(id = "taxonomymappings")
+public class MappingSetEndpoint {
+
+    private final MappingSet mappingSet;
+
+    public MappingSetEndpoint(MappingSet mappingSet) {
+        this.mappingSet = mappingSet;
+    }
+
+    @ReadOperation
+    public Map<String, Integer> mappings() {
+        return Map.of("mappings", mappingSet.size());
+    }
+
+    @WriteOperation
+    public Map<String, Integer> reload() {
+        return Map.of("mappings", mappingSet.reload());
+    }
+}
@@ -0,0 +1,43 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.ViewReportDAO;
+import com.bealean.flashcards_api.model.DailyViewCount;
+import com.bealean.flashcards_api.model.TaxonomyViewCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/* View reports. from and to are ISO dates (yyyy-MM-dd) in UTC, and both days are included.
+   to defaults to the current day and from to 30 days ending on to. */
+@RestController
+@CrossOrigin
+public class ReportController {
+
+    @Autowired
+    ViewReportDAO viewReportDAO;
+
+    @RequestMapping(path = "/reports/views/daily", method = RequestMethod.GET)
+    public List<DailyViewCount> getViewsPerDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return viewReportDAO.getViewsPerDay(from, to);
+    }
+
+    @RequestMapping(path = "/reports/views/areas", method = RequestMethod.GET)
+    public List<TaxonomyViewCount> getViewsPerArea(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return viewReportDAO.getViewsPerArea(from, to);
+    }
+
+    @RequestMapping(path = "/reports/views/categories", method = RequestMethod.GET)
+    public List<TaxonomyViewCount> getViewsPerCategory(
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return viewReportDAO.getViewsPerCategory(area, from, to);
+    }
+}
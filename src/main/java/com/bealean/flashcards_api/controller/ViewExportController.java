@@ -0,0 +1,53 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.ViewExportDAO;
+import com.bealean.flashcards_api.model.ViewExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+
+/* Streams view history for loading into other systems. since and until are ISO date-times with an offset,
+   such as 2026-01-01T00:00:00Z. since is included and until is not. format is ndjson (the default) or csv.
+   Views are written in order of ID, so an interrupted export is resumed by sending the last ID received
+   as afterId. The response is compressed with gzip when the request accepts it. */
+@RestController
+@CrossOrigin
+public class ViewExportController {
+
+    @Autowired
+    ViewExportDAO viewExportDAO;
+
+    @RequestMapping(path = "/views/export", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportViews(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime until,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ViewExportFormat exportFormat = getFormat(format);
+        /* Checked before the response starts, since an error can't change the status once views are written. */
+        if (since != null && until != null && !since.isBefore(until)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Since must be before Until.");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType() + ";charset=UTF-8");
+        return ExportResponse.stream(acceptEncoding, headers,
+                writer -> viewExportDAO.exportViews(since, until, afterId, exportFormat, writer));
+    }
+
+    private ViewExportFormat getFormat(String format) {
+        try {
+            return ViewExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Invalid format. Send format 'ndjson' or 'csv'.");
+        }
+    }
+}
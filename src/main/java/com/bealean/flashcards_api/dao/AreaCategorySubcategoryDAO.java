@@ -1,6 +1,13 @@
 package com.bealean.flashcards_api.dao;
 
+import java.util.Collection;
+
 public interface AreaCategorySubcategoryDAO {
     boolean doesMappingExist(Long areaId, Long categoryId, Long subcategoryId);
     int addMapping(Long areaId, Long categoryId, Long subcategoryId);
+    int addMappings(Collection<Mapping> mappings);
+
+    /* Area, Category, and Subcategory IDs of a mapping. The Subcategory ID may be null. */
+    record Mapping(Long areaId, Long categoryId, Long subcategoryId) {
+    }
 }
@@ -1,9 +1,12 @@
 package com.bealean.flashcards_api.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface AreaDAO {
     long addArea(String areaName);
+    Map<String, Long> addAreas(Collection<String> areaNames);
     long getAreaIdByName(String areaName);
     List<String> getAreas();
 }
@@ -0,0 +1,97 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.utility.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/* Bounded cache of card bodies (Front, Back, Area, Category, and Subcategory) by card ID, for getCardById.
+   The API never updates or deletes a card, so a cached body stays valid once the card has been committed.
+   Bodies are only cached after the transaction that read them commits, so a card inserted in a transaction
+   that rolls back is never cached. The cache is bounded by the approximate size of the bodies in bytes,
+   so a few cards with long Fronts and Backs don't push out many short ones.
+   lastViewed changes on every view, so it isn't part of the cached body, and a view doesn't replace the
+   cached body. The caller sets it on the copy of the body that is returned.
+   Hit, miss, and eviction counts are published with the flashcards.cards cache metrics,
+   and the hit ratio with the flashcards.cards.hit.ratio gauge. */
+@Component
+public class CardCache {
+
+    /* Approximate bytes of a cached body, other than the characters of its fields. */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Cache<Long, CardBody> bodies;
+
+    /* Used when the DAOs are created without Spring. */
+    public CardCache() {
+        this(16L * 1024 * 1024);
+    }
+
+    @Autowired
+    public CardCache(@Value("${flashcards.card-cache.maximum-weight:16777216}") long maximumWeight) {
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long id, CardBody body) -> body.weight())
+                .recordStats()
+                .build();
+    }
+
+    /* Only the cache created by Spring is published, so caches of DAOs created without Spring
+       don't take the metric names. */
+    @PostConstruct
+    public void registerMetrics() {
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, bodies, "flashcards.cards");
+        Gauge.builder("flashcards.cards.hit.ratio", bodies, cache -> cache.stats().hitRate())
+                .description("Ratio of getCardById requests answered from the card cache")
+                .register(Metrics.globalRegistry);
+    }
+
+    /* Returns a new card without lastViewed, or null if the body of the card isn't cached. */
+    public Flashcard get(long id) {
+        CardBody body = bodies.getIfPresent(id);
+        if (body == null) {
+            return null;
+        }
+        Flashcard flashcard = new Flashcard();
+        flashcard.setId(id);
+        flashcard.setFront(body.front());
+        flashcard.setBack(body.back());
+        flashcard.setArea(body.area());
+        flashcard.setCategory(body.category());
+        flashcard.setSubcategory(body.subcategory());
+        return flashcard;
+    }
+
+    public void put(Flashcard flashcard) {
+        long id = flashcard.getId();
+        CardBody body = new CardBody(flashcard.getFront(), flashcard.getBack(), flashcard.getArea(),
+                flashcard.getCategory(), flashcard.getSubcategory());
+        TransactionHooks.afterCommit(() -> bodies.put(id, body));
+    }
+
+    public CacheStats stats() {
+        return bodies.stats();
+    }
+
+    private record CardBody(String front, String back, String area, String category, String subcategory) {
+
+        /* Java stores most text in one byte per character, but up to two. */
+        int weight() {
+            return ENTRY_OVERHEAD + 2 * (length(front) + length(back) + length(area) + length(category)
+                    + length(subcategory));
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.bealean.flashcards_api.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CategoryDAO {
     List<String> getCategoriesForArea(String areaName);
     long addCategory(String categoryName);
+    Map<String, Long> addCategories(Collection<String> categoryNames);
     long getCategoryIdByName(String categoryName);
 }
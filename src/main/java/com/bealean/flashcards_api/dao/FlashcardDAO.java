@@ -1,9 +1,17 @@
 package com.bealean.flashcards_api.dao;
 
 import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import com.bealean.flashcards_api.model.FlashcardLookupResult;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface FlashcardDAO {
     Flashcard addFlashcard(Flashcard flashcard);
+    List<FlashcardBatchResult> addFlashcards(List<Flashcard> flashcards);
     Flashcard getCardById(Long id);
+    List<FlashcardLookupResult> getCardsByIds(Collection<Long> ids);
     Flashcard getNext(String area, String category, String subcategory);
+    List<Flashcard> getNextBatch(String area, String category, String subcategory, int count);
 }
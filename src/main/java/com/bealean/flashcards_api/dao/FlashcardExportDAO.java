@@ -0,0 +1,8 @@
+package com.bealean.flashcards_api.dao;
+
+import java.io.Writer;
+
+public interface FlashcardExportDAO {
+    FlashcardExportFilter getExportFilter(String area, String category, String subcategory);
+    long exportFlashcards(FlashcardExportFilter filter, Writer writer);
+}
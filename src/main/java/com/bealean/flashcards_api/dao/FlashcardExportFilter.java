@@ -0,0 +1,5 @@
+package com.bealean.flashcards_api.dao;
+
+/* IDs of the Area, Category, and Subcategory of the cards to export. A null ID matches any value. */
+public record FlashcardExportFilter(Long areaId, Long categoryId, Long subcategoryId) {
+}
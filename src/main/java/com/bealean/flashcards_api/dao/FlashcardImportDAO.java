@@ -0,0 +1,9 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.FlashcardImportResult;
+
+import java.io.Reader;
+
+public interface FlashcardImportDAO {
+    FlashcardImportResult importFlashcards(Reader csv);
+}
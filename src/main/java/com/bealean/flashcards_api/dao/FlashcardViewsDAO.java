@@ -1,5 +1,14 @@
 package com.bealean.flashcards_api.dao;
 
+import java.util.List;
+
 public interface FlashcardViewsDAO {
+    /* Returns the number of views recorded, or queued when write-behind is enabled.
+       A queued view isn't checked against the flashcards table, so recordView returns 1 for an ID that doesn't exist
+       instead of throwing a 404 ResponseStatusException, and the view is skipped when the queue is flushed. */
     int recordView(Long id);
+
+    /* IDs that don't exist are skipped. When write-behind is enabled, a queued ID is counted
+       whether or not it exists, and is skipped when the queue is flushed if it doesn't. */
+    int recordViews(List<Long> ids);
 }
@@ -0,0 +1,14 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.ImportCheckpoint;
+import com.bealean.flashcards_api.model.ImportJob;
+
+import java.util.List;
+
+public interface ImportJobDAO {
+    ImportJob addImportJob(ImportJob importJob);
+    ImportJob getImportJob(long id);
+    List<ImportJob> getImportJobs();
+    ImportJob resumeImportJob(long id);
+    ImportJob saveCheckpoint(long id, ImportCheckpoint checkpoint);
+}
@@ -0,0 +1,201 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/* Keeps every card in memory with one queue per Area, Category, Subcategory filter combination,
+   ordered by last view with unviewed cards first, so getNext does not need to query the database.
+   Each card is queued under the filters that would match it: its own value or 'all' for each field,
+   or only 'all' for a field the card doesn't have. That is at most eight queues per card.
+   The queues are only current if this application instance is the only one adding cards
+   and recording views. Enabled with the flashcards.next-card.in-memory property. */
+@Component
+public class InMemoryNextCardScheduler {
+
+    private static final Comparator<ScheduledCard> LEAST_RECENTLY_VIEWED_FIRST =
+            Comparator.comparing(ScheduledCard::lastViewed, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparingLong(ScheduledCard::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    private final Map<Long, Flashcard> cards = new HashMap<>();
+    private final Map<Long, ScheduledCard> schedule = new HashMap<>();
+    private final Map<FilterKey, TreeSet<ScheduledCard>> queues = new HashMap<>();
+    private boolean loaded = false;
+
+    public InMemoryNextCardScheduler(JdbcTemplate jdbcTemplate,
+                                     @Value("${flashcards.next-card.in-memory:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /* Replaces the queues with the current contents of the database. */
+    public synchronized void load() {
+        cards.clear();
+        schedule.clear();
+        queues.clear();
+        String sql = "SELECT f.id AS \"id\", front, back, a.area_name AS \"area\", c.category_name AS \"category\", " +
+                "s.subcategory_name AS \"subcategory\", v.view_timestamp AS \"lastViewed\" FROM flashcards f " +
+                "LEFT OUTER JOIN areas a ON f.area_id = a.id " +
+                "LEFT OUTER JOIN categories c ON f.category_id = c.id " +
+                "LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id " +
+                "LEFT OUTER JOIN flashcard_last_view v ON f.id = v.flashcard_id";
+        jdbcTemplate.query(sql, resultSet -> {
+            Flashcard flashcard = new Flashcard();
+            flashcard.setId(resultSet.getLong("id"));
+            flashcard.setFront(resultSet.getString("front"));
+            flashcard.setBack(resultSet.getString("back"));
+            flashcard.setArea(resultSet.getString("area"));
+            flashcard.setCategory(resultSet.getString("category"));
+            flashcard.setSubcategory(resultSet.getString("subcategory"));
+            flashcard.setLastViewed(resultSet.getTimestamp("lastViewed"));
+            schedule(flashcard);
+        });
+        loaded = true;
+    }
+
+    /* Parameters follow getNext: null means any value, including no value.
+       Returns up to limit different cards, least recently viewed first, or an empty List if no cards match.
+       The returned cards are rescheduled as viewed now. */
+    public synchronized List<Flashcard> next(String area, String category, String subcategory, int limit) {
+        ensureLoaded();
+        List<Flashcard> next = new ArrayList<>();
+        TreeSet<ScheduledCard> queue = queues.get(new FilterKey(area, category, subcategory));
+        if (queue == null) {
+            return next;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (ScheduledCard scheduledCard : queue) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(scheduledCard.id());
+        }
+        /* Rescheduling changes the queue order, so cards are only rescheduled after they are all selected. */
+        Timestamp viewed = new Timestamp(System.currentTimeMillis());
+        for (Long id : ids) {
+            recordView(id, viewed);
+            next.add(copyOf(cards.get(id)));
+        }
+        return next;
+    }
+
+    public synchronized void add(Flashcard flashcard) {
+        /* Cards added before the first load are picked up by the load. */
+        if (loaded && flashcard.getId() != null && !cards.containsKey(flashcard.getId())) {
+            schedule(flashcard);
+        }
+    }
+
+    public synchronized void recordView(long id, Timestamp viewed) {
+        Flashcard flashcard = cards.get(id);
+        if (flashcard == null) {
+            return;
+        }
+        ScheduledCard previous = schedule.get(id);
+        ScheduledCard current = new ScheduledCard(id, viewed, previous.lastViewed());
+        for (FilterKey key : filterKeysFor(flashcard)) {
+            TreeSet<ScheduledCard> queue = queues.get(key);
+            queue.remove(previous);
+            queue.add(current);
+        }
+        schedule.put(id, current);
+        flashcard.setLastViewed(viewed);
+    }
+
+    /* Reschedules cards returned by next at the view they had before, for when their views could not be recorded.
+       A card that has been returned again since is left as it is. */
+    public synchronized void undoViews(List<Flashcard> flashcards) {
+        for (Flashcard returned : flashcards) {
+            ScheduledCard current = schedule.get(returned.getId());
+            if (current == null || !Objects.equals(current.lastViewed(), returned.getLastViewed())) {
+                continue;
+            }
+            Flashcard flashcard = cards.get(returned.getId());
+            ScheduledCard previous = new ScheduledCard(current.id(), current.previousView(), null);
+            for (FilterKey key : filterKeysFor(flashcard)) {
+                TreeSet<ScheduledCard> queue = queues.get(key);
+                queue.remove(current);
+                queue.add(previous);
+            }
+            schedule.put(current.id(), previous);
+            flashcard.setLastViewed(current.previousView());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private void schedule(Flashcard flashcard) {
+        ScheduledCard scheduledCard = new ScheduledCard(flashcard.getId(), flashcard.getLastViewed(), null);
+        cards.put(flashcard.getId(), copyOf(flashcard));
+        schedule.put(flashcard.getId(), scheduledCard);
+        for (FilterKey key : filterKeysFor(flashcard)) {
+            queues.computeIfAbsent(key, k -> new TreeSet<>(LEAST_RECENTLY_VIEWED_FIRST)).add(scheduledCard);
+        }
+    }
+
+    private static List<FilterKey> filterKeysFor(Flashcard flashcard) {
+        List<FilterKey> keys = new ArrayList<>(8);
+        for (String area : valueAndAll(flashcard.getArea())) {
+            for (String category : valueAndAll(flashcard.getCategory())) {
+                for (String subcategory : valueAndAll(flashcard.getSubcategory())) {
+                    keys.add(new FilterKey(area, category, subcategory));
+                }
+            }
+        }
+        return keys;
+    }
+
+    /* null represents 'all' in a FilterKey. */
+    private static String[] valueAndAll(String value) {
+        return value == null ? new String[]{null} : new String[]{value, null};
+    }
+
+    private static Flashcard copyOf(Flashcard flashcard) {
+        Flashcard copy = new Flashcard();
+        copy.setId(flashcard.getId());
+        copy.setFront(flashcard.getFront());
+        copy.setBack(flashcard.getBack());
+        copy.setArea(flashcard.getArea());
+        copy.setCategory(flashcard.getCategory());
+        copy.setSubcategory(flashcard.getSubcategory());
+        copy.setLastViewed(flashcard.getLastViewed());
+        return copy;
+    }
+
+    private record FilterKey(String area, String category, String subcategory) {
+    }
+
+    /* previousView is the last view before the one recorded by next, so that view can be undone. */
+    private record ScheduledCard(long id, Timestamp lastViewed, Timestamp previousView) {
+    }
+}
@@ -1,13 +1,20 @@
 package com.bealean.flashcards_api.dao;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -16,9 +23,13 @@ public class JdbcAreaCategorySubcategoryDAO implements AreaCategorySubcategoryDA
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    MappingSet mappingSet;
+
     public JdbcAreaCategorySubcategoryDAO(NamedParameterJdbcTemplate namedParameterJdbcTemplate, JdbcTemplate jdbcTemplate) {
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
         this.jdbcTemplate = jdbcTemplate;
+        this.mappingSet = new MappingSet(jdbcTemplate);
     }
 
     @Override
@@ -44,9 +55,17 @@ public class JdbcAreaCategorySubcategoryDAO implements AreaCategorySubcategoryDA
             return false;
         }
 
+        if (mappingSet.contains(areaId, categoryId, subcategoryId)) {
+            return true;
+        }
+
         try {
             Integer count = namedParameterJdbcTemplate.queryForObject(sql, params, Integer.class);
-            return count != null && count.equals(1);
+            boolean exists = count != null && count.equals(1);
+            if (exists) {
+                mappingSet.add(areaId, categoryId, subcategoryId);
+            }
+            return exists;
         } catch (DataAccessException e) {
             System.out.println("Caught Exception: " + e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -56,37 +75,102 @@ public class JdbcAreaCategorySubcategoryDAO implements AreaCategorySubcategoryDA
 
     @Override
     public int addMapping(Long areaId, Long categoryId, Long subcategoryId) {
-        int result = 0;
-        String sql;
-
-        /* Confirm non-null IDs exist before attempting to insert mapping record */
-        if (areaId != null) {
-            sql = "SELECT COUNT(*) FROM areas WHERE id = ?";
-            checkIfIdExists(sql, areaId, "Area");
-        }
-        if (categoryId != null) {
-            sql = "SELECT COUNT(*) FROM categories WHERE id = ?";
-            checkIfIdExists(sql, categoryId, "Category");
-        }
-        if (subcategoryId != null) {
-            sql = "SELECT COUNT(*) FROM subcategories WHERE id = ?";
-            checkIfIdExists(sql, subcategoryId, "Subcategory");
+        /* Only add mappings with at least an Area and Category. Mappings correspond to filter options.
+           Confirm non-null IDs exist when no mapping is added, so missing IDs are still reported. */
+        if (areaId == null || categoryId == null) {
+            if (areaId != null) {
+                checkIfIdExists("SELECT COUNT(*) FROM areas WHERE id = ?", areaId, "Area");
+            }
+            if (categoryId != null) {
+                checkIfIdExists("SELECT COUNT(*) FROM categories WHERE id = ?", categoryId, "Category");
+            }
+            if (subcategoryId != null) {
+                checkIfIdExists("SELECT COUNT(*) FROM subcategories WHERE id = ?", subcategoryId, "Subcategory");
+            }
+            return 0;
         }
-        /* Don't add mapping if it exists and only add mappings with at least an Area and Category.
-           Mappings correspond to filter options. */
-        if (!doesMappingExist(areaId, categoryId, subcategoryId) &&
-                areaId != null && categoryId != null) {
-            sql = "INSERT INTO area_category_subcategory (area_id, category_id, subcategory_id)" +
-                    " VALUES (?, ?, ?)";
-            try {
-                result = jdbcTemplate.update(sql, areaId, categoryId, subcategoryId);
-            } catch (DataAccessException e) {
-                System.out.println("Caught Exception: " + e.getMessage());
+
+        /* The foreign keys confirm the IDs exist, and the unique constraint, or the partial unique index for
+           mappings without a Subcategory, prevents duplicates. ON CONFLICT DO NOTHING waits for a concurrent
+           insert of the same mapping, instead of failing, and returns 0 if the mapping already exists. */
+        String sql = "INSERT INTO area_category_subcategory (area_id, category_id, subcategory_id)" +
+                " VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+        try {
+            int insertedMappings = jdbcTemplate.update(sql, areaId, categoryId, subcategoryId);
+            mappingSet.add(areaId, categoryId, subcategoryId);
+            return insertedMappings;
+        } catch (DataIntegrityViolationException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            String missing = getMissingName(e);
+            if (missing == null) {
                 throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                         "Unable to add Area, Category, Subcategory mapping in database.");
             }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    missing + " not found. Unable to add mapping for missing " + missing + ".");
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Unable to add Area, Category, Subcategory mapping in database.");
+        }
+    }
+
+    /* Adds the mappings that don't exist with one statement and returns the number added.
+       Only mappings with an Area and Category are added, and the IDs are expected to exist.
+       Mappings are inserted in order, so concurrent batches with some of the same new mappings
+       wait for each other on the unique indexes, instead of deadlocking. */
+    @Override
+    public int addMappings(Collection<Mapping> mappings) {
+        List<Mapping> newMappings = new ArrayList<>();
+        for (Mapping mapping : new LinkedHashSet<>(mappings)) {
+            if (mapping.areaId() != null && mapping.categoryId() != null
+                    && !mappingSet.contains(mapping.areaId(), mapping.categoryId(), mapping.subcategoryId())) {
+                newMappings.add(mapping);
+            }
+        }
+        if (newMappings.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO area_category_subcategory (area_id, category_id, subcategory_id) " +
+                "SELECT area_id, category_id, subcategory_id " +
+                "FROM unnest(?::bigint[], ?::bigint[], ?::bigint[]) AS m(area_id, category_id, subcategory_id) " +
+                "ORDER BY area_id, category_id, subcategory_id ON CONFLICT DO NOTHING";
+        int insertedMappings;
+        try {
+            insertedMappings = jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setArray(1, connection.createArrayOf("bigint",
+                        newMappings.stream().map(Mapping::areaId).toArray()));
+                statement.setArray(2, connection.createArrayOf("bigint",
+                        newMappings.stream().map(Mapping::categoryId).toArray()));
+                statement.setArray(3, connection.createArrayOf("bigint",
+                        newMappings.stream().map(Mapping::subcategoryId).toArray()));
+                return statement;
+            });
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Unable to add Area, Category, Subcategory mappings in database.");
+        }
+        for (Mapping mapping : newMappings) {
+            mappingSet.add(mapping.areaId(), mapping.categoryId(), mapping.subcategoryId());
+        }
+        return insertedMappings;
+    }
+
+    /* Returns the name of the field with a missing ID from the foreign key constraint in the exception message,
+       or null if a foreign key wasn't violated. */
+    private String getMissingName(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains("\"fk_area_category_subcategory_area\"")) {
+            return "Area";
+        } else if (message.contains("\"fk_area_category_subcategory_category\"")) {
+            return "Category";
+        } else if (message.contains("\"fk_area_category_subcategory_subcategory\"")) {
+            return "Subcategory";
         }
-        return result;
+        return null;
     }
 
     void checkIfIdExists(String sql, Long id, String name) {
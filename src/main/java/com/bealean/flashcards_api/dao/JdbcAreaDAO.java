@@ -1,24 +1,29 @@
 package com.bealean.flashcards_api.dao;
 
 import com.bealean.flashcards_api.utility.InputScrubber;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Component
 public class JdbcAreaDAO implements AreaDAO {
 
+    @Autowired
+    TaxonomyIdCache taxonomyIdCache;
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcAreaDAO(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.taxonomyIdCache = new TaxonomyIdCache();
     }
 
     @Override
@@ -28,25 +33,45 @@ public class JdbcAreaDAO implements AreaDAO {
         if (areaName == null) {
             return -1L;
         }
+        Long cachedId = taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.AREA, areaName);
+        if (cachedId != null) {
+            return cachedId;
+        }
 
-        /* This call will return -1 if the area doesn't already exist.
-           If the area already exists, store the existing id to return
-           and don't add duplicate area. */
-        long areaId = getAreaIdByName(areaName);
-
-        if (areaId < 0) {
-            String sql = "INSERT INTO areas (area_name) VALUES (?) RETURNING id";
-            try {
-                areaId = Objects.requireNonNullElse(jdbcTemplate.queryForObject(sql, Long.class, areaName), -1L);
-            } catch (DataAccessException e) {
-                e.printStackTrace();
-                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Area failed to be added.");
+        /* Insert the Area, or return the ID of the existing Area with the same name, in one statement.
+           ON CONFLICT DO NOTHING waits for a concurrent insert of the same name to finish, instead of failing on
+           the UNIQUE constraint, so parallel requests for a new Area get the same ID.
+           The existing Area is returned by the second SELECT. If another transaction committed it after
+           this statement started, it isn't visible to the statement, so it is selected again. */
+        String sql = "WITH inserted AS (INSERT INTO areas (area_name) VALUES (?) " +
+                "ON CONFLICT (area_name) DO NOTHING RETURNING id) " +
+                "SELECT id FROM inserted UNION ALL SELECT id FROM areas WHERE area_name = ?";
+        long areaId;
+        try {
+            List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, areaName, areaName);
+            if (ids.isEmpty()) {
+                ids = jdbcTemplate.queryForList("SELECT id FROM areas WHERE area_name = ?", Long.class, areaName);
             }
+            areaId = ids.isEmpty() ? -1L : ids.get(0);
+        } catch (DataAccessException e) {
+            e.printStackTrace();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Area failed to be added.");
+        }
+        if (areaId >= 0) {
+            taxonomyIdCache.put(TaxonomyIdCache.Taxonomy.AREA, areaName, areaId);
         }
         return areaId;
     }
 
+    /* Adds the Areas that don't exist with one statement and returns the IDs of all of the names.
+       Names are expected to be trimmed and not null. */
+    @Override
+    public Map<String, Long> addAreas(Collection<String> areaNames) {
+        return TaxonomyNameBatch.addNames(jdbcTemplate, taxonomyIdCache, TaxonomyIdCache.Taxonomy.AREA,
+                "areas", "area_name", areaNames, "Areas failed to be added.");
+    }
+
     @Override
     public long getAreaIdByName(String areaName) {
         long areaId = -1L;
@@ -60,6 +85,10 @@ public class JdbcAreaDAO implements AreaDAO {
            even if they exist */
         areaName = InputScrubber.trimStringAndSetEmptyToNull(areaName);
         if (areaName != null) {
+            Long cachedId = taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.AREA, areaName);
+            if (cachedId != null) {
+                return cachedId;
+            }
             try {
                 areaId = Objects.requireNonNullElse(jdbcTemplate.queryForObject(sql, Long.class, areaName), -1L);
             } catch (DataAccessException e) {
@@ -69,23 +98,20 @@ public class JdbcAreaDAO implements AreaDAO {
                 throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                         "Exception checking for Area in database.");
             }
+            if (areaId >= 0) {
+                taxonomyIdCache.put(TaxonomyIdCache.Taxonomy.AREA, areaName, areaId);
+            }
         }
         return areaId;
     }
 /* Not providing a method to get Areas for a Category and/or Subcategory for now. */
     @Override
     public List<String> getAreas() {
-        List<String> areaList = new ArrayList<>();
         /* Areas table has UNIQUE constraint on area_name.
          Case variations are allowed. If user decides to use a different case, it will be possible
          to update cards to new case and old case will be automatically removed when it is no longer
          referenced by any cards. */
         String sql = "SELECT area_name FROM areas ORDER BY area_name";
-        SqlRowSet results = jdbcTemplate.queryForRowSet(sql);
-
-        while (results.next()) {
-            areaList.add(results.getString("area_name"));
-        }
-        return areaList;
+        return jdbcTemplate.query(sql, (resultSet, rowNumber) -> resultSet.getString("area_name"));
     }
 }
@@ -5,12 +5,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Component
@@ -19,19 +19,20 @@ public class JdbcCategoryDAO implements CategoryDAO {
     @Autowired
     AreaDAO areaDAO;
 
+    @Autowired
+    TaxonomyIdCache taxonomyIdCache;
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcCategoryDAO(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
         this.areaDAO = new JdbcAreaDAO(jdbcTemplate);
+        this.taxonomyIdCache = new TaxonomyIdCache();
     }
 
     /* Not providing a method to get Categories for a Subcategory for now. */
     @Override
     public List<String> getCategoriesForArea(String areaName) {
-        List<String> categoryList = new ArrayList<>();
-        SqlRowSet results;
-
         areaName = InputScrubber.trimStringAndSetEmptyToNull(areaName);
 
         if (areaName != null && areaName.equalsIgnoreCase("all")) {
@@ -40,7 +41,7 @@ public class JdbcCategoryDAO implements CategoryDAO {
              to update cards to new case and old case will be automatically removed when it is no longer
              referenced by any cards. */
             String sql = "SELECT category_name FROM categories ORDER BY category_name";
-            results = jdbcTemplate.queryForRowSet(sql);
+            return jdbcTemplate.query(sql, (resultSet, rowNumber) -> resultSet.getString("category_name"));
         } else {
             long areaId = areaDAO.getAreaIdByName(areaName);
             if (areaId < 0) {
@@ -52,12 +53,8 @@ public class JdbcCategoryDAO implements CategoryDAO {
                     "JOIN area_category_subcategory acs ON c.id = acs.category_id " +
                     "WHERE acs.area_id = ? " +
                     "ORDER BY category_name";
-            results = jdbcTemplate.queryForRowSet(sql, areaId);
+            return jdbcTemplate.query(sql, (resultSet, rowNumber) -> resultSet.getString("category_name"), areaId);
         }
-        while (results.next()) {
-            categoryList.add(results.getString("category_name"));
-        }
-        return categoryList;
     }
 
     @Override
@@ -68,23 +65,43 @@ public class JdbcCategoryDAO implements CategoryDAO {
         if (categoryName == null) {
             return -1L;
         }
+        Long cachedId = taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.CATEGORY, categoryName);
+        if (cachedId != null) {
+            return cachedId;
+        }
 
-        /* If category already exists,
-           the existing id will be returned */
-        Long categoryId = getCategoryIdByName(categoryName);
-
-        /* If category doesn't exist, add it */
-        if (categoryId < 0) {
-            String sql = "INSERT INTO categories (category_name) VALUES (?) RETURNING id";
-            try {
-                categoryId = jdbcTemplate.queryForObject(sql, Long.class, categoryName);
-            } catch (DataAccessException e) {
-                e.printStackTrace();
-                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Category failed to be added.");
+        /* Insert the Category, or return the ID of the existing Category with the same name, in one statement.
+           ON CONFLICT DO NOTHING waits for a concurrent insert of the same name to finish, instead of failing on
+           the UNIQUE constraint, so parallel requests for a new Category get the same ID.
+           The existing Category is returned by the second SELECT. If another transaction committed it after
+           this statement started, it isn't visible to the statement, so it is selected again. */
+        String sql = "WITH inserted AS (INSERT INTO categories (category_name) VALUES (?) " +
+                "ON CONFLICT (category_name) DO NOTHING RETURNING id) " +
+                "SELECT id FROM inserted UNION ALL SELECT id FROM categories WHERE category_name = ?";
+        long categoryId;
+        try {
+            List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, categoryName, categoryName);
+            if (ids.isEmpty()) {
+                ids = jdbcTemplate.queryForList("SELECT id FROM categories WHERE category_name = ?", Long.class, categoryName);
             }
+            categoryId = ids.isEmpty() ? -1L : ids.get(0);
+        } catch (DataAccessException e) {
+            e.printStackTrace();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Category failed to be added.");
         }
-        return Objects.requireNonNullElse(categoryId, -1L);
+        if (categoryId >= 0) {
+            taxonomyIdCache.put(TaxonomyIdCache.Taxonomy.CATEGORY, categoryName, categoryId);
+        }
+        return categoryId;
+    }
+
+    /* Adds the Categories that don't exist with one statement and returns the IDs of all of the names.
+       Names are expected to be trimmed and not null. */
+    @Override
+    public Map<String, Long> addCategories(Collection<String> categoryNames) {
+        return TaxonomyNameBatch.addNames(jdbcTemplate, taxonomyIdCache, TaxonomyIdCache.Taxonomy.CATEGORY,
+                "categories", "category_name", categoryNames, "Categories failed to be added.");
     }
 
     @Override
@@ -97,6 +114,10 @@ public class JdbcCategoryDAO implements CategoryDAO {
            when this method is used to check if a category exists or not. */
         String sql = "SELECT COALESCE(MAX(id),-1) FROM categories WHERE category_name = ?";
         if (categoryName != null) {
+            Long cachedId = taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.CATEGORY, categoryName);
+            if (cachedId != null) {
+                return cachedId;
+            }
             try {
                 categoryId = jdbcTemplate.queryForObject(sql, Long.class, categoryName);
             } catch (DataAccessException e) {
@@ -106,6 +127,9 @@ public class JdbcCategoryDAO implements CategoryDAO {
                 throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                         "Exception checking for Category in database.");
             }
+            if (categoryId != null && categoryId >= 0) {
+                taxonomyIdCache.put(TaxonomyIdCache.Taxonomy.CATEGORY, categoryName, categoryId);
+            }
         }
 
         return Objects.requireNonNullElse(categoryId, -1L);
@@ -1,22 +1,58 @@
 package com.bealean.flashcards_api.dao;
 
 import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import com.bealean.flashcards_api.model.FlashcardLookupResult;
 import com.bealean.flashcards_api.utility.InputScrubber;
+import com.bealean.flashcards_api.utility.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Component
 public class JdbcFlashcardDAO implements FlashcardDAO {
+    /* Upper limit for the number of cards requested from getNextBatch. */
+    private static final int MAX_NEXT_BATCH_SIZE = 100;
+
+    /* Upper limit for the number of IDs requested from getCardsByIds. */
+    static final int MAX_IDS_PER_REQUEST = 1000;
+
+    /* Bits of the index into CLAIM_NEXT_SQL for the fields getNextBatch filters on. */
+    private static final int AREA_FILTER = 1;
+    private static final int CATEGORY_FILTER = 2;
+    private static final int SUBCATEGORY_FILTER = 4;
+
+    /* Claim statement for each combination of filtered fields, indexed by the filter bits. */
+    private static final String[] CLAIM_NEXT_SQL = new String[8];
+
+    static {
+        for (int filters = 0; filters < CLAIM_NEXT_SQL.length; filters++) {
+            CLAIM_NEXT_SQL[filters] = buildClaimNextSql(filters);
+        }
+    }
+
     @Autowired
     AreaDAO areaDAO;
 
@@ -32,6 +68,12 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
     @Autowired
     FlashcardViewsDAO flashcardViewsDAO;
 
+    @Autowired
+    InMemoryNextCardScheduler nextCardScheduler;
+
+    @Autowired
+    CardCache cardCache;
+
     private final JdbcTemplate jdbcTemplate;
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
@@ -43,6 +85,8 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
         this.subcategoryDAO = new JdbcSubcategoryDAO(jdbcTemplate);
         this.areaCategorySubcategoryDAO = new JdbcAreaCategorySubcategoryDAO(namedParameterJdbcTemplate, jdbcTemplate);
         this.flashcardViewsDAO = new JdbcFlashcardViewsDAO(jdbcTemplate);
+        this.nextCardScheduler = new InMemoryNextCardScheduler(jdbcTemplate, false);
+        this.cardCache = new CardCache();
     }
 
     /* Adding a Flashcard may require multiple database updates to add Area, Category, Subcategory,
@@ -81,22 +125,7 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
             subcategoryId = subcategoryDAO.getSubcategoryIdByName(subcategory);
         }
 
-        /* If a Category is specified without an Area, throw exception and don't add card. */
-        if (area == null && category != null) {
-            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
-                    "Area must be specified, if Category is specified. Card not added.");
-        }
-
-        /* If a Subcategory is specified without a Category, throw exception and don't add card. */
-        if (category == null && subcategory != null) {
-            if (area == null) {
-                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Area and Category must be specified, if Subcategory is specified. Card not added.");
-            } else {
-                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Category must be specified, if Subcategory is specified. Card not added.");
-            }
-        }
+        checkTaxonomyFields(area, category, subcategory);
 
         // If card with same details already exists, return it.
         Map<String, Object> params = new HashMap<>();
@@ -106,14 +135,14 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
         params.put("category_id", categoryId);
         params.put("subcategory_id", subcategoryId);
         /*  Ids could be bigint or null (Bean validation prevents Front or Back from being Blank).
-         * Added CAST to NULL checks because Postgres couldn't determine the data type of null parameters otherwise.
+         * Added CAST to NULL parameters because Postgres couldn't determine the data type of null parameters otherwise.
          * This was the case even if all of the parameters were Long values and Long was
-         * specified as the data type for the values in the parameter map */
-        String sql = "SELECT COALESCE(MAX(id),-1) FROM flashcards " +
-                "WHERE front = :front AND back = :back " +
-                "AND (area_id = :area_id OR (CAST(:area_id AS bigint) IS NULL) AND area_id IS NULL) " +
-                "AND (category_id = :category_id OR (CAST(:category_id AS bigint) IS NULL) AND category_id IS NULL) " +
-                "AND (subcategory_id = :subcategory_id OR (CAST(:subcategory_id AS bigint) IS NULL) AND subcategory_id IS NULL)";
+         * specified as the data type for the values in the parameter map.
+         * Cards are looked up by the hash of their details, which treats NULL IDs as equal,
+         * using the unique index on content_hash. */
+        String sql = "SELECT COALESCE(MAX(id),-1) FROM flashcards WHERE content_hash = " +
+                "flashcard_content_hash(:front, :back, CAST(:area_id AS bigint), " +
+                "CAST(:category_id AS bigint), CAST(:subcategory_id AS bigint))";
         try {
             id = namedParameterJdbcTemplate.queryForObject(sql, params, Long.class);
             if (id != null && id >= 0) {
@@ -171,6 +200,208 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
         }
     }
 
+    /* A Category requires an Area, and a Subcategory requires a Category. */
+    static void checkTaxonomyFields(String area, String category, String subcategory) {
+        /* If a Category is specified without an Area, throw exception and don't add card. */
+        if (area == null && category != null) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Area must be specified, if Category is specified. Card not added.");
+        }
+
+        /* If a Subcategory is specified without a Category, throw exception and don't add card. */
+        if (category == null && subcategory != null) {
+            if (area == null) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Area and Category must be specified, if Subcategory is specified. Card not added.");
+            } else {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Category must be specified, if Subcategory is specified. Card not added.");
+            }
+        }
+    }
+
+    /* Adds a batch of cards with a fixed number of statements, instead of several statements for each card.
+       The distinct Area, Category, and Subcategory names are added or looked up once for the batch,
+       then the new mappings are added, and the cards that don't already exist are inserted with one statement.
+       Returns a result for each card, in order. A card with the same details as an existing card, or as an
+       earlier card in the batch, is EXISTING, with the ID of that card. A card that breaks the Area, Category,
+       and Subcategory rules of addFlashcard is REJECTED. If a statement fails, none of the cards are added. */
+    @Override
+    @Transactional(rollbackFor = {ResponseStatusException.class})
+    public List<FlashcardBatchResult> addFlashcards(List<Flashcard> flashcards) {
+        FlashcardBatchResult[] results = new FlashcardBatchResult[flashcards.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> areas = new HashSet<>();
+        Set<String> categories = new HashSet<>();
+        Set<String> subcategories = new HashSet<>();
+        for (int i = 0; i < flashcards.size(); i++) {
+            Flashcard flashcard = flashcards.get(i);
+            try {
+                checkTaxonomyFields(flashcard.getArea(), flashcard.getCategory(), flashcard.getSubcategory());
+            } catch (ResponseStatusException e) {
+                results[i] = FlashcardBatchResult.rejected(i, e.getReason());
+                continue;
+            }
+            accepted.add(i);
+            addIfNotNull(areas, flashcard.getArea());
+            addIfNotNull(categories, flashcard.getCategory());
+            addIfNotNull(subcategories, flashcard.getSubcategory());
+        }
+
+        List<Flashcard> createdCards = new ArrayList<>();
+        try {
+            Map<String, Long> areaIds = areas.isEmpty() ? Map.of() : areaDAO.addAreas(areas);
+            Map<String, Long> categoryIds = categories.isEmpty() ? Map.of() : categoryDAO.addCategories(categories);
+            Map<String, Long> subcategoryIds = subcategories.isEmpty() ? Map.of() :
+                    subcategoryDAO.addSubcategories(subcategories);
+
+            /* Index of the first card in the batch with each set of details. */
+            Map<CardKey, Integer> firstIndexes = new LinkedHashMap<>();
+            CardKey[] cardKeys = new CardKey[flashcards.size()];
+            Set<AreaCategorySubcategoryDAO.Mapping> mappings = new LinkedHashSet<>();
+            for (int i : accepted) {
+                Flashcard flashcard = flashcards.get(i);
+                CardKey key = new CardKey(flashcard.getFront(), flashcard.getBack(),
+                        getIdOrNull(areaIds, flashcard.getArea()), getIdOrNull(categoryIds, flashcard.getCategory()),
+                        getIdOrNull(subcategoryIds, flashcard.getSubcategory()));
+                cardKeys[i] = key;
+                firstIndexes.putIfAbsent(key, i);
+                if (key.areaId() != null && key.categoryId() != null) {
+                    mappings.add(new AreaCategorySubcategoryDAO.Mapping(key.areaId(), key.categoryId(),
+                            key.subcategoryId()));
+                }
+            }
+            areaCategorySubcategoryDAO.addMappings(mappings);
+
+            List<CardKey> keys = new ArrayList<>(firstIndexes.keySet());
+            Map<CardKey, Long> existing = findExistingCards(keys);
+            List<CardKey> newKeys = new ArrayList<>(keys);
+            newKeys.removeAll(existing.keySet());
+            Map<CardKey, Long> created = newKeys.isEmpty() ? Map.of() : insertCards(newKeys);
+            /* Cards another transaction added after the existing cards were checked aren't inserted. */
+            if (created.size() < newKeys.size()) {
+                newKeys.removeAll(created.keySet());
+                existing.putAll(findExistingCards(newKeys));
+            }
+
+            for (int i : accepted) {
+                CardKey key = cardKeys[i];
+                Long id = created.get(key);
+                if (id != null && firstIndexes.get(key) == i) {
+                    results[i] = new FlashcardBatchResult(i, FlashcardBatchResult.Status.CREATED, id, null);
+                    createdCards.add(copyWithId(flashcards.get(i), id));
+                } else {
+                    id = id != null ? id : existing.get(key);
+                    if (id == null) {
+                        throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                                "Flashcards failed to be added.");
+                    }
+                    results[i] = new FlashcardBatchResult(i, FlashcardBatchResult.Status.EXISTING, id, null);
+                }
+            }
+        } catch (ResponseStatusException e) {
+            e.printStackTrace();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Flashcards and dependencies not added. " + e.getReason());
+        }
+
+        if (nextCardScheduler.isEnabled() && !createdCards.isEmpty()) {
+            TransactionHooks.afterCommit(() -> createdCards.forEach(nextCardScheduler::add));
+        }
+        return Arrays.asList(results);
+    }
+
+    /* Returns the IDs of the existing cards with the same details as the keys, looked up by content hash. */
+    private Map<CardKey, Long> findExistingCards(List<CardKey> keys) {
+        Map<CardKey, Long> ids = new HashMap<>();
+        if (keys.isEmpty()) {
+            return ids;
+        }
+        String sql = "SELECT f.id, f.front, f.back, f.area_id, f.category_id, f.subcategory_id " +
+                "FROM unnest(?::varchar[], ?::varchar[], ?::bigint[], ?::bigint[], ?::bigint[]) " +
+                "AS c(front, back, area_id, category_id, subcategory_id) " +
+                "JOIN flashcards f ON f.content_hash = " +
+                "flashcard_content_hash(c.front, c.back, c.area_id, c.category_id, c.subcategory_id)";
+        try {
+            jdbcTemplate.query(connection -> prepareWithCardArrays(connection, sql, keys),
+                    resultSet -> {
+                        ids.put(mapRowToCardKey(resultSet), resultSet.getLong("id"));
+                    });
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Failure checking if cards already exist.");
+        }
+        return ids;
+    }
+
+    /* Inserts the cards with one statement and returns the IDs of the inserted cards.
+       Cards are inserted in order, so concurrent batches with some of the same cards wait for each other
+       on the unique content hash index, instead of deadlocking. A card that another transaction inserted after
+       the existing cards were checked isn't inserted or returned. */
+    private Map<CardKey, Long> insertCards(List<CardKey> keys) {
+        Map<CardKey, Long> ids = new HashMap<>();
+        String sql = "INSERT INTO flashcards (front, back, area_id, category_id, subcategory_id) " +
+                "SELECT front, back, area_id, category_id, subcategory_id " +
+                "FROM unnest(?::varchar[], ?::varchar[], ?::bigint[], ?::bigint[], ?::bigint[]) " +
+                "AS c(front, back, area_id, category_id, subcategory_id) " +
+                "ORDER BY front, back, area_id, category_id, subcategory_id " +
+                "ON CONFLICT (content_hash) DO NOTHING RETURNING id, front, back, area_id, category_id, subcategory_id";
+        try {
+            jdbcTemplate.query(connection -> prepareWithCardArrays(connection, sql, keys),
+                    resultSet -> {
+                        ids.put(mapRowToCardKey(resultSet), resultSet.getLong("id"));
+                    });
+        } catch (DataAccessException e) {
+            e.printStackTrace();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Flashcards failed to be added.");
+        }
+        return ids;
+    }
+
+    private static PreparedStatement prepareWithCardArrays(Connection connection, String sql, List<CardKey> keys)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setArray(1, connection.createArrayOf("varchar", keys.stream().map(CardKey::front).toArray()));
+        statement.setArray(2, connection.createArrayOf("varchar", keys.stream().map(CardKey::back).toArray()));
+        statement.setArray(3, connection.createArrayOf("bigint", keys.stream().map(CardKey::areaId).toArray()));
+        statement.setArray(4, connection.createArrayOf("bigint", keys.stream().map(CardKey::categoryId).toArray()));
+        statement.setArray(5, connection.createArrayOf("bigint", keys.stream().map(CardKey::subcategoryId).toArray()));
+        return statement;
+    }
+
+    private static CardKey mapRowToCardKey(ResultSet resultSet) throws SQLException {
+        return new CardKey(resultSet.getString("front"), resultSet.getString("back"),
+                resultSet.getObject("area_id", Long.class), resultSet.getObject("category_id", Long.class),
+                resultSet.getObject("subcategory_id", Long.class));
+    }
+
+    private static Flashcard copyWithId(Flashcard flashcard, Long id) {
+        Flashcard copy = new Flashcard();
+        copy.setId(id);
+        copy.setFront(flashcard.getFront());
+        copy.setBack(flashcard.getBack());
+        copy.setArea(flashcard.getArea());
+        copy.setCategory(flashcard.getCategory());
+        copy.setSubcategory(flashcard.getSubcategory());
+        return copy;
+    }
+
+    private static Long getIdOrNull(Map<String, Long> ids, String name) {
+        return name == null ? null : ids.get(name);
+    }
+
+    private static void addIfNotNull(Set<String> names, String name) {
+        if (name != null) {
+            names.add(name);
+        }
+    }
+
+    /* Details that identify a card, which the content hash is calculated from. */
+    private record CardKey(String front, String back, Long areaId, Long categoryId, Long subcategoryId) {
+    }
+
     @Override
     public Flashcard getCardById(Long id) {
         if (id == null) {
@@ -178,30 +409,31 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
                     "Id cannot be null");
         }
 
+        /* The last view is read from flashcard_last_view, which has at most one row for each card,
+           so the query reads one row however many views of the card are in flashcard_views.
+           A card that is in the card cache only needs its last view. */
         String sql = "SELECT f.id AS \"id\", front, back, a.area_name AS \"area\", c.category_name AS \"category\", s.subcategory_name " +
-                "AS \"subcategory\", fv.view_timestamp AS \"lastViewed\" FROM flashcards f " +
+                "AS \"subcategory\", flv.view_timestamp AS \"lastViewed\" FROM flashcards f " +
                 "LEFT OUTER JOIN areas a ON f.area_id = a.id " +
                 "LEFT OUTER JOIN categories c ON f.category_id = c.id " +
                 "LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id " +
-                "LEFT OUTER JOIN flashcard_views fv ON f.id = fv.flashcard_id " +
+                "LEFT OUTER JOIN flashcard_last_view flv ON f.id = flv.flashcard_id " +
                 "WHERE f.id = ?";
+        String lastViewSql = "SELECT view_timestamp FROM flashcard_last_view WHERE flashcard_id = ?";
         try {
-            SqlRowSet result = jdbcTemplate.queryForRowSet(sql, id);
-            Flashcard flashcard = new Flashcard();
-            if (result.next()) {
-                flashcard.setId(result.getLong("id"));
-                flashcard.setFront(result.getString("front"));
-                flashcard.setBack(result.getString("back"));
-                flashcard.setArea(result.getString("area"));
-                flashcard.setCategory(result.getString("category"));
-                flashcard.setSubcategory(result.getString("subcategory"));
-                flashcard.setLastViewed(result.getTimestamp("lastViewed"));
+            Flashcard cachedCard = cardCache.get(id);
+            if (cachedCard != null) {
+                List<Timestamp> lastViews = jdbcTemplate.queryForList(lastViewSql, Timestamp.class, id);
+                cachedCard.setLastViewed(lastViews.isEmpty() ? null : lastViews.get(0));
+                return cachedCard;
             }
-            if (flashcard.getId() == null) {
+            List<Flashcard> flashcards = jdbcTemplate.query(sql, JdbcFlashcardDAO::mapRowToFlashcard, id);
+            if (flashcards.isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "No cards exist with requested Id");
             } else {
-                return flashcard;
+                cardCache.put(flashcards.get(0));
+                return flashcards.get(0);
             }
         } catch (DataAccessException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -209,8 +441,70 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
         }
     }
 
+    /* Returns a result for each requested ID, in request order, with one query for all of the IDs.
+       A repeated ID gets a result each time it is requested. */
+    @Override
+    public List<FlashcardLookupResult> getCardsByIds(Collection<Long> ids) {
+        /* Immutable collections throw NullPointerException from contains(null), so each ID is checked. */
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Ids cannot be null");
+        }
+        if (ids.size() > MAX_IDS_PER_REQUEST) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "No more than " + MAX_IDS_PER_REQUEST + " Ids can be requested at once.");
+        }
+        List<FlashcardLookupResult> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
+
+        String sql = "SELECT f.id AS \"id\", front, back, a.area_name AS \"area\", c.category_name AS \"category\", s.subcategory_name " +
+                "AS \"subcategory\", flv.view_timestamp AS \"lastViewed\" FROM flashcards f " +
+                "LEFT OUTER JOIN areas a ON f.area_id = a.id " +
+                "LEFT OUTER JOIN categories c ON f.category_id = c.id " +
+                "LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id " +
+                "LEFT OUTER JOIN flashcard_last_view flv ON f.id = flv.flashcard_id " +
+                "WHERE f.id = ANY(?)";
+        Long[] distinctIds = new LinkedHashSet<>(ids).toArray(new Long[0]);
+        Map<Long, Flashcard> cards = new HashMap<>();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setArray(1, connection.createArrayOf("bigint", distinctIds));
+                return statement;
+            }, resultSet -> {
+                Flashcard flashcard = mapRowToFlashcard(resultSet, 0);
+                cards.put(flashcard.getId(), flashcard);
+            });
+        } catch (DataAccessException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception retrieving cards from database by Id");
+        }
+        for (Flashcard flashcard : cards.values()) {
+            cardCache.put(flashcard);
+        }
+        for (Long id : ids) {
+            Flashcard flashcard = cards.get(id);
+            results.add(flashcard == null ? FlashcardLookupResult.notFound(id) : FlashcardLookupResult.found(flashcard));
+        }
+        return results;
+    }
+
     @Override
     public Flashcard getNext(String area, String category, String subcategory) {
+        return getNextBatch(area, category, subcategory, 1).get(0);
+    }
+
+    /* Returns up to count cards, least recently viewed first, and records a view for each of them.
+       Fewer cards are returned if fewer cards match. */
+    @Override
+    public List<Flashcard> getNextBatch(String area, String category, String subcategory, int count) {
+        if (count < 1 || count > MAX_NEXT_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Number of cards requested must be between 1 and " + MAX_NEXT_BATCH_SIZE + ".");
+        }
+
         Map<String, String> params = new HashMap<>();
         params.put("area_name", area);
         params.put("category_name", category);
@@ -229,45 +523,188 @@ public class JdbcFlashcardDAO implements FlashcardDAO {
 
         }
 
-        String sql = "SELECT COALESCE((SELECT f.id FROM flashcards f " +
+        if (nextCardScheduler.isEnabled()) {
+            return getNextFromScheduler(params.get("area_name"), params.get("category_name"),
+                    params.get("subcategory_name"), count);
+        }
+
+        /* Filter on the IDs of the requested names, so the claim statement can filter flashcards directly,
+           instead of joining every card to the name tables. A name that doesn't exist can't match any cards. */
+        Map<String, Object> claimParams = new HashMap<>();
+        int filters = 0;
+        try {
+            if (!params.get("area_name").equals("all")) {
+                claimParams.put("area_id", areaDAO.getAreaIdByName(params.get("area_name")));
+                filters |= AREA_FILTER;
+            }
+            if (!params.get("category_name").equals("all")) {
+                claimParams.put("category_id", categoryDAO.getCategoryIdByName(params.get("category_name")));
+                filters |= CATEGORY_FILTER;
+            }
+            if (!params.get("subcategory_name").equals("all")) {
+                claimParams.put("subcategory_id", subcategoryDAO.getSubcategoryIdByName(params.get("subcategory_name")));
+                filters |= SUBCATEGORY_FILTER;
+            }
+        } catch (ResponseStatusException re) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting next card from database.");
+        }
+        if (claimParams.containsValue(-1L)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "No cards available for requested Area, Category, and Subcategory combination. " +
+                            "Send 'all' for these parameters to return all cards regardless of the value.");
+        }
+        claimParams.put("limit", count);
+        String sql = CLAIM_NEXT_SQL[filters];
+        /* A card claimed by another request after this claim selected it is returned without a view Timestamp,
+           and isn't given to this request. The claim is repeated if it lost every card it selected,
+           so a request only gets no cards when no cards match. Each card lost is a card claimed by another
+           request, so the claims as a whole always make progress. */
+        List<Flashcard> claimed = new ArrayList<>();
+        boolean cardsSelected = true;
+        while (claimed.isEmpty() && cardsSelected) {
+            List<Flashcard> selected;
+            try {
+                selected = namedParameterJdbcTemplate.query(sql, claimParams, JdbcFlashcardDAO::mapRowToFlashcard);
+            } catch (DataAccessException e) {
+                System.out.println("Caught Exception: " + e.getMessage());
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Exception getting next card from database.");
+            }
+            cardsSelected = !selected.isEmpty();
+            for (Flashcard flashcard : selected) {
+                if (flashcard.getLastViewed() != null) {
+                    claimed.add(flashcard);
+                }
+            }
+        }
+        if (claimed.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "No cards available for requested Area, Category, and Subcategory combination. " +
+                            "Send 'all' for these parameters to return all cards regardless of the value.");
+        }
+        return claimed;
+    }
+
+    /* Claim the next cards with one statement: select the least recently viewed matching cards,
+     * record the views, and return the cards with the new view Timestamps.
+     * Cards are only filtered on the fields that aren't 'all', with no other conditions, so the
+     * name tables are only joined for the cards returned and the filter can use an index on flashcards.
+     * FOR NO KEY UPDATE SKIP LOCKED locks the selected cards until the end of the transaction, and
+     * concurrent callers skip locked cards. NO KEY UPDATE is used rather than UPDATE, because it doesn't
+     * block the foreign key checks for other views of the cards. Locking happens before the LIMIT,
+     * so skipped cards don't reduce the number selected.
+     * The lock is released when a claim commits, so a caller that selected the cards before that claim
+     * committed can still lock the same card, with its view from before the claim. The view is only recorded
+     * if the card's last view is still the one it was selected with: the update rechecks the last view
+     * of a card claimed since, and the insert of a first view conflicts with the first view of the other
+     * claim, so two requests can't be given the same card. Every selected card is returned, with no view
+     * Timestamp if its view wasn't recorded, so the caller can tell no cards matching from losing the cards.
+     * The cards are returned in the order they were selected, using the view Timestamps before the claim. */
+    private static String buildClaimNextSql(int filters) {
+        List<String> conditions = new ArrayList<>();
+        if ((filters & AREA_FILTER) != 0) {
+            conditions.add("f.area_id = :area_id");
+        }
+        if ((filters & CATEGORY_FILTER) != 0) {
+            conditions.add("f.category_id = :category_id");
+        }
+        if ((filters & SUBCATEGORY_FILTER) != 0) {
+            conditions.add("f.subcategory_id = :subcategory_id");
+        }
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ";
+        return "WITH next_card AS (SELECT f.id, v.view_timestamp AS previous_view FROM flashcards f " +
+                "LEFT OUTER JOIN flashcard_last_view v ON f.id = v.flashcard_id " +
+                where +
+                "ORDER BY v.view_timestamp NULLS FIRST, f.id LIMIT :limit " +
+                "FOR NO KEY UPDATE OF f SKIP LOCKED), " +
+                "viewed_again AS (UPDATE flashcard_last_view v SET view_timestamp = clock_timestamp() " +
+                "FROM next_card n WHERE v.flashcard_id = n.id AND v.view_timestamp = n.previous_view " +
+                "RETURNING v.flashcard_id, v.view_timestamp), " +
+                "viewed_first AS (INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "SELECT id, clock_timestamp() FROM next_card WHERE previous_view IS NULL " +
+                "ON CONFLICT (flashcard_id) DO NOTHING " +
+                "RETURNING flashcard_id, view_timestamp), " +
+                "viewed AS (SELECT flashcard_id, view_timestamp FROM viewed_again " +
+                "UNION ALL SELECT flashcard_id, view_timestamp FROM viewed_first) " +
+                "SELECT f.id AS \"id\", front, back, a.area_name AS \"area\", c.category_name AS \"category\", " +
+                "s.subcategory_name AS \"subcategory\", viewed.view_timestamp AS \"lastViewed\" FROM next_card n " +
+                "LEFT OUTER JOIN viewed ON viewed.flashcard_id = n.id " +
+                "JOIN flashcards f ON f.id = n.id " +
                 "LEFT OUTER JOIN areas a ON f.area_id = a.id " +
                 "LEFT OUTER JOIN categories c ON f.category_id = c.id " +
                 "LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id " +
-                "LEFT OUTER JOIN flashcard_last_view v ON f.id = v.flashcard_id " +
-                "WHERE (a.area_name = :area_name OR :area_name = 'all') " +
-                "AND (c.category_name = :category_name OR :category_name = 'all') " +
-                "AND (s.subcategory_name = :subcategory_name OR :subcategory_name = 'all') " +
-                "ORDER BY v.view_timestamp NULLS FIRST LIMIT 1), -1);";
-        Long flashcardId;
+                "ORDER BY n.previous_view NULLS FIRST, f.id";
+    }
+
+    /* The scheduler selects the cards in memory, so the database only records the views. */
+    private List<Flashcard> getNextFromScheduler(String area, String category, String subcategory, int count) {
+        List<Flashcard> flashcards;
         try {
-            flashcardId = namedParameterJdbcTemplate.queryForObject(sql, params, Long.class);
-            if (flashcardId != null && flashcardId >= 0) {
-                flashcardViewsDAO.recordView(flashcardId);
-                return getCardById(flashcardId);
-            } else {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-                        "No cards available for requested Area, Category, and Subcategory combination. " +
-                                "Send 'all' for these parameters to return all cards regardless of the value.");
-            }
+            /* The first call loads the scheduler from the database, if it wasn't loaded at startup. */
+            flashcards = nextCardScheduler.next(toFilter(area), toFilter(category), toFilter(subcategory), count);
         } catch (DataAccessException e) {
             System.out.println("Caught Exception: " + e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Exception getting next card from database.");
+        }
+        if (flashcards.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "No cards available for requested Area, Category, and Subcategory combination. " +
+                            "Send 'all' for these parameters to return all cards regardless of the value.");
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Flashcard flashcard : flashcards) {
+            ids.add(flashcard.getId());
+        }
+        try {
+            flashcardViewsDAO.recordViews(ids);
         } catch (ResponseStatusException re) {
-            if (re.getRawStatusCode() == 404) {
-                throw re;
-            } else {
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                        "Failure retrieving card details from database");
-            }
+            /* The scheduler already moved the cards to the back of their queues,
+               so they are put back where they were to be returned by the next call. */
+            nextCardScheduler.undoViews(flashcards);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting next card from database.");
         }
+        return flashcards;
+    }
+
+    /* The scheduler uses null, rather than 'all', for a field that should not be filtered. */
+    private String toFilter(String name) {
+        return name.equals("all") ? null : name;
     }
 
+    private static Flashcard mapRowToFlashcard(ResultSet resultSet, int rowNumber) throws SQLException {
+        Flashcard flashcard = new Flashcard();
+        flashcard.setId(resultSet.getLong("id"));
+        flashcard.setFront(resultSet.getString("front"));
+        flashcard.setBack(resultSet.getString("back"));
+        flashcard.setArea(resultSet.getString("area"));
+        flashcard.setCategory(resultSet.getString("category"));
+        flashcard.setSubcategory(resultSet.getString("subcategory"));
+        flashcard.setLastViewed(resultSet.getTimestamp("lastViewed"));
+        return flashcard;
+    }
+
+    /* ON CONFLICT on the content hash waits for a concurrent insert of a card with the same details,
+       and then returns that card, instead of failing or adding a duplicate. */
     private Flashcard insertCard(String front, String back, Long areaId, Long categoryId, Long subcategoryId) {
-        String sql = "INSERT INTO flashcards (front, back, area_id, category_id, subcategory_id) VALUES (?,?,?,?,?) RETURNING id";
+        String sql = "INSERT INTO flashcards (front, back, area_id, category_id, subcategory_id) VALUES (?,?,?,?,?) " +
+                "ON CONFLICT (content_hash) DO NOTHING RETURNING id";
+        String existingSql = "SELECT id FROM flashcards WHERE content_hash = " +
+                "flashcard_content_hash(?, ?, CAST(? AS bigint), CAST(? AS bigint), CAST(? AS bigint))";
         try {
-            Long id = jdbcTemplate.queryForObject(sql, Long.class, front, back, areaId, categoryId, subcategoryId);
-            return getCardById(id);
+            List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, front, back, areaId, categoryId, subcategoryId);
+            if (ids.isEmpty()) {
+                Long id = jdbcTemplate.queryForObject(existingSql, Long.class,
+                        front, back, areaId, categoryId, subcategoryId);
+                return getCardById(id);
+            }
+            Flashcard flashcard = getCardById(ids.get(0));
+            if (nextCardScheduler.isEnabled()) {
+                TransactionHooks.afterCommit(() -> nextCardScheduler.add(flashcard));
+            }
+            return flashcard;
         } catch (DataAccessException e) {
             e.printStackTrace();
             throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
@@ -0,0 +1,154 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.utility.InputScrubber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Writes cards to a Writer in the CSV format ImportUtility and POST /flashcards/import read, as they are read,
+   so the export uses the same memory however many cards it includes. As in JdbcViewExportDAO, the query runs in
+   a read-only transaction with a fetch size, so the PostgreSQL driver reads the rows through a server-side
+   cursor, fetchSize rows at a time. Cards are written in order of ID, with the Row field numbered from 1. */
+@Component
+public class JdbcFlashcardExportDAO implements FlashcardExportDAO {
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
+    static final String CSV_HEADER = "\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"";
+
+    @Autowired
+    AreaDAO areaDAO;
+
+    @Autowired
+    CategoryDAO categoryDAO;
+
+    @Autowired
+    SubcategoryDAO subcategoryDAO;
+
+    private final JdbcTemplate exportTemplate;
+
+    /* Used when the DAOs are created without Spring. */
+    public JdbcFlashcardExportDAO(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, DEFAULT_FETCH_SIZE);
+    }
+
+    @Autowired
+    public JdbcFlashcardExportDAO(JdbcTemplate jdbcTemplate,
+                                  @Value("${flashcards.export.fetch-size:" + DEFAULT_FETCH_SIZE + "}") int fetchSize) {
+        /* A separate JdbcTemplate, so the export fetch size doesn't change the fetch size of the other DAOs. */
+        this.exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportTemplate.setFetchSize(fetchSize);
+        this.areaDAO = new JdbcAreaDAO(jdbcTemplate);
+        this.categoryDAO = new JdbcCategoryDAO(jdbcTemplate);
+        this.subcategoryDAO = new JdbcSubcategoryDAO(jdbcTemplate);
+    }
+
+    /* Gets the IDs of the Area, Category, and Subcategory names. A null, empty, or 'all' name matches any value.
+       Throws ResponseStatusException with NOT_FOUND status for a name that doesn't exist, so the export can be
+       checked before the response starts. */
+    @Override
+    public FlashcardExportFilter getExportFilter(String area, String category, String subcategory) {
+        Long areaId = null;
+        Long categoryId = null;
+        Long subcategoryId = null;
+        area = InputScrubber.trimStringAndSetEmptyToNull(area);
+        category = InputScrubber.trimStringAndSetEmptyToNull(category);
+        subcategory = InputScrubber.trimStringAndSetEmptyToNull(subcategory);
+        if (area != null && !area.equalsIgnoreCase("all")) {
+            areaId = areaDAO.getAreaIdByName(area);
+            if (areaId < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Area not found. " +
+                        "Unable to export cards for missing Area. Send Area 'all' to export the cards of all Areas.");
+            }
+        }
+        if (category != null && !category.equalsIgnoreCase("all")) {
+            categoryId = categoryDAO.getCategoryIdByName(category);
+            if (categoryId < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found. " +
+                        "Unable to export cards for missing Category. " +
+                        "Send Category 'all' to export the cards of all Categories.");
+            }
+        }
+        if (subcategory != null && !subcategory.equalsIgnoreCase("all")) {
+            subcategoryId = subcategoryDAO.getSubcategoryIdByName(subcategory);
+            if (subcategoryId < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Subcategory not found. " +
+                        "Unable to export cards for missing Subcategory. " +
+                        "Send Subcategory 'all' to export the cards of all Subcategories.");
+            }
+        }
+        return new FlashcardExportFilter(areaId, categoryId, subcategoryId);
+    }
+
+    /* Writes the header and the cards that match the filter, and returns the number of cards written.
+       A DataAccessException, or an UncheckedIOException if the Writer fails, can be thrown after some cards
+       have been written, so callers stream the cards rather than returning an error response. */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportFlashcards(FlashcardExportFilter filter, Writer writer) {
+        StringBuilder sql = new StringBuilder("SELECT f.front, f.back, a.area_name, c.category_name, " +
+                "s.subcategory_name FROM flashcards f " +
+                "LEFT OUTER JOIN areas a ON f.area_id = a.id " +
+                "LEFT OUTER JOIN categories c ON f.category_id = c.id " +
+                "LEFT OUTER JOIN subcategories s ON f.subcategory_id = s.id WHERE TRUE ");
+        List<Object> args = new ArrayList<>();
+        if (filter.areaId() != null) {
+            sql.append("AND f.area_id = ? ");
+            args.add(filter.areaId());
+        }
+        if (filter.categoryId() != null) {
+            sql.append("AND f.category_id = ? ");
+            args.add(filter.categoryId());
+        }
+        if (filter.subcategoryId() != null) {
+            sql.append("AND f.subcategory_id = ? ");
+            args.add(filter.subcategoryId());
+        }
+        sql.append("ORDER BY f.id");
+
+        long[] count = {0};
+        try {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            exportTemplate.query(sql.toString(), resultSet -> {
+                count[0]++;
+                try {
+                    writer.write('"');
+                    writer.write(Long.toString(count[0]));
+                    writer.write('"');
+                    writeField(writer, resultSet.getString("front"));
+                    writeField(writer, resultSet.getString("back"));
+                    writeField(writer, resultSet.getString("area_name"));
+                    writeField(writer, resultSet.getString("category_name"));
+                    writeField(writer, resultSet.getString("subcategory_name"));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    /* Every field is enclosed in double quotes, with each double quote within it written as two, and a missing
+       Area, Category, or Subcategory is written as an empty field, which the imports read as no value. */
+    private static void writeField(Writer writer, String value) throws IOException {
+        writer.write(",\"");
+        if (value != null) {
+            writer.write(value.indexOf('"') < 0 ? value : value.replace("\"", "\"\""));
+        }
+        writer.write('"');
+    }
+}
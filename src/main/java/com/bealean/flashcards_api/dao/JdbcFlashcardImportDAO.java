@@ -0,0 +1,218 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import com.bealean.flashcards_api.model.FlashcardImportResult;
+import com.bealean.flashcards_api.utility.CsvRecordReader;
+import com.bealean.flashcards_api.utility.ImportUtility;
+import com.bealean.flashcards_api.utility.TransactionHooks;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/* Imports the cards of a CSV in the ImportUtility format in one transaction. The CSV is parsed as it is read,
+   and the valid cards are staged in a temporary table with COPY, in blocks of COPY_BUFFER_SIZE characters,
+   so memory use doesn't depend on the size of the CSV. The Areas, Categories, Subcategories, mappings, and cards
+   are then added from the staged rows with one statement each. As in addFlashcards, rows are inserted in order,
+   so concurrent imports with some of the same rows wait for each other instead of deadlocking, and
+   a card with the same details as an existing card isn't added again. */
+@Component
+public class JdbcFlashcardImportDAO implements FlashcardImportDAO {
+    /* Number of rejected rows included in the result. Every rejected row is counted. */
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private static final int COPY_BUFFER_SIZE = 65536;
+
+    /* Dropped when the import transaction ends. */
+    private static final String CREATE_STAGING_TABLE_SQL = "CREATE TEMPORARY TABLE flashcard_import (" +
+            "front varchar NOT NULL, back varchar NOT NULL, area varchar, category varchar, subcategory varchar" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_SQL = "COPY flashcard_import (front, back, area, category, subcategory) " +
+            "FROM STDIN (FORMAT csv)";
+
+    private static final String[][] TAXONOMY_TABLES = {
+            {"areas", "area_name", "area"},
+            {"categories", "category_name", "category"},
+            {"subcategories", "subcategory_name", "subcategory"}};
+
+    private static final String INSERT_MAPPINGS_SQL = "INSERT INTO area_category_subcategory " +
+            "(area_id, category_id, subcategory_id) " +
+            "SELECT DISTINCT a.id, c.id, s.id FROM pg_temp.flashcard_import i " +
+            "JOIN areas a ON a.area_name = i.area " +
+            "JOIN categories c ON c.category_name = i.category " +
+            "LEFT OUTER JOIN subcategories s ON s.subcategory_name = i.subcategory " +
+            "ORDER BY 1, 2, 3 ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_CARDS_SQL = "INSERT INTO flashcards " +
+            "(front, back, area_id, category_id, subcategory_id) " +
+            "SELECT i.front, i.back, a.id, c.id, s.id FROM pg_temp.flashcard_import i " +
+            "LEFT OUTER JOIN areas a ON a.area_name = i.area " +
+            "LEFT OUTER JOIN categories c ON c.category_name = i.category " +
+            "LEFT OUTER JOIN subcategories s ON s.subcategory_name = i.subcategory " +
+            "ORDER BY i.front, i.back, a.id, c.id, s.id " +
+            "ON CONFLICT (content_hash) DO NOTHING";
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    InMemoryNextCardScheduler nextCardScheduler;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcFlashcardImportDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        this.nextCardScheduler = new InMemoryNextCardScheduler(jdbcTemplate, false);
+    }
+
+    /* Rows that fail Bean Validation, or the Area, Category, and Subcategory rules of addFlashcard, are rejected,
+       and the other rows are imported. If the CSV isn't in the expected format, or a statement fails,
+       none of the cards are imported. */
+    @Override
+    @Transactional(rollbackFor = {ResponseStatusException.class})
+    public FlashcardImportResult importFlashcards(Reader csv) {
+        FlashcardImportResult result = new FlashcardImportResult();
+        long staged;
+        try {
+            /* A previous import in the same transaction, which only happens in the DAO tests, left the table. */
+            jdbcTemplate.execute("DROP TABLE IF EXISTS pg_temp.flashcard_import");
+            jdbcTemplate.execute(CREATE_STAGING_TABLE_SQL);
+            staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> stageRows(connection, csv, result));
+        } catch (UncheckedIOException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to read CSV. No cards imported.");
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failure staging cards in database. No cards imported.");
+        }
+
+        long created = 0;
+        if (staged > 0) {
+            try {
+                /* Temporary tables aren't analyzed automatically, and the joins are planned from the row counts. */
+                jdbcTemplate.execute("ANALYZE pg_temp.flashcard_import");
+                for (String[] taxonomy : TAXONOMY_TABLES) {
+                    jdbcTemplate.update("INSERT INTO " + taxonomy[0] + " (" + taxonomy[1] + ") " +
+                            "SELECT DISTINCT " + taxonomy[2] + " FROM pg_temp.flashcard_import " +
+                            "WHERE " + taxonomy[2] + " IS NOT NULL ORDER BY 1 " +
+                            "ON CONFLICT (" + taxonomy[1] + ") DO NOTHING");
+                }
+                jdbcTemplate.update(INSERT_MAPPINGS_SQL);
+                created = jdbcTemplate.update(INSERT_CARDS_SQL);
+            } catch (DataAccessException e) {
+                e.printStackTrace();
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Flashcards and dependencies not imported.");
+            }
+        }
+        result.setCreated(created);
+        result.setExisting(staged - created);
+
+        if (nextCardScheduler.isEnabled() && created > 0) {
+            TransactionHooks.afterCommit(nextCardScheduler::load);
+        }
+        return result;
+    }
+
+    /* Returns the number of rows staged. */
+    private long stageRows(Connection connection, Reader csv, FlashcardImportResult result) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            CsvRecordReader csvReader = new CsvRecordReader(csv);
+            //Skip Header
+            csvReader.readRecord();
+            StringBuilder rows = new StringBuilder();
+            long index = 0;
+            List<String> flashcardFields;
+            while ((flashcardFields = csvReader.readRecord()) != null) {
+                Flashcard flashcard = ImportUtility.toFlashcard(flashcardFields);
+                String reason = getRejectionReason(flashcard);
+                if (reason == null) {
+                    appendRow(rows, flashcard);
+                    if (rows.length() >= COPY_BUFFER_SIZE) {
+                        writeRows(copyIn, rows);
+                    }
+                } else {
+                    result.setRejected(result.getRejected() + 1);
+                    if (result.getRejections().size() < MAX_REPORTED_REJECTIONS) {
+                        result.getRejections().add(FlashcardBatchResult.rejected((int) index, reason));
+                    }
+                }
+                index++;
+            }
+            writeRows(copyIn, rows);
+            result.setCards(index);
+            return copyIn.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /* Returns the Bean Validation messages, as for the batch endpoints, or the reason the Area, Category,
+       and Subcategory can't be added, or null if the card is valid. */
+    private String getRejectionReason(Flashcard flashcard) {
+        Set<String> messages = new TreeSet<>();
+        for (ConstraintViolation<Flashcard> violation : validator.validate(flashcard)) {
+            messages.add(violation.getMessage());
+        }
+        if (!messages.isEmpty()) {
+            return String.join(" ", messages);
+        }
+        try {
+            JdbcFlashcardDAO.checkTaxonomyFields(flashcard.getArea(), flashcard.getCategory(),
+                    flashcard.getSubcategory());
+        } catch (ResponseStatusException e) {
+            return e.getReason();
+        }
+        return null;
+    }
+
+    /* Every value is quoted, so an empty string stays empty, and a null is left unquoted, which COPY reads as NULL. */
+    private static void appendRow(StringBuilder rows, Flashcard flashcard) {
+        appendValue(rows, flashcard.getFront()).append(',');
+        appendValue(rows, flashcard.getBack()).append(',');
+        appendValue(rows, flashcard.getArea()).append(',');
+        appendValue(rows, flashcard.getCategory()).append(',');
+        appendValue(rows, flashcard.getSubcategory()).append('\n');
+    }
+
+    private static StringBuilder appendValue(StringBuilder rows, String value) {
+        if (value != null) {
+            rows.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+        return rows;
+    }
+
+    private static void writeRows(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+}
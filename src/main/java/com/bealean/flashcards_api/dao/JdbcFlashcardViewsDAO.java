@@ -1,22 +1,38 @@
 package com.bealean.flashcards_api.dao;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class JdbcFlashcardViewsDAO implements FlashcardViewsDAO {
 
+    @Autowired
+    ViewWriteBehindQueue viewWriteBehindQueue;
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcFlashcardViewsDAO(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.viewWriteBehindQueue = new ViewWriteBehindQueue(jdbcTemplate);
     }
 
     @Override
     public int recordView(Long id) {
+        /* With write-behind enabled the view is written later in a batch with other views,
+         * so the ID isn't checked here. Views for IDs that don't exist are skipped when the batch is written.
+         * If the queue is full, the view is recorded directly. */
+        if (id != null && viewWriteBehindQueue.enqueue(id)) {
+            return 1;
+        }
+
         /* Check if flashcard exists with provided ID before attempting to record
          * a view for it. */
         String cardSql = "SELECT COUNT(*) FROM flashcards WHERE id = ?";
@@ -49,4 +65,40 @@ public class JdbcFlashcardViewsDAO implements FlashcardViewsDAO {
                     "Flashcard view failed to be recorded.");
         }
     }
+
+    /* Records a view for each of the IDs with one statement, so the statement level triggers on
+     * flashcard_last_view copy all of the views to flashcard_views in one insert.
+     * IDs that don't exist are skipped. Returns the number of views recorded. */
+    @Override
+    public int recordViews(List<Long> ids) {
+        List<Long> directIds = new ArrayList<>();
+        int queued = 0;
+        for (Long id : ids) {
+            if (id != null && viewWriteBehindQueue.enqueue(id)) {
+                queued++;
+            } else {
+                directIds.add(id);
+            }
+        }
+        if (directIds.isEmpty()) {
+            return queued;
+        }
+
+        /* ON CONFLICT DO UPDATE can't update the same row twice in one statement, so duplicate IDs are removed. */
+        String sql = "INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "SELECT f.id, clock_timestamp() FROM (SELECT DISTINCT id FROM unnest(?) AS v(id)) v " +
+                "JOIN flashcards f ON f.id = v.id " +
+                "ON CONFLICT (flashcard_id) DO UPDATE SET view_timestamp = EXCLUDED.view_timestamp";
+        try {
+            return queued + jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setArray(1, connection.createArrayOf("bigint", directIds.toArray()));
+                return statement;
+            });
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Flashcard views failed to be recorded.");
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.ImportCheckpoint;
+import com.bealean.flashcards_api.model.ImportJob;
+import com.bealean.flashcards_api.model.ImportJobStatus;
+import com.bealean.flashcards_api.utility.InputScrubber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/* Import jobs and their checkpoints. Times are set with clock_timestamp rather than now, so the rate of a run
+   is measured to the time of each checkpoint, not the start of the transaction it is saved in. */
+@Component
+public class JdbcImportJobDAO implements ImportJobDAO {
+    private static final int MAX_SOURCE_NAME_LENGTH = 1000;
+
+    private static final String COLUMNS = "id, source_name, source_bytes, status, rows_committed, rows_failed, " +
+            "byte_offset, created_at, run_started_at, run_start_rows, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long stalledAfterSeconds;
+
+    /* Used when the DAOs are created without Spring. */
+    public JdbcImportJobDAO(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, 600);
+    }
+
+    @Autowired
+    public JdbcImportJobDAO(JdbcTemplate jdbcTemplate,
+                            @Value("${flashcards.import-jobs.stalled-after-seconds:600}") long stalledAfterSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stalledAfterSeconds = stalledAfterSeconds;
+    }
+
+    /* Adds a RUNNING job for the sourceName and sourceBytes of importJob, with no rows committed. */
+    @Override
+    public ImportJob addImportJob(ImportJob importJob) {
+        String sourceName = InputScrubber.trimStringAndSetEmptyToNull(importJob.getSourceName());
+        if (sourceName == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Source name is required.");
+        }
+        if (sourceName.length() > MAX_SOURCE_NAME_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Source name must not be more than " + MAX_SOURCE_NAME_LENGTH + " characters.");
+        }
+        if (importJob.getSourceBytes() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Source bytes must not be negative.");
+        }
+        String sql = "INSERT INTO import_jobs (source_name, source_bytes, status, created_at, run_started_at, " +
+                "updated_at) VALUES (?, ?, ?, clock_timestamp(), clock_timestamp(), clock_timestamp()) " +
+                "RETURNING " + COLUMNS;
+        try {
+            return jdbcTemplate.queryForObject(sql, JdbcImportJobDAO::mapRowToImportJob, sourceName,
+                    importJob.getSourceBytes(), ImportJobStatus.RUNNING.name());
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception adding import job to database.");
+        }
+    }
+
+    @Override
+    public ImportJob getImportJob(long id) {
+        List<ImportJob> importJobs;
+        try {
+            importJobs = jdbcTemplate.query("SELECT " + COLUMNS + " FROM import_jobs WHERE id = ?",
+                    JdbcImportJobDAO::mapRowToImportJob, id);
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting import job from database.");
+        }
+        if (importJobs.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found.");
+        }
+        return importJobs.get(0);
+    }
+
+    /* Most recent first. */
+    @Override
+    public List<ImportJob> getImportJobs() {
+        try {
+            return jdbcTemplate.query("SELECT " + COLUMNS + " FROM import_jobs ORDER BY id DESC",
+                    JdbcImportJobDAO::mapRowToImportJob);
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting import jobs from database.");
+        }
+    }
+
+    /* Sets the job RUNNING and starts a new run from its checkpoint. A COMPLETED job can't be resumed.
+       A RUNNING job is only resumed when it hasn't saved a checkpoint for stalledAfterSeconds, as the import
+       that is running it stopped without saving a FAILED checkpoint, so two imports don't send the same job.
+       The row lock of the update makes a second resume wait, and then it sees the job was just updated. */
+    @Override
+    public ImportJob resumeImportJob(long id) {
+        String sql = "UPDATE import_jobs SET status = ?, run_started_at = clock_timestamp(), " +
+                "run_start_rows = rows_committed, updated_at = clock_timestamp() " +
+                "WHERE id = ? AND (status = ? " +
+                "OR (status = ? AND updated_at < clock_timestamp() - make_interval(secs => ?))) RETURNING " + COLUMNS;
+        List<ImportJob> importJobs;
+        try {
+            importJobs = jdbcTemplate.query(sql, JdbcImportJobDAO::mapRowToImportJob,
+                    ImportJobStatus.RUNNING.name(), id, ImportJobStatus.FAILED.name(), ImportJobStatus.RUNNING.name(),
+                    stalledAfterSeconds);
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception resuming import job in database.");
+        }
+        if (importJobs.isEmpty()) {
+            if (getImportJob(id).getStatus() == ImportJobStatus.RUNNING) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Import job is running and can't be " +
+                        "resumed until it has saved no checkpoint for " + stalledAfterSeconds + " seconds.");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import job is completed and can't be resumed.");
+        }
+        return importJobs.get(0);
+    }
+
+    /* The senders of a parallel import save checkpoints concurrently, so they can arrive out of order.
+       A checkpoint with fewer rows committed than the saved checkpoint, or for a COMPLETED job, is ignored,
+       and the saved job is returned. A RUNNING checkpoint with the same rows committed as a FAILED job is
+       ignored too, so a checkpoint that arrives after the FAILED one saved when the import stopped doesn't
+       show the job as running. */
+    @Override
+    public ImportJob saveCheckpoint(long id, ImportCheckpoint checkpoint) {
+        if (checkpoint.getRowsCommitted() < 0 || checkpoint.getRowsFailed() < 0 || checkpoint.getByteOffset() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Rows committed, rows failed, and byte offset must not be negative.");
+        }
+        if (checkpoint.getRowsFailed() > checkpoint.getRowsCommitted()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Rows failed must not be more than rows committed.");
+        }
+        ImportJobStatus status = checkpoint.getStatus() == null ? ImportJobStatus.RUNNING : checkpoint.getStatus();
+        String sql = "UPDATE import_jobs SET rows_committed = ?, rows_failed = ?, byte_offset = ?, status = ?, " +
+                "updated_at = clock_timestamp() " +
+                "WHERE id = ? AND status <> ? AND source_bytes >= ? AND (rows_committed < ? " +
+                "OR (rows_committed = ? AND NOT (status = ? AND ? = ?))) RETURNING " + COLUMNS;
+        List<ImportJob> importJobs;
+        try {
+            importJobs = jdbcTemplate.query(sql, JdbcImportJobDAO::mapRowToImportJob,
+                    checkpoint.getRowsCommitted(), checkpoint.getRowsFailed(), checkpoint.getByteOffset(),
+                    status.name(), id, ImportJobStatus.COMPLETED.name(), checkpoint.getByteOffset(),
+                    checkpoint.getRowsCommitted(), checkpoint.getRowsCommitted(), ImportJobStatus.FAILED.name(),
+                    status.name(), ImportJobStatus.RUNNING.name());
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception saving import checkpoint to database.");
+        }
+        if (!importJobs.isEmpty()) {
+            return importJobs.get(0);
+        }
+        ImportJob importJob = getImportJob(id);
+        if (checkpoint.getByteOffset() > importJob.getSourceBytes()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Byte offset is past the end of the source.");
+        }
+        return importJob;
+    }
+
+    private static ImportJob mapRowToImportJob(ResultSet resultSet, int rowNumber) throws SQLException {
+        ImportJob importJob = new ImportJob();
+        importJob.setId(resultSet.getLong("id"));
+        importJob.setSourceName(resultSet.getString("source_name"));
+        importJob.setSourceBytes(resultSet.getLong("source_bytes"));
+        importJob.setStatus(ImportJobStatus.valueOf(resultSet.getString("status")));
+        importJob.setRowsCommitted(resultSet.getLong("rows_committed"));
+        importJob.setRowsFailed(resultSet.getLong("rows_failed"));
+        importJob.setByteOffset(resultSet.getLong("byte_offset"));
+        importJob.setCreatedAt(resultSet.getObject("created_at", OffsetDateTime.class));
+        importJob.setRunStartedAt(resultSet.getObject("run_started_at", OffsetDateTime.class));
+        importJob.setRunStartRows(resultSet.getLong("run_start_rows"));
+        importJob.setUpdatedAt(resultSet.getObject("updated_at", OffsetDateTime.class));
+        return importJob;
+    }
+}
@@ -5,12 +5,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Component
@@ -22,12 +22,24 @@ public class JdbcSubcategoryDAO implements SubcategoryDAO {
     @Autowired
     CategoryDAO categoryDAO;
 
+    @Autowired
+    TaxonomyIdCache taxonomyIdCache;
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcSubcategoryDAO(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
         this.areaDAO = new JdbcAreaDAO(jdbcTemplate);
         this.categoryDAO = new JdbcCategoryDAO(jdbcTemplate);
+        this.taxonomyIdCache = new TaxonomyIdCache();
+    }
+
+    /* Adds the Subcategories that don't exist with one statement and returns the IDs of all of the names.
+       Names are expected to be trimmed and not null. */
+    @Override
+    public Map<String, Long> addSubcategories(Collection<String> subcategoryNames) {
+        return TaxonomyNameBatch.addNames(jdbcTemplate, taxonomyIdCache, TaxonomyIdCache.Taxonomy.SUBCATEGORY,
+                "subcategories", "subcategory_name", subcategoryNames, "Subcategories failed to be added.");
     }
 
     @Override
@@ -41,6 +53,10 @@ public class JdbcSubcategoryDAO implements SubcategoryDAO {
            when this method is used to check if a subcategory exists or not. */
         String sql = "SELECT COALESCE(MAX(id),-1) FROM subcategories WHERE subcategory_name = ?";
         if (subcategoryName != null) {
+            Long cachedId = taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.SUBCATEGORY, subcategoryName);
+            if (cachedId != null) {
+                return cachedId;
+            }
             try {
                 subcategoryId = jdbcTemplate.queryForObject(sql, Long.class, subcategoryName);
             } catch (DataAccessException e) {
@@ -50,15 +66,17 @@ public class JdbcSubcategoryDAO implements SubcategoryDAO {
                 throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                         "Exception checking for Subcategory in database.");
             }
+            if (subcategoryId != null && subcategoryId >= 0) {
+                taxonomyIdCache.put(TaxonomyIdCache.Taxonomy.SUBCATEGORY, subcategoryName, subcategoryId);
+            }
         }
         return Objects.requireNonNullElse(subcategoryId, -1L);
     }
 
     @Override
     public List<String> getSubcategories(String areaName, String categoryName) {
-        List<String> subcategoryList = new ArrayList<>();
-        SqlRowSet results;
         String sql;
+        Object[] args;
         Long categoryId = null;
         Long areaId = null;
 
@@ -114,30 +132,27 @@ public class JdbcSubcategoryDAO implements SubcategoryDAO {
              to update cards to new case and old case will be automatically removed when it is no longer
              referenced by any cards. */
             sql = "SELECT subcategory_name FROM subcategories ORDER BY subcategory_name";
-            results = jdbcTemplate.queryForRowSet(sql);
+            args = new Object[]{};
         } else if (areaName.equals("all")) {
             sql = "SELECT DISTINCT subcategory_name FROM subcategories s " +
                     "JOIN area_category_subcategory acs ON s.id = acs.subcategory_id " +
                     "WHERE acs.category_id = ? " +
                     "ORDER BY subcategory_name";
-            results = jdbcTemplate.queryForRowSet(sql, categoryId);
+            args = new Object[]{categoryId};
         } else if (categoryName.equals("all")) {
             sql = "SELECT DISTINCT subcategory_name FROM subcategories s " +
                     "JOIN area_category_subcategory acs ON s.id = acs.subcategory_id " +
                     "WHERE acs.area_id = ? " +
                     "ORDER BY subcategory_name";
-            results = jdbcTemplate.queryForRowSet(sql, areaId);
+            args = new Object[]{areaId};
         } else {
             sql = "SELECT subcategory_name FROM subcategories s " +
                     "JOIN area_category_subcategory acs ON s.id = acs.subcategory_id " +
                     "WHERE acs.area_id = ? AND acs.category_id = ? " +
                     "ORDER BY subcategory_name";
-            results = jdbcTemplate.queryForRowSet(sql, areaId, categoryId);
-        }
-        while (results.next()) {
-            subcategoryList.add(results.getString("subcategory_name"));
+            args = new Object[]{areaId, categoryId};
         }
-        return subcategoryList;
+        return jdbcTemplate.query(sql, (resultSet, rowNumber) -> resultSet.getString("subcategory_name"), args);
     }
 
     @Override
@@ -146,18 +161,35 @@ public class JdbcSubcategoryDAO implements SubcategoryDAO {
         if (subcategoryName == null) {
             return -1L;
         }
-        Long subcategoryId = getSubcategoryIdByName(subcategoryName);
-        if (subcategoryId < 0) {
-            String sql = "INSERT INTO subcategories (subcategory_name) VALUES (?) RETURNING id";
-            try {
-                subcategoryId = jdbcTemplate.queryForObject(sql, Long.class, subcategoryName);
-            } catch (DataAccessException e) {
-                e.printStackTrace();
-                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Subcategory failed to be added.");
+        Long cachedId = taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.SUBCATEGORY, subcategoryName);
+        if (cachedId != null) {
+            return cachedId;
+        }
+
+        /* Insert the Subcategory, or return the ID of the existing Subcategory with the same name, in one statement.
+           ON CONFLICT DO NOTHING waits for a concurrent insert of the same name to finish, instead of failing on
+           the UNIQUE constraint, so parallel requests for a new Subcategory get the same ID.
+           The existing Subcategory is returned by the second SELECT. If another transaction committed it after
+           this statement started, it isn't visible to the statement, so it is selected again. */
+        String sql = "WITH inserted AS (INSERT INTO subcategories (subcategory_name) VALUES (?) " +
+                "ON CONFLICT (subcategory_name) DO NOTHING RETURNING id) " +
+                "SELECT id FROM inserted UNION ALL SELECT id FROM subcategories WHERE subcategory_name = ?";
+        long subcategoryId;
+        try {
+            List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, subcategoryName, subcategoryName);
+            if (ids.isEmpty()) {
+                ids = jdbcTemplate.queryForList("SELECT id FROM subcategories WHERE subcategory_name = ?", Long.class, subcategoryName);
             }
+            subcategoryId = ids.isEmpty() ? -1L : ids.get(0);
+        } catch (DataAccessException e) {
+            e.printStackTrace();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Subcategory failed to be added.");
         }
-        return Objects.requireNonNullElse(subcategoryId, -1L);
+        if (subcategoryId >= 0) {
+            taxonomyIdCache.put(TaxonomyIdCache.Taxonomy.SUBCATEGORY, subcategoryName, subcategoryId);
+        }
+        return subcategoryId;
     }
 
 }
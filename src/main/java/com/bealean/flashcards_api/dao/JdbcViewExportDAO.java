@@ -0,0 +1,105 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.ViewExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Writes the views in flashcard_views to a Writer as they are read, so the export uses the same memory however
+   many views it includes. The query runs in a read-only transaction with a fetch size, so the PostgreSQL driver
+   reads the rows through a server-side cursor, fetchSize rows at a time, rather than reading the whole result
+   at once. Views are written in order of ID, so an export that was interrupted can be resumed by sending
+   the ID of the last view received as afterId. */
+@Component
+public class JdbcViewExportDAO implements ViewExportDAO {
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
+    static final String CSV_HEADER = "id,flashcard_id,view_timestamp";
+
+    private final JdbcTemplate exportTemplate;
+
+    /* Used when the DAOs are created without Spring. */
+    public JdbcViewExportDAO(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, DEFAULT_FETCH_SIZE);
+    }
+
+    @Autowired
+    public JdbcViewExportDAO(JdbcTemplate jdbcTemplate,
+                             @Value("${flashcards.views.export.fetch-size:" + DEFAULT_FETCH_SIZE + "}") int fetchSize) {
+        /* A separate JdbcTemplate, so the export fetch size doesn't change the fetch size of the other DAOs.
+           It uses the same DataSource, so it takes part in the same transactions. */
+        this.exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportTemplate.setFetchSize(fetchSize);
+    }
+
+    /* Writes the views with a view_timestamp from since, inclusive, to until, exclusive, and an ID greater
+       than afterId. Any of the bounds can be null. Returns the number of views written.
+       A DataAccessException, or an UncheckedIOException if the Writer fails, can be thrown after some views
+       have been written, so callers stream the views rather than returning an error response. */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportViews(OffsetDateTime since, OffsetDateTime until, Long afterId, ViewExportFormat format,
+                            Writer writer) {
+        StringBuilder sql = new StringBuilder("SELECT id, flashcard_id, view_timestamp FROM flashcard_views WHERE TRUE ");
+        List<Object> args = new ArrayList<>();
+        if (since != null) {
+            sql.append("AND view_timestamp >= ? ");
+            args.add(since);
+        }
+        if (until != null) {
+            sql.append("AND view_timestamp < ? ");
+            args.add(until);
+        }
+        if (afterId != null) {
+            sql.append("AND id > ? ");
+            args.add(afterId);
+        }
+        /* Each partition returns its rows in ID order from its primary key index, and the partitions are
+           merged, so the views are not sorted in memory. */
+        sql.append("ORDER BY id");
+
+        long[] count = {0};
+        try {
+            if (format == ViewExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            exportTemplate.query(sql.toString(), resultSet -> {
+                long id = resultSet.getLong("id");
+                long flashcardId = resultSet.getLong("flashcard_id");
+                String viewTimestamp = resultSet.getObject("view_timestamp", OffsetDateTime.class)
+                        .toInstant().toString();
+                try {
+                    writeView(format, writer, id, flashcardId, viewTimestamp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }, args.toArray());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    /* The values are numbers and ISO-8601 UTC timestamps, so they don't need to be escaped or quoted. */
+    private void writeView(ViewExportFormat format, Writer writer, long id, long flashcardId, String viewTimestamp)
+            throws IOException {
+        if (format == ViewExportFormat.CSV) {
+            writer.write(id + "," + flashcardId + "," + viewTimestamp + "\n");
+        } else {
+            writer.write("{\"id\":" + id + ",\"flashcardId\":" + flashcardId +
+                    ",\"viewTimestamp\":\"" + viewTimestamp + "\"}\n");
+        }
+    }
+}
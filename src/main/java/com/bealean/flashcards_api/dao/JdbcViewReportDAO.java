@@ -0,0 +1,130 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.DailyViewCount;
+import com.bealean.flashcards_api.model.TaxonomyViewCount;
+import com.bealean.flashcards_api.utility.InputScrubber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/* Reports read the daily view counts in flashcard_view_daily, which the flashcard_last_view triggers keep current,
+   never flashcard_views, so the time of a report depends on the number of days and cards viewed in its range,
+   not on the number of views ever recorded. Days are in UTC. */
+@Component
+public class JdbcViewReportDAO implements ViewReportDAO {
+    /* Number of days reported when from isn't specified, including the to day. */
+    private static final int DEFAULT_REPORT_DAYS = 30;
+
+    /* Upper limit for the number of days in a report. */
+    static final int MAX_REPORT_DAYS = 366;
+
+    @Autowired
+    AreaDAO areaDAO;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcViewReportDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.areaDAO = new JdbcAreaDAO(jdbcTemplate);
+    }
+
+    @Override
+    public List<DailyViewCount> getViewsPerDay(LocalDate from, LocalDate to) {
+        DateRange range = getRange(from, to);
+        String sql = "SELECT view_day, SUM(view_count) AS view_count FROM flashcard_view_daily " +
+                "WHERE view_day BETWEEN ? AND ? " +
+                "GROUP BY view_day ORDER BY view_day";
+        try {
+            return jdbcTemplate.query(sql, (resultSet, rowNumber) -> new DailyViewCount(
+                    resultSet.getObject("view_day", LocalDate.class), resultSet.getLong("view_count")),
+                    range.from(), range.to());
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting views per day from database.");
+        }
+    }
+
+    @Override
+    public List<TaxonomyViewCount> getViewsPerArea(LocalDate from, LocalDate to) {
+        DateRange range = getRange(from, to);
+        String sql = "SELECT a.area_name, SUM(d.view_count) AS view_count FROM flashcard_view_daily d " +
+                "LEFT OUTER JOIN areas a ON d.area_id = a.id " +
+                "WHERE d.view_day BETWEEN ? AND ? " +
+                "GROUP BY a.area_name ORDER BY a.area_name";
+        try {
+            return jdbcTemplate.query(sql, (resultSet, rowNumber) -> new TaxonomyViewCount(
+                    resultSet.getString("area_name"), null, resultSet.getLong("view_count")),
+                    range.from(), range.to());
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting views per Area from database.");
+        }
+    }
+
+    /* area 'all' or null reports the Categories of every Area. */
+    @Override
+    public List<TaxonomyViewCount> getViewsPerCategory(String area, LocalDate from, LocalDate to) {
+        DateRange range = getRange(from, to);
+        area = InputScrubber.trimStringAndSetEmptyToNull(area);
+        String sql = "SELECT a.area_name, c.category_name, SUM(d.view_count) AS view_count " +
+                "FROM flashcard_view_daily d " +
+                "LEFT OUTER JOIN areas a ON d.area_id = a.id " +
+                "LEFT OUTER JOIN categories c ON d.category_id = c.id " +
+                "WHERE d.view_day BETWEEN ? AND ? ";
+        Object[] args;
+        if (area == null || area.equalsIgnoreCase("all")) {
+            args = new Object[]{range.from(), range.to()};
+        } else {
+            long areaId = areaDAO.getAreaIdByName(area);
+            if (areaId < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Area not found. Unable to get views per Category for missing Area. " +
+                                "Send Area 'all' to report the Categories of all Areas.");
+            }
+            sql += "AND d.area_id = ? ";
+            args = new Object[]{range.from(), range.to(), areaId};
+        }
+        sql += "GROUP BY a.area_name, c.category_name ORDER BY a.area_name, c.category_name";
+        try {
+            return jdbcTemplate.query(sql, (resultSet, rowNumber) -> new TaxonomyViewCount(
+                    resultSet.getString("area_name"), resultSet.getString("category_name"),
+                    resultSet.getLong("view_count")), args);
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Exception getting views per Category from database.");
+        }
+    }
+
+    /* to defaults to the current day, and from to DEFAULT_REPORT_DAYS days ending on to. */
+    private DateRange getRange(LocalDate from, LocalDate to) {
+        if (to == null) {
+            to = LocalDate.now(ZoneOffset.UTC);
+        }
+        if (from == null) {
+            from = to.minusDays(DEFAULT_REPORT_DAYS - 1);
+        }
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "From date must not be after To date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Reports can include no more than " + MAX_REPORT_DAYS + " days.");
+        }
+        return new DateRange(from, to);
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.utility.TransactionHooks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+
+/* Area, Category, Subcategory mappings known to exist in the database, so doesMappingExist doesn't query
+   the database for them. The table is small and only grows through addMapping, so every mapping is loaded
+   at startup, and a mapping is added once the transaction that added or found it commits.
+   A mapping that isn't in the set is still checked in the database, so a mapping added by another instance
+   is found, but a mapping deleted out of band is reported as existing until reload is called,
+   for example through the taxonomymappings actuator endpoint.
+   Each mapping is packed into one long with ID_BITS bits for each ID and 0 for a NULL Subcategory.
+   Mappings with IDs too large to pack are always checked in the database.
+   The packed mappings are kept in a sorted array that is replaced when a mapping is added, so lookups don't lock. */
+@Component
+public class MappingSet {
+
+    static final int ID_BITS = 21;
+    static final long MAX_PACKED_ID = (1L << ID_BITS) - 1;
+    private static final long NOT_PACKED = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile long[] mappings = new long[0];
+
+    public MappingSet(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /* The set starts empty if the mappings can't be loaded, and every mapping is checked in the database. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        try {
+            reload();
+        } catch (ResponseStatusException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+        }
+    }
+
+    /* Replaces the set with the mappings currently in the database and returns the number of mappings. */
+    public int reload() {
+        String sql = "SELECT area_id, category_id, subcategory_id FROM area_category_subcategory";
+        long[] loaded;
+        try {
+            loaded = jdbcTemplate.query(sql, (resultSet, rowNum) -> {
+                long areaId = resultSet.getLong("area_id");
+                long categoryId = resultSet.getLong("category_id");
+                long subcategoryId = resultSet.getLong("subcategory_id");
+                return pack(areaId, categoryId, resultSet.wasNull() ? null : subcategoryId);
+            }).stream().mapToLong(Long::longValue)
+                    .filter(mapping -> mapping != NOT_PACKED)
+                    .sorted().distinct().toArray();
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Unable to load Area, Category, Subcategory mappings from database.");
+        }
+        synchronized (this) {
+            mappings = loaded;
+        }
+        return loaded.length;
+    }
+
+    public boolean contains(Long areaId, Long categoryId, Long subcategoryId) {
+        long mapping = pack(areaId, categoryId, subcategoryId);
+        return mapping != NOT_PACKED && Arrays.binarySearch(mappings, mapping) >= 0;
+    }
+
+    /* Adds a mapping that exists in the database, once the current transaction commits. */
+    public void add(Long areaId, Long categoryId, Long subcategoryId) {
+        long mapping = pack(areaId, categoryId, subcategoryId);
+        if (mapping != NOT_PACKED) {
+            TransactionHooks.afterCommit(() -> insert(mapping));
+        }
+    }
+
+    public int size() {
+        return mappings.length;
+    }
+
+    private synchronized void insert(long mapping) {
+        long[] current = mappings;
+        int index = Arrays.binarySearch(current, mapping);
+        if (index >= 0) {
+            return;
+        }
+        int insertionPoint = -index - 1;
+        long[] updated = new long[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertionPoint);
+        updated[insertionPoint] = mapping;
+        System.arraycopy(current, insertionPoint, updated, insertionPoint + 1, current.length - insertionPoint);
+        mappings = updated;
+    }
+
+    static long pack(Long areaId, Long categoryId, Long subcategoryId) {
+        long subcategory = subcategoryId == null ? 0 : subcategoryId;
+        if (areaId == null || categoryId == null || !isPackable(areaId) || !isPackable(categoryId)
+                || (subcategoryId != null && !isPackable(subcategory))) {
+            return NOT_PACKED;
+        }
+        return (areaId << (2 * ID_BITS)) | (categoryId << ID_BITS) | subcategory;
+    }
+
+    /* Sequences start at 1, so 0 is free to represent a NULL Subcategory. */
+    private static boolean isPackable(long id) {
+        return id > 0 && id <= MAX_PACKED_ID;
+    }
+}
@@ -1,9 +1,12 @@
 package com.bealean.flashcards_api.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface SubcategoryDAO {
     long getSubcategoryIdByName(String subcategoryName);
     List<String> getSubcategories(String areaName, String categoryName);
     long addSubcategory(String subcategoryName);
+    Map<String, Long> addSubcategories(Collection<String> subcategoryNames);
 }
@@ -0,0 +1,64 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.utility.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/* Bounded cache of Area, Category, and Subcategory IDs by name, shared by the Area, Category, and Subcategory DAOs.
+   Names are never renamed or deleted by the API, so a cached ID stays valid once it has been committed.
+   IDs are only cached after the transaction that read or inserted them commits, so an ID inserted
+   in a transaction that rolls back is discarded with the transaction and is never cached.
+   Names that don't exist are not cached, so a name added by another instance is found on the next lookup.
+   Hit and miss counts are published with the flashcards.taxonomy.ids cache metrics. */
+@Component
+public class TaxonomyIdCache {
+
+    public enum Taxonomy {AREA, CATEGORY, SUBCATEGORY}
+
+    private final Cache<Key, Long> ids;
+
+    /* Used when the DAOs are created without Spring. */
+    public TaxonomyIdCache() {
+        this(10000);
+    }
+
+    @Autowired
+    public TaxonomyIdCache(@Value("${flashcards.taxonomy-cache.maximum-size:10000}") long maximumSize) {
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /* Only the cache created by Spring is published, so caches of DAOs created without Spring
+       don't take the metric names. */
+    @PostConstruct
+    public void registerMetrics() {
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, ids, "flashcards.taxonomy.ids");
+    }
+
+    /* Returns null if the ID for the name isn't cached. */
+    public Long get(Taxonomy taxonomy, String name) {
+        return ids.getIfPresent(new Key(taxonomy, name));
+    }
+
+    public void put(Taxonomy taxonomy, String name, long id) {
+        Key key = new Key(taxonomy, name);
+        TransactionHooks.afterCommit(() -> ids.put(key, id));
+    }
+
+    public CacheStats stats() {
+        return ids.stats();
+    }
+
+    private record Key(Taxonomy taxonomy, String name) {
+    }
+}
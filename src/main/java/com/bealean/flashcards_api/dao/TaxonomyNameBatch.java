@@ -0,0 +1,81 @@
+package com.bealean.flashcards_api.dao;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/* Adds a batch of Area, Category, or Subcategory names with one statement, for the batch methods of the
+   Area, Category, and Subcategory DAOs, which only differ by table and column. */
+final class TaxonomyNameBatch {
+
+    private TaxonomyNameBatch() {
+    }
+
+    /* Inserts the names that don't exist and returns the IDs of all of the names.
+       Names are inserted in order, so concurrent batches with some of the same new names wait for each other
+       on the UNIQUE constraint, instead of deadlocking. As in addArea, an existing name that another transaction
+       committed after the statement started isn't visible to the statement, so those names are selected again. */
+    static Map<String, Long> addNames(JdbcTemplate jdbcTemplate, TaxonomyIdCache taxonomyIdCache,
+                                      TaxonomyIdCache.Taxonomy taxonomy, String table, String column,
+                                      Collection<String> names, String failureMessage) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String name : new LinkedHashSet<>(names)) {
+            Long cachedId = taxonomyIdCache.get(taxonomy, name);
+            if (cachedId != null) {
+                ids.put(name, cachedId);
+            } else {
+                uncached.add(name);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return ids;
+        }
+
+        String sql = "WITH names AS (SELECT unnest(?::varchar[]) AS name), " +
+                "inserted AS (INSERT INTO " + table + " (" + column + ") SELECT name FROM names ORDER BY name " +
+                "ON CONFLICT (" + column + ") DO NOTHING RETURNING id, " + column + ") " +
+                "SELECT id, " + column + " AS name FROM inserted UNION ALL " +
+                "SELECT t.id, t." + column + " FROM " + table + " t JOIN names n ON t." + column + " = n.name";
+        String reselectSql = "SELECT id, " + column + " AS name FROM " + table + " WHERE " + column + " = ANY(?)";
+        Map<String, Long> added = new HashMap<>();
+        try {
+            queryNames(jdbcTemplate, sql, uncached, added);
+            if (added.size() < uncached.size()) {
+                List<String> missing = new ArrayList<>(uncached);
+                missing.removeAll(added.keySet());
+                queryNames(jdbcTemplate, reselectSql, missing, added);
+            }
+        } catch (DataAccessException e) {
+            e.printStackTrace();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, failureMessage);
+        }
+        if (added.size() < uncached.size()) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, failureMessage);
+        }
+        for (Map.Entry<String, Long> entry : added.entrySet()) {
+            taxonomyIdCache.put(taxonomy, entry.getKey(), entry.getValue());
+        }
+        ids.putAll(added);
+        return ids;
+    }
+
+    private static void queryNames(JdbcTemplate jdbcTemplate, String sql, List<String> names, Map<String, Long> ids) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("varchar", names.toArray()));
+            return statement;
+        }, resultSet -> {
+            ids.put(resultSet.getString("name"), resultSet.getLong("id"));
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.ViewExportFormat;
+
+import java.io.Writer;
+import java.time.OffsetDateTime;
+
+public interface ViewExportDAO {
+    long exportViews(OffsetDateTime since, OffsetDateTime until, Long afterId, ViewExportFormat format, Writer writer);
+}
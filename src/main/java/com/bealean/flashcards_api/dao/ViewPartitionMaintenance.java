@@ -0,0 +1,119 @@
+package com.bealean.flashcards_api.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/* Keeps the monthly partitions of flashcard_views current. At startup, and every checkIntervalHours after that,
+   the partitions for the current month and the next monthsAhead months are created, so views are never written
+   to the default partition, and the partitions for months more than retentionMonths before the current month
+   are detached. Detached partitions are kept as separate tables for archiving, unless dropExpired is true.
+   A retentionMonths of 0 keeps every partition. Months start at midnight UTC. */
+@Component
+public class ViewPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+    private final long checkIntervalHours;
+
+    private ScheduledExecutorService executor;
+
+    /* Used when the DAOs are created without Spring. Maintenance only runs when maintain is called. */
+    public ViewPartitionMaintenance(JdbcTemplate jdbcTemplate, int monthsAhead, int retentionMonths,
+                                    boolean dropExpired) {
+        this(jdbcTemplate, false, monthsAhead, retentionMonths, dropExpired, 24);
+    }
+
+    @Autowired
+    public ViewPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                    @Value("${flashcards.views.partitions.enabled:true}") boolean enabled,
+                                    @Value("${flashcards.views.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${flashcards.views.partitions.retention-months:0}") int retentionMonths,
+                                    @Value("${flashcards.views.partitions.drop-expired:false}") boolean dropExpired,
+                                    @Value("${flashcards.views.partitions.check-interval-hours:24}") long checkIntervalHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = dropExpired;
+        this.checkIntervalHours = checkIntervalHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "view-partition-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::maintainAndReportFailure, 0, checkIntervalHours, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /* Creates the future partitions and removes the expired partitions. */
+    public void maintain() {
+        createFuturePartitions();
+        removeExpiredPartitions();
+    }
+
+    /* A failure is retried at the next check, so it doesn't stop the scheduled checks. */
+    private void maintainAndReportFailure() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            System.out.println("Caught Exception: " + e.getMessage());
+        }
+    }
+
+    /* Returns the names of the partitions for the current month and the next monthsAhead months. */
+    public List<String> createFuturePartitions() {
+        String sql = "SELECT create_flashcard_views_partition(" +
+                "(date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => m))::date) " +
+                "FROM generate_series(0, ?) m";
+        return jdbcTemplate.queryForList(sql, String.class, monthsAhead);
+    }
+
+    /* Returns the names of the partitions that were detached, or dropped. Only the monthly partitions,
+       named flashcard_views_YYYY_MM, are removed, never the default partition. */
+    public List<String> removeExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+        String sql = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON i.inhrelid = c.oid " +
+                "WHERE i.inhparent = 'flashcard_views'::regclass " +
+                "AND c.relname ~ '^flashcard_views_[0-9]{4}_[0-9]{2}$' " +
+                "AND to_date(right(c.relname, 7), 'YYYY_MM') < " +
+                "date_trunc('month', now() AT TIME ZONE 'UTC') - make_interval(months => ?) " +
+                "ORDER BY c.relname";
+        List<String> expired = jdbcTemplate.queryForList(sql, String.class, retentionMonths);
+        for (String partition : expired) {
+            /* The names were matched against the partition name pattern, so they are safe to use unquoted. */
+            jdbcTemplate.execute("ALTER TABLE flashcard_views DETACH PARTITION " + partition);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,13 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.DailyViewCount;
+import com.bealean.flashcards_api.model.TaxonomyViewCount;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ViewReportDAO {
+    List<DailyViewCount> getViewsPerDay(LocalDate from, LocalDate to);
+    List<TaxonomyViewCount> getViewsPerArea(LocalDate from, LocalDate to);
+    List<TaxonomyViewCount> getViewsPerCategory(String area, LocalDate from, LocalDate to);
+}
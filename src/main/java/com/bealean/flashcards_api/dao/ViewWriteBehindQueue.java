@@ -0,0 +1,199 @@
+package com.bealean.flashcards_api.dao;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/* Write-behind buffer for recording views. Views are queued in memory and a flusher thread writes them
+   to flashcard_last_view with one multi-row upsert, when maxBatchSize views are queued or the oldest
+   queued view has waited maxDelayMillis, whichever comes first. maxDelayMillis is the durability window:
+   views queued for less than that time are lost if the application stops without shutting down cleanly.
+   Queued views are flushed on shutdown. Enabled with the flashcards.views.write-behind.enabled property.
+   Only the views recorded by the in-memory next card scheduler are queued, as getNext records its views
+   in the claim statement otherwise. */
+@Component
+public class ViewWriteBehindQueue {
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long maxDelayMillis;
+    private final int maxBatchSize;
+    private final BlockingQueue<QueuedView> queue;
+    private final Timer flushTimer;
+
+    private Thread flusher;
+    private volatile boolean running = false;
+
+    /* Used when the DAOs are created without Spring. Write-behind is disabled. */
+    public ViewWriteBehindQueue(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, false, 1000, 500, 10000);
+    }
+
+    @Autowired
+    public ViewWriteBehindQueue(JdbcTemplate jdbcTemplate,
+                                @Value("${flashcards.views.write-behind.enabled:false}") boolean enabled,
+                                @Value("${flashcards.views.write-behind.max-delay-ms:1000}") long maxDelayMillis,
+                                @Value("${flashcards.views.write-behind.max-batch-size:500}") int maxBatchSize,
+                                @Value("${flashcards.views.write-behind.capacity:10000}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.flushTimer = Timer.builder("flashcards.views.write-behind.flush")
+                .description("Time to write a batch of queued views to the database")
+                .register(Metrics.globalRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /* Returns false if write-behind is disabled or the queue is full,
+       in which case the caller should record the view directly. */
+    public boolean enqueue(long flashcardId) {
+        return enabled && queue.offer(new QueuedView(flashcardId, System.currentTimeMillis()));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            Gauge.builder("flashcards.views.write-behind.queue.depth", queue, BlockingQueue::size)
+                    .description("Views waiting to be written to the database")
+                    .register(Metrics.globalRegistry);
+            running = true;
+            flusher = new Thread(this::flushLoop, "view-write-behind-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /* The flusher thread writes what is still queued before it ends, so the last batches aren't written
+       by two threads at once, out of order. If it hasn't ended within SHUTDOWN_TIMEOUT_MILLIS,
+       the views it hasn't written are lost. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher == null) {
+            flush();
+            return;
+        }
+        flusher.interrupt();
+        flusher.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (flusher.isAlive()) {
+            System.out.println(queue.size() + " queued flashcard views were not written before shutdown.");
+        }
+    }
+
+    /* Writes everything currently queued. */
+    public void flush() {
+        List<QueuedView> views = new ArrayList<>();
+        while (queue.drainTo(views, maxBatchSize) > 0) {
+            write(views);
+            views.clear();
+        }
+    }
+
+    private void flushLoop() {
+        List<QueuedView> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                QueuedView first = queue.poll(maxDelayMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queuedAtMillis() + maxDelayMillis;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    QueuedView next = remaining > 0 ? queue.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            write(batch);
+            batch.clear();
+        }
+        /* Clears an interrupt sent while a batch was written, so it doesn't fail the final writes. */
+        Thread.interrupted();
+        flush();
+    }
+
+    private void write(List<QueuedView> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        /* ON CONFLICT DO UPDATE can't update the same row twice in one statement,
+           so a card viewed more than once in the batch is written in a later statement. */
+        List<QueuedView> remaining = views;
+        while (!remaining.isEmpty()) {
+            List<QueuedView> statementViews = new ArrayList<>();
+            List<QueuedView> laterViews = new ArrayList<>();
+            Set<Long> ids = new HashSet<>();
+            for (QueuedView view : remaining) {
+                if (ids.add(view.flashcardId())) {
+                    statementViews.add(view);
+                } else {
+                    laterViews.add(view);
+                }
+            }
+            try {
+                flushTimer.record(() -> upsertLastViews(statementViews));
+            } catch (DataAccessException e) {
+                System.out.println("Caught Exception: " + e.getMessage());
+                System.out.println(statementViews.size() + " queued flashcard views failed to be recorded.");
+            }
+            remaining = laterViews;
+        }
+    }
+
+    /* The statement level triggers on flashcard_last_view copy all of the rows to flashcard_views
+       in one insert. Views for cards that no longer exist are skipped by the join.
+       Views are stamped with the database clock when they are written, the same clock as views recorded
+       directly when the queue is full, so the view Timestamp is up to maxDelayMillis after the view.
+       The last view is kept as the later of the two Timestamps rather than skipping the update, so a view
+       written after a later view of the card, such as from another instance, still reaches flashcard_views,
+       and the last view never moves back. */
+    private void upsertLastViews(List<QueuedView> views) {
+        Long[] ids = new Long[views.size()];
+        for (int i = 0; i < views.size(); i++) {
+            ids[i] = views.get(i).flashcardId();
+        }
+        String sql = "INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "SELECT v.flashcard_id, clock_timestamp() " +
+                "FROM unnest(?) AS v(flashcard_id) " +
+                "JOIN flashcards f ON f.id = v.flashcard_id " +
+                "ON CONFLICT (flashcard_id) DO UPDATE SET " +
+                "view_timestamp = GREATEST(flashcard_last_view.view_timestamp, EXCLUDED.view_timestamp)";
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    private record QueuedView(long flashcardId, long queuedAtMillis) {
+    }
+}
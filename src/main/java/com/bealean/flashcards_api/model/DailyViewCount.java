@@ -0,0 +1,41 @@
+package com.bealean.flashcards_api.model;
+
+import java.time.LocalDate;
+
+/* Number of views of all cards on a day (UTC). */
+public class DailyViewCount {
+    private LocalDate day;
+    private long viewCount;
+
+    public DailyViewCount() {
+    }
+
+    public DailyViewCount(LocalDate day, long viewCount) {
+        this.day = day;
+        this.viewCount = viewCount;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyViewCount{" +
+                "day=" + day +
+                ", viewCount=" + viewCount +
+                '}';
+    }
+}
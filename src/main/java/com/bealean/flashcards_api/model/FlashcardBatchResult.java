@@ -0,0 +1,69 @@
+package com.bealean.flashcards_api.model;
+
+/* Result for one card of a batch request. index is the position of the card in the request.
+   id is set for CREATED and EXISTING cards, and reason is set for REJECTED cards. */
+public class FlashcardBatchResult {
+
+    public enum Status {CREATED, EXISTING, REJECTED}
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String reason;
+
+    public FlashcardBatchResult() {
+    }
+
+    public FlashcardBatchResult(int index, Status status, Long id, String reason) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.reason = reason;
+    }
+
+    public static FlashcardBatchResult rejected(int index, String reason) {
+        return new FlashcardBatchResult(index, Status.REJECTED, null, reason);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    @Override
+    public String toString() {
+        return "FlashcardBatchResult{" +
+                "index=" + index +
+                ", status=" + status +
+                ", id=" + id +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.bealean.flashcards_api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* Totals for a CSV import. cards is the number of card rows in the CSV. A card with the same details as an
+   existing card, or an earlier row of the CSV, is counted as existing. rejections has the first rejected rows,
+   with index set to the position of the row among the card rows of the CSV, starting at 0. */
+public class FlashcardImportResult {
+    private long cards;
+    private long created;
+    private long existing;
+    private long rejected;
+    private List<FlashcardBatchResult> rejections = new ArrayList<>();
+
+    public long getCards() {
+        return cards;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getExisting() {
+        return existing;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<FlashcardBatchResult> getRejections() {
+        return rejections;
+    }
+
+    public void setCards(long cards) {
+        this.cards = cards;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public void setExisting(long existing) {
+        this.existing = existing;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setRejections(List<FlashcardBatchResult> rejections) {
+        this.rejections = rejections;
+    }
+
+    @Override
+    public String toString() {
+        return "FlashcardImportResult{" +
+                "cards=" + cards +
+                ", created=" + created +
+                ", existing=" + existing +
+                ", rejected=" + rejected +
+                ", rejections=" + rejections +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.bealean.flashcards_api.model;
+
+/* Result for one ID of a request for cards by ID. flashcard is set for FOUND IDs. */
+public class FlashcardLookupResult {
+
+    public enum Status {FOUND, NOT_FOUND}
+
+    private long id;
+    private Status status;
+    private Flashcard flashcard;
+
+    public FlashcardLookupResult() {
+    }
+
+    public FlashcardLookupResult(long id, Status status, Flashcard flashcard) {
+        this.id = id;
+        this.status = status;
+        this.flashcard = flashcard;
+    }
+
+    public static FlashcardLookupResult found(Flashcard flashcard) {
+        return new FlashcardLookupResult(flashcard.getId(), Status.FOUND, flashcard);
+    }
+
+    public static FlashcardLookupResult notFound(long id) {
+        return new FlashcardLookupResult(id, Status.NOT_FOUND, null);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Flashcard getFlashcard() {
+        return flashcard;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public void setFlashcard(Flashcard flashcard) {
+        this.flashcard = flashcard;
+    }
+
+    @Override
+    public String toString() {
+        return "FlashcardLookupResult{" +
+                "id=" + id +
+                ", status=" + status +
+                ", flashcard=" + flashcard +
+                '}';
+    }
+}
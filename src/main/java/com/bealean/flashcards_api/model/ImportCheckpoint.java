@@ -0,0 +1,64 @@
+package com.bealean.flashcards_api.model;
+
+/* Progress reported by an import. rowsCommitted is the number of card rows, from the start of the CSV,
+   that the API has accepted or rejected, with no earlier row still to be sent, and byteOffset is the position
+   in the CSV just after the last of them, where a resumed import starts reading.
+   rowsFailed is the number of those rows the API rejected. status defaults to RUNNING. */
+public class ImportCheckpoint {
+    private long rowsCommitted;
+    private long rowsFailed;
+    private long byteOffset;
+    private ImportJobStatus status = ImportJobStatus.RUNNING;
+
+    public ImportCheckpoint() {
+    }
+
+    public ImportCheckpoint(long rowsCommitted, long rowsFailed, long byteOffset, ImportJobStatus status) {
+        this.rowsCommitted = rowsCommitted;
+        this.rowsFailed = rowsFailed;
+        this.byteOffset = byteOffset;
+        this.status = status;
+    }
+
+    public long getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setRowsCommitted(long rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportCheckpoint{" +
+                "rowsCommitted=" + rowsCommitted +
+                ", rowsFailed=" + rowsFailed +
+                ", byteOffset=" + byteOffset +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,140 @@
+package com.bealean.flashcards_api.model;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/* A CSV import run by ImportUtility and its last checkpoint. sourceName is the path of the CSV and sourceBytes
+   its size when the import was created, so a resumed import can check the CSV hasn't changed.
+   runStartedAt and runStartRows are set each time the import is started or resumed. */
+public class ImportJob {
+    private Long id;
+    private String sourceName;
+    private long sourceBytes;
+    private ImportJobStatus status;
+    private long rowsCommitted;
+    private long rowsFailed;
+    private long byteOffset;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime runStartedAt;
+    private long runStartRows;
+    private OffsetDateTime updatedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public long getSourceBytes() {
+        return sourceBytes;
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public long getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getRunStartedAt() {
+        return runStartedAt;
+    }
+
+    public long getRunStartRows() {
+        return runStartRows;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /* Percentage of the CSV read, by size, as the rows don't all have the same length. */
+    public double getProgress() {
+        return sourceBytes == 0 ? 100 : byteOffset * 100.0 / sourceBytes;
+    }
+
+    /* Rows committed per second in the current run, from its start to the last checkpoint. */
+    public double getRowsPerSecond() {
+        if (runStartedAt == null || updatedAt == null) {
+            return 0;
+        }
+        long millis = Duration.between(runStartedAt, updatedAt).toMillis();
+        return millis <= 0 ? 0 : (rowsCommitted - runStartRows) * 1000.0 / millis;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setSourceName(String sourceName) {
+        this.sourceName = sourceName;
+    }
+
+    public void setSourceBytes(long sourceBytes) {
+        this.sourceBytes = sourceBytes;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    public void setRowsCommitted(long rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setRunStartedAt(OffsetDateTime runStartedAt) {
+        this.runStartedAt = runStartedAt;
+    }
+
+    public void setRunStartRows(long runStartRows) {
+        this.runStartRows = runStartRows;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportJob{" +
+                "id=" + id +
+                ", sourceName='" + sourceName + '\'' +
+                ", sourceBytes=" + sourceBytes +
+                ", status=" + status +
+                ", rowsCommitted=" + rowsCommitted +
+                ", rowsFailed=" + rowsFailed +
+                ", byteOffset=" + byteOffset +
+                ", createdAt=" + createdAt +
+                ", runStartedAt=" + runStartedAt +
+                ", runStartRows=" + runStartRows +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
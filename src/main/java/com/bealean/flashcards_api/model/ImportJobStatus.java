@@ -0,0 +1,10 @@
+package com.bealean.flashcards_api.model;
+
+/* RUNNING until the import reads every row of the CSV. An import that stops before then, or with rows the API
+   couldn't be sent, is FAILED, and can be resumed from its checkpoint. A COMPLETED import can't be resumed.
+   An import that is stopped without reporting its status stays RUNNING, and can also be resumed. */
+public enum ImportJobStatus {
+    RUNNING,
+    FAILED,
+    COMPLETED
+}
@@ -0,0 +1,51 @@
+package com.bealean.flashcards_api.model;
+
+/* Number of views of the cards with an Area, or an Area and Category. category is null in the views per Area,
+   and area or category is null for the cards without one. */
+public class TaxonomyViewCount {
+    private String area;
+    private String category;
+    private long viewCount;
+
+    public TaxonomyViewCount() {
+    }
+
+    public TaxonomyViewCount(String area, String category, long viewCount) {
+        this.area = area;
+        this.category = category;
+        this.viewCount = viewCount;
+    }
+
+    public String getArea() {
+        return area;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setArea(String area) {
+        this.area = area;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TaxonomyViewCount{" +
+                "area='" + area + '\'' +
+                ", category='" + category + '\'' +
+                ", viewCount=" + viewCount +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.bealean.flashcards_api.model;
+
+/* Formats of the view history export. NDJSON writes one JSON object per line, and CSV writes a header line
+   followed by one line per view. Both are written one view at a time, so the export can be streamed. */
+public enum ViewExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    ViewExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
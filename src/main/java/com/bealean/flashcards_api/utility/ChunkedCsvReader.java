@@ -0,0 +1,256 @@
+package com.bealean.flashcards_api.utility;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+/* Reads the records of a large CSV by parsing chunks of the file in parallel on a ForkJoinPool, and returns
+ * the records in the order of the file, so an import sends the rows in order, with the same checkpoints as
+ * when the CSV is read on one thread.
+ *
+ * The file is split into chunks of about chunkBytes that start and end on record boundaries. A line feed is a
+ * record boundary if there is an even number of double quotes before it in the file, since a quoted field
+ * has an even number of double quotes, counting the enclosing double quotes and each escaped pair, and
+ * a line feed within a quoted field has an odd number before it. The parity at the start of each segment of the
+ * file isn't known until the segments before it are scanned, so each segment is scanned in parallel for
+ * the number of double quotes it contains, and the first line feed after an even and after an odd number of
+ * double quotes within it. The boundary of each segment is then chosen with the parity of the segments before it.
+ *
+ * Each chunk is mapped with FileChannel.map, decoded as UTF-8, and parsed with CsvRecordReader. Only
+ * twice the pool's parallelism of chunks are parsed ahead of the record being read, so memory use depends on
+ * chunkBytes and the parallelism, not the size of the file. Chunks are mapped separately, as a mapping
+ * can't be more than 2 GB, so a single record can't be more than 2 GB. */
+public class ChunkedCsvReader implements CsvRecordSource {
+    static final int DEFAULT_CHUNK_BYTES = 4 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final ForkJoinPool pool;
+    private final List<Chunk> chunks;
+    private final int maxChunksParsedAhead;
+
+    private final ArrayDeque<ForkJoinTask<ParsedChunk>> parsedAhead = new ArrayDeque<>();
+    private int nextChunk;
+    private ParsedChunk current;
+    private int currentRecord;
+    private long recordNumber;
+    private long chunkStartRecordNumber;
+    private long byteOffset;
+
+    public ChunkedCsvReader(Path csv, long byteOffset, long recordNumber, long lineNumber, ForkJoinPool pool)
+            throws IOException {
+        this(csv, byteOffset, recordNumber, lineNumber, pool, DEFAULT_CHUNK_BYTES);
+    }
+
+    /* Reads from byteOffset, which is the start of a record, just after the first recordNumber records,
+       on line lineNumber of the file. */
+    public ChunkedCsvReader(Path csv, long byteOffset, long recordNumber, long lineNumber, ForkJoinPool pool,
+                            int chunkBytes) throws IOException {
+        this.channel = FileChannel.open(csv, StandardOpenOption.READ);
+        this.pool = pool;
+        this.maxChunksParsedAhead = pool.getParallelism() * 2;
+        this.byteOffset = byteOffset;
+        this.recordNumber = recordNumber;
+        try {
+            this.chunks = planChunks(byteOffset, lineNumber, chunkBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        parseAhead();
+    }
+
+    @Override
+    public List<String> readRecord() throws IOException {
+        while (current == null || currentRecord == current.records().size()) {
+            if (current != null && current.error() != null) {
+                throw getError(current);
+            }
+            ForkJoinTask<ParsedChunk> next = parsedAhead.poll();
+            if (next == null) {
+                return null;
+            }
+            current = next.join();
+            currentRecord = 0;
+            chunkStartRecordNumber = recordNumber;
+            parseAhead();
+        }
+        List<String> record = current.records().get(currentRecord);
+        /* Released as it is read, so the chunk doesn't keep every record until the next chunk is read. */
+        current.records().set(currentRecord, null);
+        byteOffset = current.endByteOffsets()[currentRecord];
+        currentRecord++;
+        recordNumber++;
+        return record;
+    }
+
+    @Override
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    /* Number of chunks the file was split into. */
+    int getChunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ForkJoinTask<ParsedChunk> task : parsedAhead) {
+            task.cancel(true);
+        }
+        parsedAhead.clear();
+        channel.close();
+    }
+
+    private void parseAhead() {
+        while (parsedAhead.size() < maxChunksParsedAhead && nextChunk < chunks.size()) {
+            Chunk chunk = chunks.get(nextChunk++);
+            parsedAhead.add(pool.submit(() -> parseChunk(chunk)));
+        }
+    }
+
+    private List<Chunk> planChunks(long start, long lineNumber, int chunkBytes) throws IOException {
+        long end = channel.size();
+        List<Callable<SegmentScan>> scanTasks = new ArrayList<>();
+        for (long segmentStart = start; segmentStart < end; segmentStart += chunkBytes) {
+            long scanStart = segmentStart;
+            long scanEnd = Math.min(segmentStart + chunkBytes, end);
+            scanTasks.add(() -> scanSegment(scanStart, scanEnd));
+        }
+
+        List<Chunk> planned = new ArrayList<>();
+        long chunkStart = start;
+        long chunkLineNumber = lineNumber;
+        long segmentLineNumber = lineNumber;
+        int quoteParity = 0;
+        boolean firstSegment = true;
+        for (Future<SegmentScan> future : pool.invokeAll(scanTasks)) {
+            SegmentScan scan = getScan(future);
+            /* The first segment starts on a boundary. A segment with no line feed outside a quoted field
+               is part of the chunk before it. */
+            long boundary = scan.firstBoundary()[quoteParity];
+            if (!firstSegment && boundary >= 0 && boundary < end) {
+                planned.add(new Chunk(chunkStart, boundary, chunkLineNumber));
+                chunkStart = boundary;
+                chunkLineNumber = segmentLineNumber + scan.lineFeedsToBoundary()[quoteParity];
+            }
+            firstSegment = false;
+            segmentLineNumber += scan.lineFeeds();
+            quoteParity ^= scan.quoteParity();
+        }
+        if (chunkStart < end) {
+            planned.add(new Chunk(chunkStart, end, chunkLineNumber));
+        }
+        return planned;
+    }
+
+    private SegmentScan scanSegment(long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int quoteParity = 0;
+        long lineFeeds = 0;
+        long[] firstBoundary = {-1, -1};
+        long[] lineFeedsToBoundary = new long[2];
+        int length = buffer.limit();
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                quoteParity ^= 1;
+            } else if (b == '\n') {
+                lineFeeds++;
+                if (firstBoundary[quoteParity] < 0) {
+                    firstBoundary[quoteParity] = start + i + 1;
+                    lineFeedsToBoundary[quoteParity] = lineFeeds;
+                }
+            }
+        }
+        return new SegmentScan(quoteParity, lineFeeds, firstBoundary, lineFeedsToBoundary);
+    }
+
+    /* Returns the records of the chunk, and the error if it isn't valid, with the records before the error. */
+    private ParsedChunk parseChunk(Chunk chunk) {
+        List<List<String>> records = new ArrayList<>();
+        long[] endByteOffsets = new long[1024];
+        Exception error = null;
+        try {
+            CsvRecordReader reader = openChunk(chunk, 0);
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (records.size() == endByteOffsets.length) {
+                    endByteOffsets = Arrays.copyOf(endByteOffsets, endByteOffsets.length * 2);
+                }
+                endByteOffsets[records.size()] = reader.getByteOffset();
+                records.add(record);
+            }
+        } catch (IOException | ResponseStatusException e) {
+            error = e;
+        }
+        return new ParsedChunk(chunk, records, endByteOffsets, error);
+    }
+
+    private CsvRecordReader openChunk(Chunk chunk, long recordNumber) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(),
+                chunk.end() - chunk.start());
+        /* Chunks end on a line feed, so they don't split a UTF-8 character. Malformed UTF-8 is reported. */
+        CharBuffer chars = StandardCharsets.UTF_8.newDecoder().decode(buffer);
+        return new CsvRecordReader(new CharArrayReader(chars.array(), chars.arrayOffset(), chars.limit()),
+                chunk.start(), recordNumber, chunk.lineNumber());
+    }
+
+    /* The chunk was parsed before the number of records before it was known, so a CSV error is found again
+       with the record number, for the same message as when the CSV is read on one thread. */
+    private IOException getError(ParsedChunk parsed) throws IOException {
+        if (parsed.error() instanceof ResponseStatusException error) {
+            CsvRecordReader reader = openChunk(parsed.chunk(), chunkStartRecordNumber);
+            /* Throws at the record with the error. */
+            List<String> record;
+            do {
+                record = reader.readRecord();
+            } while (record != null);
+            throw error;
+        }
+        return (IOException) parsed.error();
+    }
+
+    private static SegmentScan getScan(Future<SegmentScan> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while splitting CSV into chunks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /* Bytes from start, inclusive, to end, exclusive, starting on line lineNumber of the file. */
+    private record Chunk(long start, long end, long lineNumber) {
+    }
+
+    /* Parity of the double quotes in a segment, the number of line feeds in it, and, for each parity of
+       the double quotes before the segment, the position after the first line feed outside a quoted field,
+       or -1, and the number of line feeds up to and including it. */
+    private record SegmentScan(int quoteParity, long lineFeeds, long[] firstBoundary, long[] lineFeedsToBoundary) {
+    }
+
+    private record ParsedChunk(Chunk chunk, List<List<String>> records, long[] endByteOffsets, Exception error) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.bealean.flashcards_api.utility;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Reads the records of a CSV in the RFC 4180 format, one character at a time, in a single pass.
+ * Fields are separated by commas, and records end with a line break (LF or CRLF) or the end of the input.
+ * A field may be enclosed in double quotes, in which case it can contain commas and line breaks,
+ * and each double quote within it is represented by two double quotes. For example:
+ *
+ * "Field 1","Field 2 contains comma separated quoted words ""quoted word"",""another word""","Field 3"
+ *
+ * Each character is examined once, so reading is linear in the length of the input, however many lines a record
+ * spans or how many double quotes a field contains. The input is read in blocks into a buffer, so the Reader
+ * doesn't need to be buffered, and only the current record is held in memory.
+ *
+ * The reader also counts the bytes of the characters read, as UTF-8, so getByteOffset returns the position
+ * of the end of the last record in a UTF-8 input, where a stopped import can resume reading. */
+public class CsvRecordReader implements CsvRecordSource {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+
+    /* Line of the input the next record starts on, counting line breaks within quoted fields. */
+    private long lineNumber = 1;
+    private long recordNumber = 0;
+
+    /* Bytes of the characters read, as UTF-8, and the value at the end of the last record read. */
+    private long bytesRead;
+    private long recordEndByteOffset;
+
+    public CsvRecordReader(Reader reader) {
+        this(reader, 0, 0);
+    }
+
+    /* For a Reader positioned at byteOffset of the input, just after the first recordNumber records.
+       Byte offsets and record numbers continue from these values. Line numbers in errors are counted from
+       the Reader's position, as the number of line breaks before it isn't known. */
+    public CsvRecordReader(Reader reader, long byteOffset, long recordNumber) {
+        this(reader, byteOffset, recordNumber, 1);
+    }
+
+    /* As above, for a Reader positioned at the start of line lineNumber of the input. */
+    public CsvRecordReader(Reader reader, long byteOffset, long recordNumber, long lineNumber) {
+        this.reader = reader;
+        this.bytesRead = byteOffset;
+        this.recordEndByteOffset = byteOffset;
+        this.recordNumber = recordNumber;
+        this.lineNumber = lineNumber;
+    }
+
+    /* Returns the fields of the next record, with the enclosing double quotes removed and each pair of
+       double quotes within a quoted field replaced with one double quote, or null at the end of the input.
+       Throws ResponseStatusException with BAD_REQUEST status if the record isn't valid CSV. */
+    @Override
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        long recordLine = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            if (c == '"') {
+                /* Quoted field. Read to the closing double quote, which is not followed by another double quote. */
+                while (true) {
+                    c = read();
+                    if (c == -1) {
+                        throw formatException(recordLine, "Quoted field is not closed");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+                if (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    throw formatException(recordLine, "Unexpected character after closing double quote");
+                }
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    if (c == '"') {
+                        throw formatException(recordLine, "Double quote in field that is not enclosed in double quotes");
+                    }
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                c = read();
+                if (c != '\n' && c != -1) {
+                    throw formatException(recordLine, "Carriage return that is not followed by a line feed");
+                }
+            }
+            if (c == '\n') {
+                lineNumber++;
+            }
+            recordNumber++;
+            recordEndByteOffset = bytesRead;
+            return fields;
+        }
+    }
+
+    /* Number of records read so far. */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /* Line the next record starts on. */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /* Position, in bytes of UTF-8, just after the last record read, including its line break. */
+    @Override
+    public long getByteOffset() {
+        return recordEndByteOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position++];
+        /* Each half of a surrogate pair is counted as two of the four bytes of the pair. */
+        bytesRead += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        return c;
+    }
+
+    private ResponseStatusException formatException(long recordLine, String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unexpected CSV format. " + reason +
+                " in record " + (recordNumber + 1) + " starting on line " + recordLine + ".");
+    }
+}
@@ -0,0 +1,14 @@
+package com.bealean.flashcards_api.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/* Records of a CSV, in order, with the position in the file after each record, for the import checkpoints. */
+public interface CsvRecordSource extends Closeable {
+    /* Returns the fields of the next record, or null at the end of the input. */
+    List<String> readRecord() throws IOException;
+
+    /* Position, in bytes, just after the last record read. */
+    long getByteOffset();
+}
@@ -0,0 +1,98 @@
+package com.bealean.flashcards_api.utility;
+
+import com.bealean.flashcards_api.model.ImportCheckpoint;
+import com.bealean.flashcards_api.model.ImportJob;
+import com.bealean.flashcards_api.model.ImportJobStatus;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/* Tracks the rows of an import job that have been committed, and saves a checkpoint each time intervalRows more
+   rows have been committed. Rows are numbered from the start of the CSV, starting at 1 for the first card row.
+   A row is committed when the API has added or rejected it. The parallel senders commit rows out of order,
+   so a row is only included in the checkpoint once every earlier row has been committed, and the rows committed
+   ahead of it are held until then. A row that couldn't be sent, because the server failed or couldn't be
+   reached, is never committed, so the checkpoint stops before it and a resumed import sends it again.
+   Rows after it that were added are sent again too, and the API returns the existing cards. */
+class ImportCheckpointTracker {
+    static final long CHECKPOINT_INTERVAL_ROWS = 1000;
+
+    private final ImportJobClient importJobClient;
+    private final long jobId;
+    private final long intervalRows;
+
+    /* Rows committed after a row that hasn't been committed yet, with the byte offset of the end of each row. */
+    private final TreeMap<Long, CommittedRow> committedAhead = new TreeMap<>();
+    private long rowsCommitted;
+    private long rowsFailed;
+    private long byteOffset;
+    private long checkpointRows;
+    private long firstRowNotSent = Long.MAX_VALUE;
+
+    ImportCheckpointTracker(ImportJobClient importJobClient, ImportJob importJob, long intervalRows) {
+        this.importJobClient = importJobClient;
+        this.jobId = importJob.getId();
+        this.intervalRows = intervalRows;
+        this.rowsCommitted = importJob.getRowsCommitted();
+        this.rowsFailed = importJob.getRowsFailed();
+        this.byteOffset = importJob.getByteOffset();
+        this.checkpointRows = rowsCommitted;
+    }
+
+    /* rejected is true if the API rejected the row. */
+    void rowCommitted(long row, long endByteOffset, boolean rejected) {
+        ImportCheckpoint checkpoint = null;
+        synchronized (this) {
+            /* The checkpoint can't pass a row that wasn't sent, so later rows don't need to be held. */
+            if (row > firstRowNotSent) {
+                return;
+            }
+            committedAhead.put(row, new CommittedRow(endByteOffset, rejected));
+            for (Map.Entry<Long, CommittedRow> next = committedAhead.firstEntry();
+                 next != null && next.getKey() == rowsCommitted + 1; next = committedAhead.firstEntry()) {
+                committedAhead.pollFirstEntry();
+                rowsCommitted++;
+                byteOffset = next.getValue().endByteOffset();
+                if (next.getValue().rejected()) {
+                    rowsFailed++;
+                }
+            }
+            if (rowsCommitted - checkpointRows >= intervalRows) {
+                checkpointRows = rowsCommitted;
+                checkpoint = new ImportCheckpoint(rowsCommitted, rowsFailed, byteOffset, ImportJobStatus.RUNNING);
+            }
+        }
+        /* Saved outside the lock, so the other senders don't wait for it. The API ignores a checkpoint that
+           arrives after a later one. */
+        if (checkpoint != null) {
+            importJobClient.saveCheckpoint(jobId, checkpoint);
+        }
+    }
+
+    synchronized void rowNotSent(long row) {
+        firstRowNotSent = Math.min(firstRowNotSent, row);
+        committedAhead.tailMap(row, false).clear();
+    }
+
+    /* Saves the final checkpoint, COMPLETED if every row of the CSV was read and committed, or FAILED. */
+    ImportCheckpoint finish(boolean readAllRows) {
+        ImportCheckpoint checkpoint;
+        synchronized (this) {
+            boolean completed = readAllRows && firstRowNotSent == Long.MAX_VALUE && committedAhead.isEmpty();
+            checkpoint = new ImportCheckpoint(rowsCommitted, rowsFailed, byteOffset,
+                    completed ? ImportJobStatus.COMPLETED : ImportJobStatus.FAILED);
+        }
+        importJobClient.saveCheckpoint(jobId, checkpoint);
+        if (checkpoint.getStatus() == ImportJobStatus.COMPLETED) {
+            System.out.println("Import job " + jobId + " completed with " + checkpoint.getRowsCommitted() +
+                    " rows committed.");
+        } else {
+            System.out.println("Import job " + jobId + " stopped after row " + checkpoint.getRowsCommitted() +
+                    ". Run the import again with import job ID " + jobId + " to resume from the next row.");
+        }
+        return checkpoint;
+    }
+
+    private record CommittedRow(long endByteOffset, boolean rejected) {
+    }
+}
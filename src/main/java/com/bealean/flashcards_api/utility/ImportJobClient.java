@@ -0,0 +1,42 @@
+package com.bealean.flashcards_api.utility;
+
+import com.bealean.flashcards_api.model.ImportCheckpoint;
+import com.bealean.flashcards_api.model.ImportJob;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/* Adds, resumes, and saves the checkpoints of the import jobs of ImportUtility through the API. */
+public class ImportJobClient {
+    private static final String IMPORT_JOBS_URL = "http://localhost:8080/import-jobs";
+
+    private final RestTemplate restTemplate;
+
+    public ImportJobClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /* Adds a job with the path and current size of the CSV. */
+    public ImportJob addImportJob(Path csv) throws IOException {
+        ImportJob importJob = new ImportJob();
+        importJob.setSourceName(csv.toAbsolutePath().toString());
+        importJob.setSourceBytes(Files.size(csv));
+        return restTemplate.postForObject(IMPORT_JOBS_URL, importJob, ImportJob.class);
+    }
+
+    public ImportJob resumeImportJob(long id) {
+        return restTemplate.postForObject(IMPORT_JOBS_URL + "/" + id + "/resume", null, ImportJob.class);
+    }
+
+    /* A checkpoint that can't be saved is reported, and the import continues, since a later checkpoint
+       includes the same rows. */
+    public void saveCheckpoint(long id, ImportCheckpoint checkpoint) {
+        try {
+            restTemplate.put(IMPORT_JOBS_URL + "/" + id + "/checkpoint", checkpoint);
+        } catch (Exception e) {
+            System.out.println("Caught exception saving checkpoint for import job " + id + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,116 +1,197 @@
 package com.bealean.flashcards_api.utility;
 
 import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.ImportJob;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
 public class ImportUtility {
+    static final int EXPECTED_FIELD_COUNT = 6;
 
+    /* Each import is an import job, with a checkpoint saved through the API as the cards are sent.
+       An import that stops can be resumed by entering its job ID, and reads the CSV from the checkpoint. */
     public static void main(String[] args) {
 
         Scanner scanner = new Scanner(System.in);
         System.out.println("What is the full path and name of the csv file? ");
-        String csv = scanner.nextLine();
-        ImportUtility importUtility = new ImportUtility();
-        importUtility.importFlashcards(csv);
+        Path csv = Path.of(scanner.nextLine());
+        System.out.println("Enter the import job ID to resume a stopped import, or press Enter to start a new import. ");
+        String jobId = scanner.nextLine().trim();
+        System.out.println("How many cards should be sent at once? Enter 1 to send one card at a time. ");
+        int senders = Integer.parseInt(scanner.nextLine().trim());
+        /* Chunked parsing is slower than one thread on a single CPU, so it's only offered with more than one. */
+        int processors = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool parsePool = null;
+        if (processors > 1) {
+            System.out.println("Parse the CSV in chunks on every CPU? This only helps when parsing, rather than " +
+                    "sending cards, limits the import and other CPUs are free. Enter y to parse in chunks, " +
+                    "or press Enter to read it on one thread. ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                parsePool = new ForkJoinPool(processors);
+            }
+        }
+
+        ImportJobClient importJobClient = new ImportJobClient(new RestTemplate());
+        ImportJob importJob;
+        try {
+            if (jobId.isEmpty()) {
+                importJob = importJobClient.addImportJob(csv);
+                System.out.println("Started import job " + importJob.getId() + ".");
+            } else {
+                importJob = importJobClient.resumeImportJob(Long.parseLong(jobId));
+                /* The checkpoint is a byte offset, so it only applies to the CSV as it was. */
+                if (Files.size(csv) != importJob.getSourceBytes()) {
+                    System.out.println("The CSV has changed since import job " + jobId + " started. " +
+                            "Start a new import.");
+                    return;
+                }
+                System.out.println("Resuming import job " + jobId + " after row " + importJob.getRowsCommitted() +
+                        ".");
+            }
+        } catch (Exception e) {
+            System.out.println("Caught exception: " + e.getMessage());
+            return;
+        }
+
+        try {
+            if (senders > 1) {
+                new ParallelImporter(senders).importFlashcards(csv, importJob, parsePool);
+            } else {
+                ImportUtility importUtility = new ImportUtility();
+                importUtility.importFlashcards(csv, importJob, importJobClient, parsePool);
+            }
+        } catch (IOException | InterruptedException e) {
+            System.out.println("Caught exception: " + e.getMessage());
+        } finally {
+            if (parsePool != null) {
+                parsePool.shutdownNow();
+            }
+        }
     }
 
-    private void importFlashcards(String csv) {
-        final int EXPECTED_FIELD_COUNT = 6;
-        final int LOOKBEHIND_QUOTE_PAIRS_UPPER_LIMIT = 2;
+    private void importFlashcards(Path csv, ImportJob importJob, ImportJobClient importJobClient,
+                                  ForkJoinPool parsePool) {
         RestTemplate restTemplate = new RestTemplate();
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
+        ImportCheckpointTracker checkpointTracker = new ImportCheckpointTracker(importJobClient, importJob,
+                ImportCheckpointTracker.CHECKPOINT_INTERVAL_ROWS);
+        boolean readAllRows = false;
 
-        File file = new File(csv);
-        try (Scanner scanner = new Scanner(file)) {
-            //Skip Header
-            if (scanner.hasNext()) {
-                scanner.nextLine();
-            }
-            while (scanner.hasNext()) {
-                Pattern pattern = Pattern.compile("((?<!\")\",\"|((?<=(?<!\")(\"\"){1," + LOOKBEHIND_QUOTE_PAIRS_UPPER_LIMIT + "})\",\"))");
-                /* Pattern matches the expected delimiter of double quote, comma, double quote (",").
-                 * Each field in the CSV is enclosed in double quotes and the fields are separated by commas.
-                 * Within fields any double quotes are represented by a pair of double quotes. For example:
-                 *
-                 * "Field 1","Field 2 contains comma separated quoted words ""quoted word"",""another word""","Field 3"
-                 *
-                 * Regex pattern only matches the delimiter (",") if it is not preceded by a double quote,
-                 * or if it is preceded by an even number of double quotes.
-                 *
-                 * Negative Lookbehind checks characters before the delimiter (",") without capturing them, for two cases:
-                 * 1. "," is preceded by a character other than a quote ((?<!")",").
-                 * 2. "," is preceded by a multiple of two double quotes, preceded by a character other than a double quote ((?<=(?<!")(""){1,LOOKBEHIND_QUOTE_PAIRS_UPPER_LIMIT})",").
-                 * The upper limit for the sets of double quotes is specified with the LOOKBEHIND_QUOTE_PAIRS_UPPER_LIMIT constant to limit memory consumption.
-                 * For example, if the limit is set to 2, there will be a match if the delimiter is preceded by an even number of double quotes up to 4 double quotes. */
-
-                String flashcardLine = scanner.nextLine();
-                String[] flashcardFields = pattern.split(flashcardLine);
-                // Remove initial double quote
-                String row = flashcardFields[0].substring(1);
-                /* First field for any card row should be an integer.
-                Confirm this for each card row before adding new card to database. */
-                try {
-                    Integer.parseInt(row);
-                } catch (NumberFormatException e) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unexpected CSV format. " +
-                            "CSV should have a a header row of any format and " +
-                            "data rows with six comma separated fields with each field enclosed in double quotes: " +
-                            "1. Integer representing row number, " +
-                            "2. Card Front String, " +
-                            "3. Card Back String, " +
-                            "4. Card Area String, " +
-                            "5. Card Category String, " +
-                            "6. Card Subcategory String");
-                }
-                /* Card rows can span multiple lines due to line breaks.
-                If the expected number of fields were not found on one line
-                read more lines until the expected number of fields are found. */
-                if (flashcardFields.length < EXPECTED_FIELD_COUNT) {
-                    StringBuilder flashcardLines = new StringBuilder(flashcardLine);
-                    int fieldCount = flashcardFields.length;
-                    while (fieldCount < EXPECTED_FIELD_COUNT) {
-                        flashcardLines.append("\n");
-                        flashcardLines.append(scanner.nextLine());
-                        fieldCount = pattern.split(flashcardLines).length;
-                    }
-                    flashcardFields = pattern.split(flashcardLines);
-                    if (flashcardFields.length > EXPECTED_FIELD_COUNT) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card has more fields than expected. Check field delimiters");
-                    }
-                }
-                /* CSV has two double quotes for every double quote within the Front and Back fields,
-                 * so replace two consecutive double quotes with one double quote.
-                 * Double quotes not allowed for other fields. */
-                String front = flashcardFields[1].replaceAll("\"\"", "\"");
-                String back = flashcardFields[2].replaceAll("\"\"", "\"");
-                Flashcard flashcard = new Flashcard();
-                flashcard.setFront(front);
-                flashcard.setBack(back);
-                flashcard.setArea(flashcardFields[3]);
-                flashcard.setCategory(flashcardFields[4]);
-                String subcategory = flashcardFields[5];
-                // Remove trailing double quote from last field
-                flashcard.setSubcategory(subcategory.substring(0, subcategory.length() - 1));
+        try (CsvRecordSource csvReader = openCsv(csv, importJob, parsePool)) {
+            long number = importJob.getRowsCommitted();
+            List<String> flashcardFields;
+            while ((flashcardFields = csvReader.readRecord()) != null) {
+                number++;
+                Flashcard flashcard = toFlashcard(flashcardFields);
                 HttpEntity<Flashcard> entity = new HttpEntity<>(flashcard, headers);
                 try {
                     restTemplate.postForObject("http://localhost:8080/new-flashcard", entity, Flashcard.class);
+                    checkpointTracker.rowCommitted(number, csvReader.getByteOffset(), false);
+                } catch (HttpServerErrorException | ResourceAccessException e) {
+                    System.out.println("Caught exception: " + e.getMessage());
+                    checkpointTracker.rowNotSent(number);
                 } catch (Exception e) {
                     System.out.println("Caught exception: " + e.getMessage());
+                    checkpointTracker.rowCommitted(number, csvReader.getByteOffset(), true);
                 }
             }
-        } catch (FileNotFoundException e) {
+            readAllRows = true;
+        } catch (IOException e) {
             System.out.println("Caught exception: " + e.getMessage());
+        } finally {
+            checkpointTracker.finish(readAllRows);
+        }
+    }
+
+    /* Opens the CSV at the checkpoint of the import job, or after the header row if the job has no rows committed
+       or there is no job. With a parsePool, the rest of the CSV is parsed in chunks on the pool by
+       ChunkedCsvReader, and otherwise by CsvRecordReader on the calling thread. */
+    static CsvRecordSource openCsv(Path csv, ImportJob importJob, ForkJoinPool parsePool) throws IOException {
+        if (parsePool == null) {
+            return openCsv(csv, importJob);
+        }
+        if (importJob != null && importJob.getByteOffset() > 0) {
+            return new ChunkedCsvReader(csv, importJob.getByteOffset(), importJob.getRowsCommitted() + 1, 1,
+                    parsePool);
+        }
+        try (CsvRecordReader headerReader = openCsv(csv, null)) {
+            return new ChunkedCsvReader(csv, headerReader.getByteOffset(), headerReader.getRecordNumber(),
+                    headerReader.getLineNumber(), parsePool);
+        }
+    }
+
+    /* Opens the CSV at the checkpoint of the import job, or after the header row if the job has no rows committed
+       or there is no job. The file is positioned at the byte offset of the checkpoint, so the rows before it
+       aren't read again. Malformed UTF-8 is reported, rather than replaced, so the byte offsets stay exact. */
+    static CsvRecordReader openCsv(Path csv, ImportJob importJob) throws IOException {
+        long byteOffset = importJob == null ? 0 : importJob.getByteOffset();
+        FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ);
+        try {
+            channel.position(byteOffset);
+            Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1);
+            if (byteOffset > 0) {
+                return new CsvRecordReader(reader, byteOffset, importJob.getRowsCommitted() + 1);
+            }
+            CsvRecordReader csvReader = new CsvRecordReader(reader);
+            //Skip Header
+            csvReader.readRecord();
+            return csvReader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /* Creates a card from the six fields of a card row. CsvRecordReader has already removed the enclosing
+       double quotes and replaced each pair of double quotes within the Front and Back fields with one
+       double quote. Double quotes are not allowed for the other fields. */
+    public static Flashcard toFlashcard(List<String> flashcardFields) {
+        /* First field for any card row should be an integer.
+        Confirm this for each card row before adding new card to database. */
+        try {
+            Integer.parseInt(flashcardFields.get(0));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unexpected CSV format. " +
+                    "CSV should have a a header row of any format and " +
+                    "data rows with six comma separated fields with each field enclosed in double quotes: " +
+                    "1. Integer representing row number, " +
+                    "2. Card Front String, " +
+                    "3. Card Back String, " +
+                    "4. Card Area String, " +
+                    "5. Card Category String, " +
+                    "6. Card Subcategory String");
+        }
+        if (flashcardFields.size() > EXPECTED_FIELD_COUNT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card has more fields than expected. Check field delimiters");
+        }
+        if (flashcardFields.size() < EXPECTED_FIELD_COUNT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card has fewer fields than expected. Check field delimiters");
         }
+        Flashcard flashcard = new Flashcard();
+        flashcard.setFront(flashcardFields.get(1));
+        flashcard.setBack(flashcardFields.get(2));
+        flashcard.setArea(flashcardFields.get(3));
+        flashcard.setCategory(flashcardFields.get(4));
+        flashcard.setSubcategory(flashcardFields.get(5));
+        return flashcard;
     }
 }
@@ -0,0 +1,200 @@
+package com.bealean.flashcards_api.utility;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.ImportJob;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* Sends the cards of an import CSV to the API from several sender threads, so the import isn't limited to
+   one round trip at a time. The calling thread reads the CSV and puts the cards in a bounded queue, so it
+   waits when the senders fall behind, and only a fixed number of cards are held in memory.
+   The senders share a pool of keep-alive connections, one for each sender.
+   When a response is slow, or the server fails or can't be reached, the senders pause before each card,
+   doubling the pause for each slow response up to MAX_BACKOFF_MILLIS, and halving it for each fast response,
+   so an overloaded server isn't sent more cards than it can handle.
+   As in the sequential import, a card that fails is reported and the import continues with the next card.
+   With an import job, the rows are read from the job's checkpoint, and checkpoints are saved as the rows are
+   committed. */
+public class ParallelImporter {
+    private static final String NEW_FLASHCARD_URL = "http://localhost:8080/new-flashcard";
+
+    /* Number of cards queued for each sender. */
+    static final int QUEUED_CARDS_PER_SENDER = 100;
+
+    static final long SLOW_RESPONSE_MILLIS = 1000;
+    static final long MIN_BACKOFF_MILLIS = 50;
+    static final long MAX_BACKOFF_MILLIS = 5000;
+
+    /* Progress is reported each time this many cards have been sent. */
+    private static final long PROGRESS_INTERVAL_CARDS = 10000;
+
+    /* Put in the queue once for each sender after the last card. */
+    private static final CardRow END_OF_CARDS = new CardRow(null, 0, 0, null);
+
+    private final int senders;
+    private final RestTemplate restTemplate;
+    private final long slowResponseMillis;
+
+    private final AtomicLong backoffMillis = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private long startNanos;
+    private ImportCheckpointTracker checkpointTracker;
+
+    public ParallelImporter(int senders) {
+        this(senders, createRestTemplate(senders), SLOW_RESPONSE_MILLIS);
+    }
+
+    ParallelImporter(int senders, RestTemplate restTemplate, long slowResponseMillis) {
+        this.senders = senders;
+        this.restTemplate = restTemplate;
+        this.slowResponseMillis = slowResponseMillis;
+    }
+
+    private static RestTemplate createRestTemplate(int senders) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(senders);
+        connectionManager.setDefaultMaxPerRoute(senders);
+        CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    public ImportSummary importFlashcards(Path csv) throws IOException, InterruptedException {
+        return importFlashcards(csv, null);
+    }
+
+    /* Sends every card of the CSV, or with an import job, every card after its checkpoint, then reports and
+       returns the totals. If the CSV isn't in the expected format, the cards already queued are sent before
+       the exception is thrown, as the sequential import stops at the row with the error. */
+    public ImportSummary importFlashcards(Path csv, ImportJob importJob) throws IOException, InterruptedException {
+        return importFlashcards(csv, importJob, null);
+    }
+
+    /* With a parsePool, the CSV is parsed in chunks on the pool, and the cards are queued in the order of the file. */
+    public ImportSummary importFlashcards(Path csv, ImportJob importJob, ForkJoinPool parsePool)
+            throws IOException, InterruptedException {
+        if (importJob != null) {
+            checkpointTracker = new ImportCheckpointTracker(new ImportJobClient(restTemplate), importJob,
+                    ImportCheckpointTracker.CHECKPOINT_INTERVAL_ROWS);
+        }
+        BlockingQueue<CardRow> queue = new ArrayBlockingQueue<>(senders * QUEUED_CARDS_PER_SENDER);
+        ExecutorService executor = Executors.newFixedThreadPool(senders);
+        startNanos = System.nanoTime();
+        for (int i = 0; i < senders; i++) {
+            executor.submit(() -> sendCards(queue));
+        }
+        boolean readAllRows = false;
+        try (CsvRecordSource csvReader = ImportUtility.openCsv(csv, importJob, parsePool)) {
+            long number = importJob == null ? 0 : importJob.getRowsCommitted();
+            List<String> flashcardFields;
+            while ((flashcardFields = csvReader.readRecord()) != null) {
+                queue.put(new CardRow(flashcardFields.get(0), ++number, csvReader.getByteOffset(),
+                        ImportUtility.toFlashcard(flashcardFields)));
+            }
+            readAllRows = true;
+        } finally {
+            for (int i = 0; i < senders; i++) {
+                queue.put(END_OF_CARDS);
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            if (checkpointTracker != null) {
+                checkpointTracker.finish(readAllRows);
+            }
+        }
+        ImportSummary summary = new ImportSummary(sentCount.get(), failedCount.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        System.out.println(summary);
+        return summary;
+    }
+
+    private void sendCards(BlockingQueue<CardRow> queue) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        try {
+            for (CardRow cardRow = queue.take(); cardRow != END_OF_CARDS; cardRow = queue.take()) {
+                long pause = backoffMillis.get();
+                if (pause > 0) {
+                    Thread.sleep(pause);
+                }
+                long sendStart = System.nanoTime();
+                boolean rejected = false;
+                boolean serverFailed = false;
+                try {
+                    restTemplate.postForObject(NEW_FLASHCARD_URL, new HttpEntity<>(cardRow.flashcard(), headers),
+                            Flashcard.class);
+                } catch (Exception e) {
+                    /* Rejected cards are reported without slowing down, since they don't mean the server is
+                       overloaded. */
+                    serverFailed = e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+                    rejected = !serverFailed;
+                    failedCount.incrementAndGet();
+                    System.out.println("Caught exception for row " + cardRow.row() + ": " + e.getMessage());
+                }
+                long responseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendStart);
+                updateBackoff(serverFailed || responseMillis > slowResponseMillis);
+                if (checkpointTracker != null) {
+                    if (serverFailed) {
+                        checkpointTracker.rowNotSent(cardRow.number());
+                    } else {
+                        checkpointTracker.rowCommitted(cardRow.number(), cardRow.endByteOffset(), rejected);
+                    }
+                }
+                reportProgress(sentCount.incrementAndGet());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void updateBackoff(boolean slow) {
+        backoffMillis.updateAndGet(pause -> slow ?
+                Math.min(Math.max(pause * 2, MIN_BACKOFF_MILLIS), MAX_BACKOFF_MILLIS) :
+                pause / 2);
+    }
+
+    private void reportProgress(long sent) {
+        if (sent % PROGRESS_INTERVAL_CARDS == 0) {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("Sent %d cards, %.1f cards per second, %d failed, %d ms pause between cards%n",
+                    sent, sent / seconds, failedCount.get(), backoffMillis.get());
+        }
+    }
+
+    /* row is the row field of the CSV, and number the position of the row among the card rows of the CSV,
+       starting at 1. endByteOffset is the position in the CSV just after the row. */
+    private record CardRow(String row, long number, long endByteOffset, Flashcard flashcard) {
+    }
+
+    /* Totals for an import. Cards that already exist are counted as sent, since the API returns the existing card. */
+    public record ImportSummary(long sent, long failed, long elapsedMillis) {
+        public double cardsPerSecond() {
+            return elapsedMillis == 0 ? sent : sent * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Sent %d cards in %.1f seconds, %.1f cards per second, %d failed.",
+                    sent, elapsedMillis / 1000.0, cardsPerSecond(), failed);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bealean.flashcards_api.utility;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public abstract class TransactionHooks {
+
+    /* In-memory structures that mirror database rows should only see rows that were committed.
+       If a Spring managed transaction is active, the action is deferred until the commit succeeds.
+       Otherwise, each statement has already been committed (or the caller is managing the connection
+       directly, as the DAO tests do), so the action runs immediately. */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /* Undo an in-memory change made while a transaction was active, if the transaction is rolled back.
+       Does nothing when there is no Spring managed transaction. */
+    public static void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
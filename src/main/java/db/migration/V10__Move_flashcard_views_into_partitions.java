@@ -0,0 +1,60 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/* Moves the views from the table V9 renamed into the partitioned flashcard_views, in chunks of CHUNK_SIZE rows
+   in ID order, committing after each chunk, so no transaction holds a large number of rows or locks.
+   New views are already written to the partitioned table while the rows are moved.
+   The migration runs outside of a transaction, so if it stops part of the way, the chunks that were moved stay
+   moved, and running it again moves the rest. The old table is dropped once it is empty. */
+public class V10__Move_flashcard_views_into_partitions extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 10000;
+
+    private static final String MOVE_CHUNK_SQL = "WITH chunk AS (SELECT id FROM flashcard_views_unpartitioned " +
+            "WHERE id > ? ORDER BY id LIMIT ?), " +
+            "moved AS (DELETE FROM flashcard_views_unpartitioned WHERE id IN (SELECT id FROM chunk) " +
+            "RETURNING id, flashcard_id, view_timestamp), " +
+            "inserted AS (INSERT INTO flashcard_views (id, flashcard_id, view_timestamp) " +
+            "SELECT id, flashcard_id, view_timestamp FROM moved RETURNING id) " +
+            "SELECT COUNT(*), MAX(id) FROM inserted";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            long lastId = Long.MIN_VALUE;
+            try (PreparedStatement moveChunk = connection.prepareStatement(MOVE_CHUNK_SQL)) {
+                while (true) {
+                    moveChunk.setLong(1, lastId);
+                    moveChunk.setInt(2, CHUNK_SIZE);
+                    try (ResultSet resultSet = moveChunk.executeQuery()) {
+                        resultSet.next();
+                        if (resultSet.getLong(1) == 0) {
+                            break;
+                        }
+                        lastId = resultSet.getLong(2);
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE flashcard_views_unpartitioned");
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Number of views of each card on each day (UTC), with the card's Area and Category, so reports count views
+-- from one row per card per day instead of scanning every view in flashcard_views.
+-- The API never changes a card's Area or Category, so they are copied from the card when the row is added.
+CREATE TABLE IF NOT EXISTS flashcard_view_daily (
+    view_day date NOT NULL,
+    flashcard_id bigint NOT NULL,
+    area_id bigint,
+    category_id bigint,
+    view_count bigint NOT NULL,
+    CONSTRAINT pk_flashcard_view_daily PRIMARY KEY (view_day, flashcard_id),
+    CONSTRAINT fk_flashcard_view_daily_flashcard FOREIGN KEY (flashcard_id) REFERENCES flashcards (id)
+);
+
+    CREATE INDEX IF NOT EXISTS ix_flashcard_view_daily_area_id_view_day ON flashcard_view_daily(area_id, view_day);
+
+-- Views are blocked until this migration commits, so no view is recorded by the old trigger function
+-- after the backfill reads flashcard_views.
+LOCK TABLE flashcard_last_view IN SHARE ROW EXCLUSIVE MODE;
+
+-- The statement level triggers on flashcard_last_view add the views of each statement to flashcard_views,
+-- and add them to the daily counts, with one row for each card and day, in the same transaction.
+CREATE OR REPLACE FUNCTION flashcard_last_view_trigger_function() RETURNS TRIGGER AS $flashcard_views$
+BEGIN
+INSERT INTO flashcard_views (flashcard_id, view_timestamp)
+  SELECT flashcard_id, view_timestamp FROM new_table;
+INSERT INTO flashcard_view_daily (view_day, flashcard_id, area_id, category_id, view_count)
+  SELECT (n.view_timestamp AT TIME ZONE 'UTC')::date, n.flashcard_id, f.area_id, f.category_id, COUNT(*)
+  FROM new_table n
+  JOIN flashcards f ON n.flashcard_id = f.id
+  GROUP BY 1, n.flashcard_id, f.area_id, f.category_id
+  ORDER BY 1, n.flashcard_id
+  ON CONFLICT (view_day, flashcard_id) DO UPDATE SET view_count = flashcard_view_daily.view_count + EXCLUDED.view_count;
+RETURN NULL;
+END;
+$flashcard_views$ LANGUAGE plpgsql;
+
+-- Counts the views recorded before the rollups.
+INSERT INTO flashcard_view_daily (view_day, flashcard_id, area_id, category_id, view_count)
+SELECT (v.view_timestamp AT TIME ZONE 'UTC')::date, v.flashcard_id, f.area_id, f.category_id, COUNT(*)
+FROM flashcard_views v
+JOIN flashcards f ON v.flashcard_id = f.id
+GROUP BY 1, v.flashcard_id, f.area_id, f.category_id
+ON CONFLICT (view_day, flashcard_id) DO UPDATE SET view_count = EXCLUDED.view_count;
@@ -0,0 +1,26 @@
+-- CSV imports run by ImportUtility, with the checkpoint a stopped import resumes from.
+-- rows_committed is the number of card rows, from the start of the CSV, that the API has accepted or rejected,
+-- and byte_offset is the position in the CSV just after the last of those rows.
+-- run_started_at and run_start_rows are set each time the import is started or resumed, so the rate of
+-- the current run doesn't include the time the import was stopped.
+CREATE SEQUENCE IF NOT EXISTS seq_import_jobs_id
+  INCREMENT BY 1
+  NO MAXVALUE
+  NO MINVALUE
+  CACHE 1;
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id bigint DEFAULT nextval('seq_import_jobs_id'::regclass) NOT NULL,
+    source_name varchar(1000) NOT NULL,
+    source_bytes bigint NOT NULL,
+    status varchar(20) NOT NULL,
+    rows_committed bigint NOT NULL DEFAULT 0,
+    rows_failed bigint NOT NULL DEFAULT 0,
+    byte_offset bigint NOT NULL DEFAULT 0,
+    created_at timestamptz NOT NULL DEFAULT now(),
+    run_started_at timestamptz NOT NULL DEFAULT now(),
+    run_start_rows bigint NOT NULL DEFAULT 0,
+    updated_at timestamptz NOT NULL DEFAULT now(),
+    CONSTRAINT pk_import_jobs PRIMARY KEY (id),
+    CONSTRAINT ck_import_jobs_byte_offset CHECK (byte_offset BETWEEN 0 AND source_bytes)
+);
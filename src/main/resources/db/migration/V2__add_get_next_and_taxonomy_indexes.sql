@@ -0,0 +1,22 @@
+-- Indexes for getNext and the taxonomy lookups.
+-- The indexes are built CONCURRENTLY, so writes to the tables aren't blocked while a live database is upgraded.
+-- CREATE INDEX CONCURRENTLY can't run in a transaction, so this migration only contains concurrent index statements
+-- and Flyway runs it without a transaction. If a concurrent build fails it leaves an invalid index,
+-- which has to be dropped before the migration is repaired and run again, because IF NOT EXISTS would skip it.
+
+-- getNext filters flashcards on area_id, area_id and category_id, or all three IDs.
+-- The leading area_id column also covers the area foreign key, which had no index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_flashcards_area_category_subcategory
+    ON flashcards (area_id, category_id, subcategory_id);
+
+-- Least recently viewed cards can be read in order from the index, without visiting the table.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_flashcard_last_view_view_timestamp_flashcard
+    ON flashcard_last_view (view_timestamp, flashcard_id);
+
+-- Subcategories for a Category are looked up by category_id without area_id,
+-- which can't use the unique (area_id, category_id, subcategory_id) index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_area_category_subcategory_category_subcategory
+    ON area_category_subcategory (category_id, subcategory_id);
+
+-- Duplicates the index of the unique constraint on flashcard_id, and every view had to update both.
+DROP INDEX CONCURRENTLY IF EXISTS ix_fk_flashcard_last_view_flashcard;
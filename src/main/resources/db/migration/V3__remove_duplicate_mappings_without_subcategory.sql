@@ -0,0 +1,10 @@
+-- The unique constraint on (area_id, category_id, subcategory_id) treats NULL Subcategories as distinct,
+-- so duplicate mappings without a Subcategory could be added. Remove them before V4 adds a partial unique index.
+-- area_category_subcategory has no id column, so the first physical row of each duplicate set is kept.
+DELETE FROM area_category_subcategory duplicate
+USING area_category_subcategory kept
+WHERE duplicate.subcategory_id IS NULL
+  AND kept.subcategory_id IS NULL
+  AND duplicate.area_id = kept.area_id
+  AND duplicate.category_id = kept.category_id
+  AND duplicate.ctid > kept.ctid;
@@ -0,0 +1,8 @@
+-- Deduplicates mappings without a Subcategory, which the unique constraint doesn't, because NULLs are distinct.
+-- INSERT ... ON CONFLICT DO NOTHING in addMapping uses this index and the unique constraint.
+-- Built CONCURRENTLY so writes aren't blocked, which requires a separate migration from the V3 delete.
+-- If a duplicate is added between V3 and V4, the build fails and leaves an invalid index, which has to be dropped
+-- before V3's delete is repeated and the migration is repaired and run again.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_area_category_subcategory_area_category_no_subcategory
+    ON area_category_subcategory (area_id, category_id)
+    WHERE subcategory_id IS NULL;
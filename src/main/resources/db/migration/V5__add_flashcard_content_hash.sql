@@ -0,0 +1,30 @@
+-- Fixed width hash of the details that identify a card, so duplicate checks and conflict handling use one
+-- 32 byte key, instead of the unique constraint on (front, back, area_id, category_id, subcategory_id).
+-- That constraint's index includes both varchar(1000) columns, and it doesn't catch duplicates with a NULL ID,
+-- because NULLs are distinct.
+-- The lengths of front and back are included, so the fields can't run together, and NULL IDs hash as
+-- empty strings, which no ID can be. convert_to is only STABLE because of encoding lookups, but it always
+-- converts to UTF8 here, so the function is declared IMMUTABLE.
+CREATE OR REPLACE FUNCTION flashcard_content_hash(front varchar, back varchar, area_id bigint, category_id bigint,
+                                                  subcategory_id bigint) RETURNS bytea AS $$
+SELECT sha256(convert_to(length(front)::text || ':' || front || length(back)::text || ':' || back || ':' ||
+                         COALESCE(area_id::text, '') || ':' || COALESCE(category_id::text, '') || ':' ||
+                         COALESCE(subcategory_id::text, ''), 'UTF8'));
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+-- A column without a default is added without rewriting the table.
+-- The trigger sets the hash on new and changed cards, and V6 sets it on the existing cards.
+ALTER TABLE flashcards ADD COLUMN IF NOT EXISTS content_hash bytea;
+
+CREATE OR REPLACE FUNCTION flashcards_content_hash_trigger_function() RETURNS TRIGGER AS $flashcards_content_hash$
+BEGIN
+NEW.content_hash := flashcard_content_hash(NEW.front, NEW.back, NEW.area_id, NEW.category_id, NEW.subcategory_id);
+RETURN NEW;
+END;
+$flashcards_content_hash$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS flashcards_content_hash ON flashcards;
+CREATE TRIGGER flashcards_content_hash
+BEFORE INSERT OR UPDATE OF front, back, area_id, category_id, subcategory_id ON flashcards
+FOR EACH ROW
+EXECUTE FUNCTION flashcards_content_hash_trigger_function();
@@ -0,0 +1,38 @@
+-- Sets the content hash of the cards added before V5, and merges cards with the same details, which could be
+-- added more than once when an ID was NULL, so V7 can build a unique index on the hash.
+UPDATE flashcards
+SET content_hash = flashcard_content_hash(front, back, area_id, category_id, subcategory_id)
+WHERE content_hash IS NULL;
+
+-- The first card added with each set of details is kept.
+CREATE TEMPORARY TABLE duplicate_flashcards ON COMMIT DROP AS
+SELECT id, kept_id
+FROM (SELECT id, min(id) OVER (PARTITION BY content_hash) AS kept_id FROM flashcards) f
+WHERE id <> kept_id;
+
+UPDATE flashcard_views v
+SET flashcard_id = d.kept_id
+FROM duplicate_flashcards d
+WHERE v.flashcard_id = d.id;
+
+-- The kept card's last view is the latest view of any of the merged cards.
+CREATE TEMPORARY TABLE merged_last_views ON COMMIT DROP AS
+SELECT d.kept_id AS flashcard_id, max(lv.view_timestamp) AS view_timestamp
+FROM flashcard_last_view lv
+JOIN duplicate_flashcards d ON lv.flashcard_id = d.id
+GROUP BY d.kept_id;
+
+DELETE FROM flashcard_last_view
+WHERE flashcard_id IN (SELECT id FROM duplicate_flashcards);
+
+-- The views were already moved to the kept cards, so the triggers that copy
+-- last views to flashcard_views are disabled while the last views are merged.
+ALTER TABLE flashcard_last_view DISABLE TRIGGER USER;
+INSERT INTO flashcard_last_view (flashcard_id, view_timestamp)
+SELECT flashcard_id, view_timestamp FROM merged_last_views
+ON CONFLICT (flashcard_id) DO UPDATE SET view_timestamp = GREATEST(flashcard_last_view.view_timestamp,
+                                                                   EXCLUDED.view_timestamp);
+ALTER TABLE flashcard_last_view ENABLE TRIGGER USER;
+
+DELETE FROM flashcards
+WHERE id IN (SELECT id FROM duplicate_flashcards);
@@ -0,0 +1,5 @@
+-- Unique index on the content hash, built CONCURRENTLY so writes aren't blocked, which requires
+-- a separate migration from the V6 backfill. If a duplicate card is added between V6 and V7,
+-- the build fails and leaves an invalid index, which has to be dropped before V6's merge is repeated
+-- and the migration is repaired and run again.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_flashcards_content_hash ON flashcards (content_hash);
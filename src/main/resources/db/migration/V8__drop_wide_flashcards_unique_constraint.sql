@@ -0,0 +1,3 @@
+-- The unique index on the content hash replaces the unique constraint on
+-- (front, back, area_id, category_id, subcategory_id), so every insert only maintains the narrow index.
+ALTER TABLE flashcards DROP CONSTRAINT IF EXISTS uc_flashcards_front_back_area_id__category_id_subcategory_id;
@@ -0,0 +1,50 @@
+-- Replaces flashcard_views with a table partitioned by month on view_timestamp, so old views can be removed
+-- by detaching or dropping a whole partition, and each partition's indexes stay the size of one month.
+-- The existing table is renamed and its rows are moved into the partitions in chunks by V10, so this migration
+-- only holds its lock for the rename. The flashcard_last_view triggers insert into flashcard_views by name,
+-- so new views go to the partitioned table as soon as this migration commits.
+ALTER TABLE flashcard_views RENAME TO flashcard_views_unpartitioned;
+ALTER TABLE flashcard_views_unpartitioned RENAME CONSTRAINT pk_flashcard_views TO pk_flashcard_views_unpartitioned;
+ALTER TABLE flashcard_views_unpartitioned RENAME CONSTRAINT fk_flashcard_views_flashcard
+    TO fk_flashcard_views_unpartitioned_flashcard;
+ALTER INDEX ix_fk_flashcard_views_flashcard RENAME TO ix_fk_flashcard_views_unpartitioned_flashcard;
+ALTER INDEX ix_flashcard_views_view_timestamp RENAME TO ix_flashcard_views_unpartitioned_view_timestamp;
+
+-- The primary key of a partitioned table must include the partition key.
+-- The id sequence is shared with the old table, so moved rows keep their IDs.
+CREATE TABLE flashcard_views (
+    id bigint DEFAULT nextval('seq_flashcard_views_id'::regclass) NOT NULL,
+    flashcard_id bigint NOT NULL,
+    view_timestamp timestamp with time zone NOT NULL,
+    CONSTRAINT pk_flashcard_views PRIMARY KEY (id, view_timestamp),
+    CONSTRAINT fk_flashcard_views_flashcard FOREIGN KEY (flashcard_id) REFERENCES flashcards (id)
+) PARTITION BY RANGE (view_timestamp);
+
+    CREATE INDEX ix_fk_flashcard_views_flashcard ON flashcard_views(flashcard_id);
+    CREATE INDEX ix_flashcard_views_view_timestamp ON flashcard_views(view_timestamp);
+
+-- Catches views outside of the monthly partitions, so a view is never rejected if the partition for its month
+-- hasn't been created. The application creates partitions ahead of time, so this should stay empty.
+CREATE TABLE flashcard_views_default PARTITION OF flashcard_views DEFAULT;
+
+-- Creates the partition for the month that contains month_start, named flashcard_views_YYYY_MM,
+-- if it doesn't exist, and returns its name. Months start at midnight UTC.
+CREATE OR REPLACE FUNCTION create_flashcard_views_partition(month_start date) RETURNS text AS $$
+DECLARE
+    first_day date := date_trunc('month', month_start)::date;
+    partition_name text := 'flashcard_views_' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF flashcard_views FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day::timestamp AT TIME ZONE 'UTC',
+                   (first_day + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month of the existing views, and the next three months.
+SELECT create_flashcard_views_partition(month_start::date)
+FROM generate_series(
+        date_trunc('month', COALESCE((SELECT min(view_timestamp) FROM flashcard_views_unpartitioned), now())
+                            AT TIME ZONE 'UTC'),
+        date_trunc('month', now() AT TIME ZONE 'UTC') + interval '3 months',
+        interval '1 month') AS month_start;
@@ -0,0 +1,97 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardDAO;
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(FlashcardController.class)
+class FlashcardControllerBatchTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlashcardDAO flashcardDAO;
+
+    @Test
+    public void addFlashcards_jsonArrayWithInvalidCard_rejectsInvalidCardAndAddsOthers() throws Exception {
+        Mockito.when(flashcardDAO.addFlashcards(any())).thenReturn(List.of(
+                new FlashcardBatchResult(0, FlashcardBatchResult.Status.CREATED, 10L, null),
+                new FlashcardBatchResult(1, FlashcardBatchResult.Status.EXISTING, 5L, null)));
+        String body = "[{\"front\":\"Front 1\",\"back\":\"Back\"}," +
+                "{\"front\":\"\",\"back\":\"Back\"}," +
+                "{\"front\":\"Front 3\",\"back\":\"Back\"}]";
+
+        MvcResult mvcResult = mockMvc.perform(post("/flashcards/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "addFlashcards returns OK status for a batch with a rejected card")).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(List.of(0, 1, 2), response.read("$[*].index"),
+                "addFlashcards returns a result for each card with its index in the request");
+        assertEquals(List.of("CREATED", "REJECTED", "EXISTING"), response.read("$[*].status"),
+                "addFlashcards returns the results of the DAO for the valid cards at their indexes");
+        assertEquals("Front must not be blank.", response.read("$[1].reason"),
+                "addFlashcards rejects a card that fails validation with the validation message");
+        ArgumentCaptor<List<Flashcard>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(flashcardDAO).addFlashcards(captor.capture());
+        assertEquals(2, captor.getValue().size(), "addFlashcards only passes the valid cards to the DAO");
+    }
+
+    @Test
+    public void addFlashcardsFromNdjson_malformedLine_rejectsLineAndAddsOthers() throws Exception {
+        Mockito.when(flashcardDAO.addFlashcards(any())).thenReturn(List.of(
+                new FlashcardBatchResult(0, FlashcardBatchResult.Status.CREATED, 10L, null),
+                new FlashcardBatchResult(1, FlashcardBatchResult.Status.CREATED, 11L, null)));
+        String body = "{\"front\":\"Front 1\",\"back\":\"Back\"}\n" +
+                "{\"front\":\"Front 2\"\n" +
+                "\n" +
+                "{\"front\":\"Front 3\",\"back\":\"Back\"}\n";
+
+        MvcResult mvcResult = mockMvc.perform(post("/flashcards/batch")
+                .contentType("application/x-ndjson").content(body))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "addFlashcardsFromNdjson returns OK status for a stream with a malformed line")).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(List.of("CREATED", "REJECTED", "CREATED"), response.read("$[*].status"),
+                "addFlashcardsFromNdjson rejects a malformed line, skips blank lines, and adds the other cards");
+        assertEquals(List.of(10, 11), response.read("$[?(@.status == 'CREATED')].id"),
+                "addFlashcardsFromNdjson returns the IDs of the added cards");
+    }
+
+    @Test
+    public void addFlashcards_daoFailure_rejectsEveryValidCardWithReason() throws Exception {
+        Mockito.when(flashcardDAO.addFlashcards(any())).thenThrow(new ResponseStatusException(
+                HttpStatus.UNPROCESSABLE_ENTITY, "Flashcards and dependencies not added. Test failure."));
+        String body = "[{\"front\":\"Front 1\",\"back\":\"Back\"},{\"front\":\"Front 2\",\"back\":\"Back\"}]";
+
+        MvcResult mvcResult = mockMvc.perform(post("/flashcards/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(List.of("REJECTED", "REJECTED"), response.read("$[*].status"),
+                "addFlashcards rejects each card of a chunk that failed to be added");
+        assertEquals("Flashcards and dependencies not added. Test failure.", response.read("$[0].reason"),
+                "addFlashcards returns the reason the chunk failed to be added");
+    }
+}
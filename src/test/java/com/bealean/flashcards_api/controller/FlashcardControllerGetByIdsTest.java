@@ -0,0 +1,66 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardDAO;
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardLookupResult;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(FlashcardController.class)
+class FlashcardControllerGetByIdsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlashcardDAO flashcardDAO;
+
+    @Test
+    public void getFlashcardsByIds_commaSeparatedIds_returnsDaoResultsInOrder() throws Exception {
+        Flashcard flashcard = new Flashcard();
+        flashcard.setId(3L);
+        flashcard.setFront("Front");
+        flashcard.setBack("Back");
+        Mockito.when(flashcardDAO.getCardsByIds(List.of(3L, 4L))).thenReturn(List.of(
+                FlashcardLookupResult.found(flashcard), FlashcardLookupResult.notFound(4L)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/flashcards").param("ids", "3,4"))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "getFlashcardsByIds returns OK status when some IDs are not found")).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(List.of("FOUND", "NOT_FOUND"), response.read("$[*].status"),
+                "getFlashcardsByIds returns a result for each ID in request order");
+        assertEquals("Front", response.read("$[0].flashcard.front"),
+                "getFlashcardsByIds returns the card for a found ID");
+        assertEquals(4, (Integer) response.read("$[1].id"),
+                "getFlashcardsByIds returns the ID of a card that wasn't found");
+    }
+
+    @Test
+    public void lookUpFlashcardsByIds_jsonArray_passesIdsToDao() throws Exception {
+        Mockito.when(flashcardDAO.getCardsByIds(List.of(5L, 6L))).thenReturn(List.of(
+                FlashcardLookupResult.notFound(5L), FlashcardLookupResult.notFound(6L)));
+
+        MvcResult mvcResult = mockMvc.perform(post("/flashcards/lookup")
+                .contentType(MediaType.APPLICATION_JSON).content("[5,6]")).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(List.of(5, 6), response.read("$[*].id"),
+                "lookUpFlashcardsByIds returns the results of the DAO for the IDs in the body");
+    }
+}
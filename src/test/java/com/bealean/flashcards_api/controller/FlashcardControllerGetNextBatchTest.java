@@ -0,0 +1,87 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardDAO;
+import com.bealean.flashcards_api.model.Flashcard;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(FlashcardController.class)
+class FlashcardControllerGetNextBatchTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlashcardDAO flashcardDAO;
+
+    private static final String TEST_AREA = "JUnit Test Area";
+    private static final String TEST_CATEGORY = "JUnit Test Category";
+    private static final String TEST_SUBCATEGORY = "JUnit Test Subcategory";
+
+    @Test
+    public void getNextCards_allParameters_returnsOkAndCardsFromGetNextBatch() throws Exception {
+        Flashcard flashcard1 = new Flashcard();
+        flashcard1.setFront("Test Batch Card 1");
+        Flashcard flashcard2 = new Flashcard();
+        flashcard2.setFront("Test Batch Card 2");
+        Mockito.when(flashcardDAO.getNextBatch(TEST_AREA, TEST_CATEGORY, TEST_SUBCATEGORY, 2))
+                .thenReturn(List.of(flashcard1, flashcard2));
+
+        MvcResult mvcResult = mockMvc.perform(get("/get-next-cards")
+                .param("n", "2")
+                .param("area", TEST_AREA)
+                .param("category", TEST_CATEGORY)
+                .param("subcategory", TEST_SUBCATEGORY))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "getNextCards returns OK status for request with all parameters")).andReturn();
+
+        List<String> actualCardFronts = JsonPath.parse(mvcResult.getResponse().getContentAsString()).read("$[*].front");
+        assertEquals(List.of("Test Batch Card 1", "Test Batch Card 2"), actualCardFronts,
+                "getNextCards calls getNextBatch with the request parameters and returns the cards in order");
+    }
+
+    @Test
+    public void getNextCards_onlyN_returnsOkCallsGetNextBatchWithNullParameters() throws Exception {
+        Flashcard flashcard = new Flashcard();
+        flashcard.setFront("Test Only N");
+        Mockito.when(flashcardDAO.getNextBatch(null, null, null, 5)).thenReturn(List.of(flashcard));
+
+        MvcResult mvcResult = mockMvc.perform(get("/get-next-cards").param("n", "5"))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "getNextCards does not require Area, Category, or Subcategory parameters")).andReturn();
+
+        List<String> actualCardFronts = JsonPath.parse(mvcResult.getResponse().getContentAsString()).read("$[*].front");
+        assertEquals(List.of("Test Only N"), actualCardFronts,
+                "getNextCards for request with only n does not set default values " +
+                        "and calls getNextBatch with null parameters");
+    }
+
+    @Test
+    public void getNextCards_noN_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/get-next-cards").param("area", TEST_AREA))
+                .andExpect(result -> assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus(),
+                        "getNextCards returns BAD_REQUEST status for request without n parameter"));
+        Mockito.verify(flashcardDAO, Mockito.never()).getNextBatch(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void getNextCards_nonNumericN_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/get-next-cards").param("n", "ten"))
+                .andExpect(result -> assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus(),
+                        "getNextCards returns BAD_REQUEST status for request with non-numeric n parameter"));
+        Mockito.verify(flashcardDAO, Mockito.never()).getNextBatch(any(), any(), any(), anyInt());
+    }
+}
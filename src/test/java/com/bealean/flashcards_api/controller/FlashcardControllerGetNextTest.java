@@ -17,7 +17,7 @@ import java.io.UnsupportedEncodingException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
-@WebMvcTest
+@WebMvcTest(FlashcardController.class)
 class FlashcardControllerGetNextTest {
     @Autowired
     private MockMvc mockMvc;
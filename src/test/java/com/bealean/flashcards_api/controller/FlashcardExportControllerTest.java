@@ -0,0 +1,96 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardExportDAO;
+import com.bealean.flashcards_api.dao.FlashcardExportFilter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(FlashcardExportController.class)
+class FlashcardExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlashcardExportDAO flashcardExportDAO;
+
+    @Test
+    public void exportFlashcards_area_streamsCsvWrittenByDao() throws Exception {
+        String csv = "\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n\"1\",\"F\",\"B\",\"A\",\"\",\"\"\n";
+        FlashcardExportFilter filter = new FlashcardExportFilter(3L, null, null);
+        Mockito.when(flashcardExportDAO.getExportFilter("A", null, null)).thenReturn(filter);
+        Mockito.when(flashcardExportDAO.exportFlashcards(ArgumentMatchers.eq(filter), ArgumentMatchers.any(Writer.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(1, Writer.class).write(csv);
+                    return 1L;
+                });
+
+        MvcResult asyncResult = mockMvc.perform(get("/flashcards/export").param("area", "A")).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus(),
+                "exportFlashcards returns OK status for an existing Area");
+        assertEquals("text/csv;charset=UTF-8", mvcResult.getResponse().getContentType(),
+                "exportFlashcards returns a UTF-8 CSV");
+        assertEquals(csv, mvcResult.getResponse().getContentAsString(),
+                "exportFlashcards streams the cards written by the DAO");
+    }
+
+    @Test
+    public void exportFlashcards_acceptsGzip_streamsCompressedCsv() throws Exception {
+        String csv = "\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n";
+        FlashcardExportFilter filter = new FlashcardExportFilter(null, null, null);
+        Mockito.when(flashcardExportDAO.getExportFilter(null, null, null)).thenReturn(filter);
+        Mockito.when(flashcardExportDAO.exportFlashcards(ArgumentMatchers.eq(filter), ArgumentMatchers.any(Writer.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(1, Writer.class).write(csv);
+                    return 0L;
+                });
+
+        MvcResult asyncResult = mockMvc.perform(get("/flashcards/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8")).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        assertEquals("gzip", mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING),
+                "exportFlashcards compresses the response when the request accepts gzip");
+        assertTrue(mvcResult.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING),
+                "exportFlashcards sends Vary: Accept-Encoding, since the encoding depends on the request");
+        assertEquals("attachment; filename=\"flashcards.csv\"",
+                mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION),
+                "exportFlashcards sends the CSV as an attachment");
+        byte[] content = new GZIPInputStream(new ByteArrayInputStream(
+                mvcResult.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(csv, new String(content, StandardCharsets.UTF_8),
+                "exportFlashcards streams the cards written by the DAO");
+    }
+
+    @Test
+    public void exportFlashcards_missingArea_returnsNotFoundBeforeStreaming() throws Exception {
+        Mockito.when(flashcardExportDAO.getExportFilter("Missing", null, null))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Area not found."));
+
+        mockMvc.perform(get("/flashcards/export").param("area", "Missing"))
+                .andExpect(result -> assertEquals(HttpStatus.NOT_FOUND.value(), result.getResponse().getStatus(),
+                        "exportFlashcards returns NOT_FOUND status for an Area that doesn't exist"));
+        Mockito.verify(flashcardExportDAO, Mockito.never()).exportFlashcards(ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+    }
+}
@@ -0,0 +1,70 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.FlashcardImportDAO;
+import com.bealean.flashcards_api.model.FlashcardImportResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(FlashcardImportController.class)
+class FlashcardImportControllerTest {
+    private static final String CSV = "\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n" +
+            "\"1\",\"Café\",\"Back\",\"\",\"\",\"\"\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlashcardImportDAO flashcardImportDAO;
+
+    @Test
+    public void importFlashcards_csvBody_readsBodyAsUtf8() throws Exception {
+        AtomicReference<String> csv = captureCsv();
+
+        mockMvc.perform(post("/flashcards/import").contentType("text/csv")
+                        .content(CSV.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "importFlashcards returns OK status for a CSV body"));
+
+        assertEquals(CSV, csv.get(), "importFlashcards passes the body to the DAO as UTF-8 text");
+    }
+
+    @Test
+    public void importFlashcardsFromFile_multipartFile_readsFilePart() throws Exception {
+        AtomicReference<String> csv = captureCsv();
+
+        mockMvc.perform(multipart("/flashcards/import")
+                        .file(new MockMultipartFile("file", "cards.csv", "text/csv",
+                                CSV.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "importFlashcardsFromFile returns OK status for a multipart upload"));
+
+        assertEquals(CSV, csv.get(), "importFlashcardsFromFile passes the file part to the DAO");
+    }
+
+    /* The Reader is read when the DAO is called, since the request body can only be read during the request. */
+    private AtomicReference<String> captureCsv() {
+        AtomicReference<String> csv = new AtomicReference<>();
+        Mockito.when(flashcardImportDAO.importFlashcards(Mockito.any(Reader.class))).thenAnswer(invocation -> {
+            StringWriter text = new StringWriter();
+            invocation.getArgument(0, Reader.class).transferTo(text);
+            csv.set(text.toString());
+            return new FlashcardImportResult();
+        });
+        return csv;
+    }
+}
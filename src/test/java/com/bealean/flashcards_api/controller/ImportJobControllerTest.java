@@ -0,0 +1,57 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.ImportJobDAO;
+import com.bealean.flashcards_api.model.ImportJob;
+import com.bealean.flashcards_api.model.ImportJobStatus;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(ImportJobController.class)
+class ImportJobControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportJobDAO importJobDAO;
+
+    @Test
+    public void getImportJobs_runningJob_returnsProgressAndRowsPerSecond() throws Exception {
+        ImportJob importJob = new ImportJob();
+        importJob.setId(1L);
+        importJob.setSourceName("/tmp/cards.csv");
+        importJob.setStatus(ImportJobStatus.RUNNING);
+        importJob.setSourceBytes(2000);
+        importJob.setByteOffset(500);
+        importJob.setRunStartRows(100);
+        importJob.setRowsCommitted(400);
+        OffsetDateTime runStartedAt = OffsetDateTime.parse("2026-01-01T10:00:00Z");
+        importJob.setRunStartedAt(runStartedAt);
+        importJob.setUpdatedAt(runStartedAt.plusSeconds(10));
+        Mockito.when(importJobDAO.getImportJobs()).thenReturn(List.of(importJob));
+
+        MvcResult mvcResult = mockMvc.perform(get("/import-jobs"))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "getImportJobs returns OK status")).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(25.0, (Double) response.read("$[0].progress"),
+                "getImportJobs returns the percentage of the CSV read");
+        assertEquals(30.0, (Double) response.read("$[0].rowsPerSecond"),
+                "getImportJobs returns the rows committed per second in the current run");
+        assertEquals("RUNNING", response.read("$[0].status"), "getImportJobs returns the status of each job");
+    }
+}
@@ -0,0 +1,55 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.ViewReportDAO;
+import com.bealean.flashcards_api.model.DailyViewCount;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(ReportController.class)
+class ReportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ViewReportDAO viewReportDAO;
+
+    @Test
+    public void getViewsPerDay_isoDates_returnsDaysAsIsoDates() throws Exception {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 2);
+        Mockito.when(viewReportDAO.getViewsPerDay(from, to)).thenReturn(List.of(
+                new DailyViewCount(from, 3), new DailyViewCount(to, 5)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/reports/views/daily")
+                        .param("from", "2026-01-01").param("to", "2026-01-02"))
+                .andExpect(result -> assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus(),
+                        "getViewsPerDay returns OK status for a valid range")).andReturn();
+
+        DocumentContext response = JsonPath.parse(mvcResult.getResponse().getContentAsString());
+        assertEquals(List.of("2026-01-01", "2026-01-02"), response.read("$[*].day"),
+                "getViewsPerDay returns each day as an ISO date");
+        assertEquals(List.of(3, 5), response.read("$[*].viewCount"),
+                "getViewsPerDay returns the number of views on each day");
+    }
+
+    @Test
+    public void getViewsPerDay_invalidDate_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/reports/views/daily").param("from", "01/01/2026"))
+                .andExpect(result -> assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus(),
+                        "getViewsPerDay returns BAD_REQUEST status for a date that isn't an ISO date"));
+    }
+}
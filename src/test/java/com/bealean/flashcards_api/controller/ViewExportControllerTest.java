@@ -0,0 +1,93 @@
+package com.bealean.flashcards_api.controller;
+
+import com.bealean.flashcards_api.dao.ViewExportDAO;
+import com.bealean.flashcards_api.model.ViewExportFormat;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(ViewExportController.class)
+class ViewExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ViewExportDAO viewExportDAO;
+
+    @Test
+    public void exportViews_acceptsGzip_streamsCompressedViewsAfterId() throws Exception {
+        String line = "{\"id\":8,\"flashcardId\":1,\"viewTimestamp\":\"2026-01-01T10:00:00Z\"}\n";
+        Mockito.when(viewExportDAO.exportViews(ArgumentMatchers.eq(OffsetDateTime.parse("2026-01-01T00:00:00Z")),
+                        ArgumentMatchers.isNull(), ArgumentMatchers.eq(7L), ArgumentMatchers.eq(ViewExportFormat.NDJSON),
+                        ArgumentMatchers.any(Writer.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(4, Writer.class).write(line);
+                    return 1L;
+                });
+
+        MvcResult asyncResult = mockMvc.perform(get("/views/export")
+                .param("since", "2026-01-01T00:00:00Z").param("afterId", "7")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), mvcResult.getResponse().getStatus(),
+                "exportViews returns OK status for a valid request");
+        assertEquals("gzip", mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING),
+                "exportViews compresses the response when the request accepts gzip");
+        assertTrue(mvcResult.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING),
+                "exportViews sends Vary: Accept-Encoding, since the encoding depends on the request");
+        byte[] content = new GZIPInputStream(new ByteArrayInputStream(
+                mvcResult.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(line, new String(content, StandardCharsets.UTF_8),
+                "exportViews streams the views written by the DAO");
+    }
+
+    @Test
+    public void exportViews_gzipWeightedZero_streamsUncompressedViews() throws Exception {
+        String line = "{\"id\":8,\"flashcardId\":1,\"viewTimestamp\":\"2026-01-01T10:00:00Z\"}\n";
+        Mockito.when(viewExportDAO.exportViews(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.isNull(), ArgumentMatchers.eq(ViewExportFormat.NDJSON),
+                        ArgumentMatchers.any(Writer.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(4, Writer.class).write(line);
+                    return 1L;
+                });
+
+        MvcResult asyncResult = mockMvc.perform(get("/views/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity")).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        assertNull(mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING),
+                "exportViews doesn't compress the response when the request gives gzip a weight of 0");
+        assertEquals(line, mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8),
+                "exportViews streams the views uncompressed when the request gives gzip a weight of 0");
+    }
+
+    @Test
+    public void exportViews_sinceNotBeforeUntil_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/views/export")
+                        .param("since", "2026-01-02T00:00:00Z").param("until", "2026-01-01T00:00:00Z"))
+                .andExpect(result -> assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus(),
+                        "exportViews returns BAD_REQUEST status if since isn't before until"));
+        Mockito.verifyNoInteractions(viewExportDAO);
+    }
+}
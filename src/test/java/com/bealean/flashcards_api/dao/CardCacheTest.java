@@ -0,0 +1,78 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCacheTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardDAO flashcardDAO;
+    private static CardCache cardCache;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        cardCache = new CardCache();
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource));
+        flashcardDAO.cardCache = cardCache;
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getCardById_cachedCardViewed_returnsCachedBodyWithNewLastView() {
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        addFlashcard(flashcard);
+        assertNull(flashcardDAO.getCardById(flashcard.getId()).getLastViewed(), "Test setup issue: card was viewed");
+        jdbcTemplate.update("UPDATE flashcards SET back = 'JUnit Changed Back' WHERE id = ?", flashcard.getId());
+        jdbcTemplate.update("INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "VALUES (?, clock_timestamp())", flashcard.getId());
+        Timestamp expectedLastViewed = jdbcTemplate.queryForObject(
+                "SELECT view_timestamp FROM flashcard_last_view WHERE flashcard_id = ?", Timestamp.class, flashcard.getId());
+
+        Flashcard actualFlashcard = flashcardDAO.getCardById(flashcard.getId());
+        assertEquals(flashcard.getBack(), actualFlashcard.getBack(),
+                "getCardById returns the cached body of a card that was already read");
+        assertEquals(expectedLastViewed, actualFlashcard.getLastViewed(),
+                "getCardById returns the current last view of a cached card");
+        assertEquals(1, cardCache.stats().hitCount(), "Repeated getCardById is counted as a cache hit");
+        assertEquals(1, cardCache.stats().missCount(), "First getCardById is counted as a cache miss");
+    }
+
+    @Test
+    void getCardById_cachedCard_returnsNewCardEachTime() {
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        addFlashcard(flashcard);
+        flashcardDAO.getCardById(flashcard.getId()).setFront("JUnit Changed Front");
+
+        assertEquals(flashcard.getFront(), flashcardDAO.getCardById(flashcard.getId()).getFront(),
+                "Changing a card returned by getCardById doesn't change the cached body");
+    }
+
+    @Test
+    void put_transactionRolledBack_isNotCached() {
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        flashcard.setId(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        cardCache.put(flashcard);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertNull(cardCache.get(1L), "A card read in a transaction that rolled back is not cached");
+    }
+}
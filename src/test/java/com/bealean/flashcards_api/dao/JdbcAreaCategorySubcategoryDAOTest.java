@@ -135,6 +135,18 @@ class JdbcAreaCategorySubcategoryDAOTest extends JdbcDAOTest {
                 "addMapping throws exception with expected status and message if provided Subcategory Id does not exist");
     }
 
+    @Test
+    void addMapping_existingAreaAndCategoryNonexistentSubcategory_throwsException() {
+        Long areaId = addArea("JUnit Area");
+        Long categoryId = addCategory("JUnit Category");
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> areaCategorySubcategoryDAO.addMapping(areaId, categoryId, -1L),
+                "addMapping throws ResponseStatusException if the Subcategory Id for a new mapping does not exist.");
+        String expectedMessage = "404 NOT_FOUND \"Subcategory not found. Unable to add mapping for missing Subcategory.\"";
+        assertEquals(expectedMessage, exception.getMessage(), "addMapping throws exception with expected status " +
+                "and message if the Subcategory Id for a new mapping does not exist");
+    }
+
     @Test
     void addMapping_iDCheckFailure_throwsException() {
         destroyDataSourceAndSetDBConfigFlagFalse();
@@ -28,6 +28,7 @@ public abstract class JdbcDAOTest {
     protected static boolean isDatabaseConfigured = false;
     protected static SingleConnectionDataSource dataSource;
     protected static JdbcTemplate jdbcTemplate;
+    private static int uniqueCardCount = 0;
 
     @BeforeEach
     void configureDatabase() {
@@ -125,4 +126,12 @@ public abstract class JdbcDAOTest {
         return flashcard;
     }
 
+    /* Cards with the same details are duplicates, even without an Area, Category, or Subcategory,
+       so tests that need several cards give each one a different Front. */
+    Flashcard getUniqueCardWithRequiredFields() {
+        Flashcard flashcard = getCardWithRequiredFields();
+        flashcard.setFront("test " + ++uniqueCardCount);
+        return flashcard;
+    }
+
 }
@@ -3,6 +3,7 @@ package com.bealean.flashcards_api.dao;
 import com.bealean.flashcards_api.model.Flashcard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.web.server.ResponseStatusException;
@@ -71,6 +72,15 @@ class JdbcFlashcardDAOAddFlashcardTest extends JdbcDAOTest {
                 "if new card with only the required fields matches an existing card");
     }
 
+    @Test
+    void addFlashcard_duplicateCardInsertedWithoutDAO_rejectedByContentHashIndex() {
+        Flashcard flashcard = getCardWithRequiredFields();
+        addFlashcard(flashcard);
+        assertThrows(DuplicateKeyException.class, () -> addFlashcard(getCardWithRequiredFields()),
+                "The unique content hash index rejects a card with the same details as an existing card, " +
+                        "even without an Area, Category, or Subcategory");
+    }
+
     @Test
     void addFlashcard_notDuplicateCardNewCardNullArea_returnsNewCardAndAddsNewCard() {
         Flashcard existingFlashcard = getCardWithRequiredFields();
@@ -0,0 +1,102 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardDAOAddFlashcardsTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardDAO flashcardDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, namedParameterJdbcTemplate);
+    }
+
+    @Test
+    void addFlashcards_newNames_addsCardsNamesAndMappingsOnce() {
+        Flashcard card1 = getCard("JUnit Front 1", "JUnit Area", "JUnit Category", "JUnit Subcategory");
+        Flashcard card2 = getCard("JUnit Front 2", "JUnit Area", "JUnit Category", null);
+        Flashcard card3 = getCard("JUnit Front 3", "JUnit Area", null, null);
+
+        List<FlashcardBatchResult> results = flashcardDAO.addFlashcards(List.of(card1, card2, card3));
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(FlashcardBatchResult.Status.CREATED, results.get(i).getStatus(),
+                    "addFlashcards returns CREATED for new card " + i);
+            assertEquals(i, results.get(i).getIndex(), "addFlashcards returns the results in order");
+        }
+        Flashcard actualCard1 = flashcardDAO.getCardById(results.get(0).getId());
+        assertEquals("JUnit Subcategory", actualCard1.getSubcategory(),
+                "addFlashcards adds the card with the returned ID and its Subcategory");
+        assertEquals(1, count("SELECT COUNT(*) FROM areas WHERE area_name = 'JUnit Area'"),
+                "addFlashcards adds an Area used by several cards once");
+        Long areaId = getAreaIdByName("JUnit Area");
+        assertEquals(2, count("SELECT COUNT(*) FROM area_category_subcategory WHERE area_id = " + areaId),
+                "addFlashcards adds the mappings with and without a Subcategory");
+    }
+
+    @Test
+    void addFlashcards_existingCardAndRepeatedCard_returnsExistingWithIdOfThatCard() {
+        addArea("JUnit Area");
+        Flashcard existingCard = flashcardDAO.addFlashcard(getCard("JUnit Existing", "JUnit Area", null, null));
+        Flashcard newCard = getCard("JUnit New", "JUnit Area", null, null);
+        Flashcard repeatedNewCard = getCard("JUnit New", "JUnit Area", null, null);
+
+        List<FlashcardBatchResult> results = flashcardDAO.addFlashcards(List.of(
+                getCard("JUnit Existing", "JUnit Area", null, null), newCard, repeatedNewCard));
+
+        assertEquals(FlashcardBatchResult.Status.EXISTING, results.get(0).getStatus(),
+                "addFlashcards returns EXISTING for a card with the same details as an existing card");
+        assertEquals(existingCard.getId(), results.get(0).getId(),
+                "addFlashcards returns the ID of the existing card");
+        assertEquals(FlashcardBatchResult.Status.CREATED, results.get(1).getStatus(),
+                "addFlashcards returns CREATED for the first of two cards with the same details");
+        assertEquals(FlashcardBatchResult.Status.EXISTING, results.get(2).getStatus(),
+                "addFlashcards returns EXISTING for a card with the same details as an earlier card in the batch");
+        assertEquals(results.get(1).getId(), results.get(2).getId(),
+                "addFlashcards returns the ID of the earlier card for a repeated card");
+        assertEquals(1, count("SELECT COUNT(*) FROM flashcards WHERE front = 'JUnit New'"),
+                "addFlashcards adds a card repeated in the batch once");
+    }
+
+    @Test
+    void addFlashcards_categoryWithoutArea_rejectsOnlyThatCard() {
+        Flashcard invalidCard = getCard("JUnit Invalid", null, "JUnit Category", null);
+        Flashcard validCard = getCard("JUnit Valid", null, null, null);
+
+        List<FlashcardBatchResult> results = flashcardDAO.addFlashcards(List.of(invalidCard, validCard));
+
+        assertEquals(FlashcardBatchResult.Status.REJECTED, results.get(0).getStatus(),
+                "addFlashcards rejects a card with a Category and no Area");
+        assertEquals("Area must be specified, if Category is specified. Card not added.",
+                results.get(0).getReason(), "addFlashcards returns the addFlashcard message as the reason");
+        assertEquals(0, count("SELECT COUNT(*) FROM categories WHERE category_name = 'JUnit Category'"),
+                "addFlashcards doesn't add the Category of a rejected card");
+        assertEquals(FlashcardBatchResult.Status.CREATED, results.get(1).getStatus(),
+                "addFlashcards adds the valid cards of a batch with a rejected card");
+    }
+
+    private Flashcard getCard(String front, String area, String category, String subcategory) {
+        Flashcard flashcard = new Flashcard();
+        flashcard.setFront(front);
+        flashcard.setBack("JUnit Back");
+        flashcard.setArea(area);
+        flashcard.setCategory(category);
+        flashcard.setSubcategory(subcategory);
+        return flashcard;
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count == null ? 0 : count;
+    }
+}
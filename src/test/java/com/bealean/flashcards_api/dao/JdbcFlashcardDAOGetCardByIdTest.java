@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.Timestamp;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JdbcFlashcardDAOGetCardByIdTest extends JdbcDAOTest {
@@ -41,6 +43,25 @@ class JdbcFlashcardDAOGetCardByIdTest extends JdbcDAOTest {
         assertEquals(expectedFlashcard, actualFlashcard, "getCardById with an existing Id returns the card with that Id");
     }
 
+    @Test
+    void getCardById_cardViewedSeveralTimes_returnsCardWithLastViewTimestamp() {
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        addFlashcard(flashcard);
+        /* The flashcard_last_view triggers add a row to flashcard_views for each view. */
+        jdbcTemplate.update("INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "VALUES (?, clock_timestamp() - interval '2 days')", flashcard.getId());
+        jdbcTemplate.update("UPDATE flashcard_last_view SET view_timestamp = clock_timestamp() - interval '1 day' " +
+                "WHERE flashcard_id = ?", flashcard.getId());
+        jdbcTemplate.update("UPDATE flashcard_last_view SET view_timestamp = clock_timestamp() " +
+                "WHERE flashcard_id = ?", flashcard.getId());
+        Timestamp expectedLastViewed = jdbcTemplate.queryForObject(
+                "SELECT view_timestamp FROM flashcard_last_view WHERE flashcard_id = ?", Timestamp.class, flashcard.getId());
+
+        Flashcard actualFlashcard = flashcardDAO.getCardById(flashcard.getId());
+        assertEquals(expectedLastViewed, actualFlashcard.getLastViewed(),
+                "getCardById returns the most recent view Timestamp of a card with several views");
+    }
+
     @Test
     void getCardById_noMatchingId_throwsResponseStatusExceptionWithNotFoundStatusAndExpectedMessage() {
         Exception exception = assertThrows(ResponseStatusException.class, () -> flashcardDAO.getCardById(-1L),
@@ -0,0 +1,75 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardLookupResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardDAOGetCardsByIdsTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardDAO flashcardDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void getCardsByIds_existingAndMissingIds_returnsResultsInRequestOrder() {
+        Flashcard firstCard = addFlashcard(getUniqueCardWithRequiredFields());
+        Flashcard secondCard = addFlashcard(getUniqueCardWithRequiredFields());
+
+        List<FlashcardLookupResult> results = flashcardDAO.getCardsByIds(
+                List.of(secondCard.getId(), -1L, firstCard.getId(), secondCard.getId()));
+
+        assertEquals(4, results.size(), "getCardsByIds returns a result for each requested ID, including repeats");
+        assertEquals(List.of(secondCard.getId(), -1L, firstCard.getId(), secondCard.getId()),
+                results.stream().map(FlashcardLookupResult::getId).toList(),
+                "getCardsByIds returns the results in request order");
+        assertEquals(FlashcardLookupResult.Status.NOT_FOUND, results.get(1).getStatus(),
+                "getCardsByIds returns NOT_FOUND for an ID that doesn't exist");
+        assertNull(results.get(1).getFlashcard(), "getCardsByIds doesn't return a card for a missing ID");
+        assertEquals(FlashcardLookupResult.Status.FOUND, results.get(2).getStatus(),
+                "getCardsByIds returns FOUND for an existing ID");
+        assertEquals(flashcardDAO.getCardById(firstCard.getId()), results.get(2).getFlashcard(),
+                "getCardsByIds returns the same card as getCardById");
+    }
+
+    @Test
+    void getCardsByIds_emptyList_returnsEmptyList() {
+        assertTrue(flashcardDAO.getCardsByIds(Collections.emptyList()).isEmpty(),
+                "getCardsByIds returns no results for no IDs");
+    }
+
+    @Test
+    void getCardsByIds_nullId_throwsResponseStatusExceptionWithBadRequestStatus() {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardDAO.getCardsByIds(Arrays.asList(1L, null)),
+                "getCardsByIds throws ResponseStatusException for a null ID");
+        assertEquals("400 BAD_REQUEST \"Ids cannot be null\"", exception.getMessage(),
+                "getCardsByIds throws exception with BAD_REQUEST status and expected message for a null ID");
+    }
+
+    @Test
+    void getCardsByIds_tooManyIds_throwsResponseStatusExceptionWithBadRequestStatus() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= JdbcFlashcardDAO.MAX_IDS_PER_REQUEST + 1; id++) {
+            ids.add(id);
+        }
+        Exception exception = assertThrows(ResponseStatusException.class, () -> flashcardDAO.getCardsByIds(ids),
+                "getCardsByIds throws ResponseStatusException for more IDs than the limit");
+        assertEquals("400 BAD_REQUEST \"No more than " + JdbcFlashcardDAO.MAX_IDS_PER_REQUEST +
+                        " Ids can be requested at once.\"", exception.getMessage(),
+                "getCardsByIds throws exception with BAD_REQUEST status and expected message for too many IDs");
+    }
+}
@@ -0,0 +1,183 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardDAOGetNextBatchTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardDAO flashcardDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, namedParameterJdbcTemplate);
+    }
+
+    @Test
+    void getNextBatch_moreMatchingCardsThanRequested_returnsRequestedNumberLeastRecentlyViewedFirst() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        Long laterViewedId = addUnviewedCard(area).getId();
+        Long earlierViewedId = addUnviewedCard(area).getId();
+        insertLastViewed(earlierViewedId);
+        insertLastViewed(laterViewedId);
+        Long unviewedId = addUnviewedCard(area).getId();
+        addUnviewedCard(null);
+
+        List<Long> actualIds = getIds(flashcardDAO.getNextBatch(area, "all", "all", 3));
+
+        assertEquals(List.of(unviewedId, earlierViewedId, laterViewedId), actualIds,
+                "getNextBatch returns the requested number of matching cards, unviewed cards first " +
+                        "and then least recently viewed first");
+    }
+
+    @Test
+    void getNextBatch_fewerMatchingCardsThanRequested_returnsAllMatchingCards() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        Long card1Id = addUnviewedCard(area).getId();
+        Long card2Id = addUnviewedCard(area).getId();
+        addUnviewedCard(null);
+
+        List<Long> actualIds = getIds(flashcardDAO.getNextBatch(area, null, null, 10));
+
+        assertEquals(List.of(card1Id, card2Id), actualIds,
+                "getNextBatch returns all matching cards if fewer cards match than were requested");
+    }
+
+    @Test
+    void getNextBatch_matchingCards_recordsOneViewForEachReturnedCard() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        Long card1Id = addUnviewedCard(area).getId();
+        Long card2Id = addUnviewedCard(area).getId();
+        Long notReturnedId = addUnviewedCard(area).getId();
+
+        List<Flashcard> flashcards = flashcardDAO.getNextBatch(area, "all", "all", 2);
+
+        assertEquals(1, getFlashcardViewsRowCountForCard(card1Id),
+                "getNextBatch records a view for the first returned card");
+        assertEquals(1, getFlashcardViewsRowCountForCard(card2Id),
+                "getNextBatch records a view for the second returned card");
+        assertEquals(0, getFlashcardViewsRowCountForCard(notReturnedId),
+                "getNextBatch doesn't record a view for a card that wasn't returned");
+        String sql = "SELECT view_timestamp FROM flashcard_last_view WHERE flashcard_id = ?";
+        for (Flashcard flashcard : flashcards) {
+            assertEquals(jdbcTemplate.queryForObject(sql, Timestamp.class, flashcard.getId()),
+                    flashcard.getLastViewed(), "getNextBatch returns cards with the recorded view Timestamp");
+        }
+    }
+
+    @Test
+    void getNextBatch_consecutiveBatches_returnsCardsNotInPreviousBatch() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        List<Long> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            expectedIds.add(addUnviewedCard(area).getId());
+        }
+
+        List<Long> actualIds = getIds(flashcardDAO.getNextBatch(area, "all", "all", 2));
+        actualIds.addAll(getIds(flashcardDAO.getNextBatch(area, "all", "all", 2)));
+
+        assertEquals(expectedIds, actualIds,
+                "getNextBatch returns cards that were not returned in the previous batch before repeating cards");
+    }
+
+    @Test
+    void getNextBatch_inMemorySchedulerEnabled_returnsDifferentCardsAndRecordsViews() {
+        flashcardDAO.nextCardScheduler = new InMemoryNextCardScheduler(jdbcTemplate, true);
+        String area = "JUnit Test Area";
+        addArea(area);
+        Long card1Id = addUnviewedCard(area).getId();
+        Long card2Id = addUnviewedCard(area).getId();
+
+        List<Long> actualIds = getIds(flashcardDAO.getNextBatch(area, "all", "all", 5));
+
+        assertEquals(List.of(card1Id, card2Id), actualIds,
+                "getNextBatch from the scheduler returns each matching card once");
+        assertEquals(1, getFlashcardViewsRowCountForCard(card1Id),
+                "getNextBatch from the scheduler records a view for the first returned card");
+        assertEquals(1, getFlashcardViewsRowCountForCard(card2Id),
+                "getNextBatch from the scheduler records a view for the second returned card");
+    }
+
+    @Test
+    void getNextBatch_countLessThan1_throwsResponseStatusExceptionWithExpectedMessage() {
+        assertCountRejected(0);
+    }
+
+    @Test
+    void getNextBatch_countGreaterThan100_throwsResponseStatusExceptionWithExpectedMessage() {
+        assertCountRejected(101);
+    }
+
+    @Test
+    void getNextBatch_noMatchingCards_throwsResponseStatusExceptionWithExpectedMessage() {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardDAO.getNextBatch("Nonexistent Area", null, null, 5),
+                "getNextBatch throws ResponseStatusException if there are no cards matching the request");
+        String expectedMessage = "404 NOT_FOUND \"No cards available for requested Area, Category, and Subcategory combination. " +
+                "Send 'all' for these parameters to return all cards regardless of the value.\"";
+        assertEquals(expectedMessage, exception.getMessage(), "getNextBatch throws exception " +
+                "with expected status and message if there are no cards matching the request");
+    }
+
+    @Test
+    void getNextBatch_badDataSourceURL_throwsResponseStatusExceptionWithExpectedMessage() {
+        destroyDataSourceAndSetDBConfigFlagFalse();
+        configureDatabase();
+        dataSource.setUrl("badUrl");
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardDAO.getNextBatch("all", "all", "all", 5),
+                "getNextBatch throws ResponseStatusException if query to retrieve next cards fails.");
+        String expectedMessage = "500 INTERNAL_SERVER_ERROR \"Exception getting next card from database.\"";
+        assertEquals(expectedMessage, exception.getMessage(),
+                "getNextBatch throws exception with expected status and message if query to retrieve next cards fails");
+        destroyDataSourceAndSetDBConfigFlagFalse();
+        configureDatabase();
+    }
+
+    private void assertCountRejected(int count) {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardDAO.getNextBatch("all", "all", "all", count),
+                "getNextBatch throws ResponseStatusException for " + count + " cards requested");
+        String expectedMessage = "400 BAD_REQUEST \"Number of cards requested must be between 1 and 100.\"";
+        assertEquals(expectedMessage, exception.getMessage(), "getNextBatch throws exception " +
+                "with expected status and message for " + count + " cards requested");
+    }
+
+    private Flashcard addUnviewedCard(String area) {
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        flashcard.setArea(area);
+        return addFlashcard(flashcard);
+    }
+
+    private void insertLastViewed(Long id) {
+        String sql = "INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) VALUES (?, clock_timestamp())";
+        jdbcTemplate.update(sql, id);
+    }
+
+    private Integer getFlashcardViewsRowCountForCard(Long id) {
+        String sql = "SELECT COUNT(*) FROM flashcard_views WHERE flashcard_id = ?";
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+
+    private static List<Long> getIds(List<Flashcard> flashcards) {
+        List<Long> ids = new ArrayList<>();
+        for (Flashcard flashcard : flashcards) {
+            ids.add(flashcard.getId());
+        }
+        return ids;
+    }
+}
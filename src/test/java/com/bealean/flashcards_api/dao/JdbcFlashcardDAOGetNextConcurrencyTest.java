@@ -0,0 +1,136 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.FlashcardsApiApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Claims have to overlap in separate transactions on separate connections, so unlike the tests
+   extending JdbcDAOTest, the test data is committed and deleted after each test. */
+@SpringBootTest(classes = FlashcardsApiApplication.class)
+class JdbcFlashcardDAOGetNextConcurrencyTest {
+
+    private static final String AREA = "JUnit Concurrent Claim Area";
+    private static final int THREADS = 8;
+    private static final int DECK_SIZE = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcFlashcardDAO flashcardDAO;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource));
+        deleteTestData();
+        Long areaId = jdbcTemplate.queryForObject("INSERT INTO areas (area_name) VALUES (?) RETURNING id",
+                Long.class, AREA);
+        jdbcTemplate.update("INSERT INTO flashcards (front, back, area_id) " +
+                "SELECT 'JUnit Concurrent Claim Front ' || i, 'JUnit Back', ? FROM generate_series(1, ?) AS i",
+                areaId, DECK_SIZE);
+    }
+
+    @AfterEach
+    void deleteTestData() {
+        String cardIds = "SELECT f.id FROM flashcards f JOIN areas a ON f.area_id = a.id WHERE a.area_name = ?";
+        jdbcTemplate.update("DELETE FROM flashcard_views WHERE flashcard_id IN (" + cardIds + ")", AREA);
+        jdbcTemplate.update("DELETE FROM flashcard_view_daily WHERE flashcard_id IN (" + cardIds + ")", AREA);
+        jdbcTemplate.update("DELETE FROM flashcard_last_view WHERE flashcard_id IN (" + cardIds + ")", AREA);
+        jdbcTemplate.update("DELETE FROM flashcards WHERE area_id IN (SELECT id FROM areas WHERE area_name = ?)", AREA);
+        jdbcTemplate.update("DELETE FROM areas WHERE area_name = ?", AREA);
+    }
+
+    @Test
+    void getNext_overlappingTransactions_returnsDifferentCardToEachTransaction() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        /* Every transaction waits at the barrier after claiming a card, so no transaction commits
+           until all of them have claimed a card while the other claims are still locked. */
+        CyclicBarrier allClaimed = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> claims = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                claims.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    Long id = flashcardDAO.getNext(AREA, "all", "all").getId();
+                    try {
+                        allClaimed.await(30, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Claims did not overlap", e);
+                    }
+                    return id;
+                })));
+            }
+            Set<Long> claimedIds = new HashSet<>();
+            for (Future<Long> claim : claims) {
+                claimedIds.add(claim.get(60, TimeUnit.SECONDS));
+            }
+            assertEquals(THREADS, claimedIds.size(),
+                    "getNext returns a different card to each of the overlapping transactions");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(THREADS, getViewCount(), "getNext records one view for each claimed card");
+    }
+
+    /* Each getNext commits on its own, as it does when called by the controller. A card is only viewed
+       again once every card has been viewed, so the claims of the first pass through the deck
+       are all different cards, however the claims overlap. */
+    @Test
+    void getNext_concurrentAutocommitCalls_neverReturnsSameCardTwiceInOnePass() throws Exception {
+        AtomicInteger remaining = new AtomicInteger(DECK_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Long>>> claims = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                claims.add(executor.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    while (remaining.getAndDecrement() > 0) {
+                        ids.add(flashcardDAO.getNext(AREA, "all", "all").getId());
+                    }
+                    return ids;
+                }));
+            }
+            List<Long> claimedIds = new ArrayList<>();
+            for (Future<List<Long>> claim : claims) {
+                claimedIds.addAll(claim.get(120, TimeUnit.SECONDS));
+            }
+            assertEquals(DECK_SIZE, claimedIds.size(), "Test setup issue: not every claim returned a card");
+            assertEquals(DECK_SIZE, new HashSet<>(claimedIds).size(),
+                    "getNext doesn't return a card to two concurrent callers");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(DECK_SIZE, getViewCount(), "getNext records one view for each claimed card");
+    }
+
+    private Integer getViewCount() {
+        String sql = "SELECT COUNT(*) FROM flashcard_views fv JOIN flashcards f ON fv.flashcard_id = f.id " +
+                "JOIN areas a ON f.area_id = a.id WHERE a.area_name = ?";
+        return jdbcTemplate.queryForObject(sql, Integer.class, AREA);
+    }
+}
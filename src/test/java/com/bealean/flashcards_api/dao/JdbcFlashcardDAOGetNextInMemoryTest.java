@@ -0,0 +1,184 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardDAOGetNextInMemoryTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardDAO flashcardDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        flashcardDAO = new JdbcFlashcardDAO(jdbcTemplate, namedParameterJdbcTemplate);
+        flashcardDAO.nextCardScheduler = new InMemoryNextCardScheduler(jdbcTemplate, true);
+    }
+
+    @Test
+    void getNext_matchingViewedAndUnviewedCards_returnsUnviewedCard() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        Flashcard viewedFlashcard = addUnviewedCard(area, null, null);
+        insertLastViewed(viewedFlashcard.getId());
+        Long expectedId = addUnviewedCard(area, null, null).getId();
+        Long actualId = flashcardDAO.getNext(area, "all", "all").getId();
+        assertEquals(expectedId, actualId, "getNext from the scheduler returns unviewed card " +
+                "when there is also a matching viewed card");
+    }
+
+    @Test
+    void getNext_matchingViewedCards_returnsCardWithLessRecentLastViewed() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        Flashcard earlierViewedFlashcard = addUnviewedCard(area, null, null);
+        Flashcard laterViewedFlashcard = addUnviewedCard(area, null, null);
+        insertLastViewed(laterViewedFlashcard.getId());
+        insertLastViewed(earlierViewedFlashcard.getId());
+        updateLastViewed(laterViewedFlashcard.getId());
+        Long actualId = flashcardDAO.getNext(area, "all", "all").getId();
+        assertEquals(earlierViewedFlashcard.getId(), actualId, "getNext from the scheduler returns less recently " +
+                "viewed card when there is also a matching more recently viewed card");
+    }
+
+    @Test
+    void getNext_repeatedCalls_cyclesThroughMatchingCardsAndRecordsViews() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        Long card1Id = addUnviewedCard(area, null, null).getId();
+        Long card2Id = addUnviewedCard(area, null, null).getId();
+
+        Long firstId = flashcardDAO.getNext(area, null, null).getId();
+        Long secondId = flashcardDAO.getNext(area, null, null).getId();
+        Long thirdId = flashcardDAO.getNext(area, null, null).getId();
+
+        assertEquals(card1Id, firstId, "getNext from the scheduler returns first unviewed card");
+        assertEquals(card2Id, secondId, "getNext from the scheduler returns other unviewed card " +
+                "after first card is viewed");
+        assertEquals(card1Id, thirdId, "getNext from the scheduler returns least recently viewed card " +
+                "after all cards are viewed");
+        String sql = "SELECT COUNT(*) FROM flashcard_views WHERE flashcard_id = ?";
+        assertEquals(2, jdbcTemplate.queryForObject(sql, Integer.class, card1Id),
+                "getNext from the scheduler records each view in the database");
+    }
+
+    @Test
+    void getNext_specificAreaCategoryAndSubcategory_returnsOnlyMatchingCard() {
+        String expectedArea = "JUnit Expected Area";
+        addArea(expectedArea);
+        String expectedCategory = "JUnit Expected Category";
+        addCategory(expectedCategory);
+        String expectedSubcategory = "JUnit Expected Subcategory";
+        addSubcategory(expectedSubcategory);
+        String otherSubcategory = "JUnit Another Subcategory";
+        addSubcategory(otherSubcategory);
+
+        Flashcard expectedFlashcard = addUnviewedCard(expectedArea, expectedCategory, expectedSubcategory);
+        insertLastViewed(expectedFlashcard.getId());
+        addUnviewedCard(expectedArea, expectedCategory, otherSubcategory);
+        addUnviewedCard(expectedArea, expectedCategory, null);
+        addUnviewedCard(null, null, null);
+
+        Flashcard actualFlashcard = flashcardDAO.getNext(expectedArea, expectedCategory, expectedSubcategory);
+        assertEquals(expectedFlashcard.getId(), actualFlashcard.getId(), "getNext from the scheduler returns " +
+                "viewed card for specified Area, Category, and Subcategory where unviewed unmatching cards exist");
+    }
+
+    @Test
+    void getNext_allCategories_returnsCardWithNoCategory() {
+        String area = "JUnit Area";
+        addArea(area);
+        String category = "JUnit Category";
+        addCategory(category);
+        Flashcard viewedFlashcard = addUnviewedCard(area, category, null);
+        insertLastViewed(viewedFlashcard.getId());
+        Long expectedId = addUnviewedCard(area, null, null).getId();
+        Long actualId = flashcardDAO.getNext(area, " ALL ", "").getId();
+        assertEquals(expectedId, actualId, "getNext from the scheduler with 'all' Category " +
+                "returns card with no Category");
+    }
+
+    @Test
+    void getNext_cardAddedAfterSchedulerLoaded_returnsAddedCard() {
+        String area = "JUnit Area";
+        addArea(area);
+        Flashcard viewedFlashcard = addUnviewedCard(area, null, null);
+        flashcardDAO.getNext(area, "all", "all");
+        Flashcard newFlashcard = getCardWithRequiredFields();
+        newFlashcard.setFront("JUnit Front Added After Load");
+        newFlashcard.setArea(area);
+        Long expectedId = flashcardDAO.addFlashcard(newFlashcard).getId();
+        Long actualId = flashcardDAO.getNext(area, "all", "all").getId();
+        assertNotEquals(viewedFlashcard.getId(), actualId, "Test setup issue: viewed card returned again");
+        assertEquals(expectedId, actualId, "getNext from the scheduler returns card added with addFlashcard " +
+                "after the scheduler was loaded");
+    }
+
+    @Test
+    void getNext_noMatchingCards_throwsResponseStatusExceptionWithExpectedMessage() {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardDAO.getNext("Nonexistent Area", null, null),
+                "getNext from the scheduler throws ResponseStatusException if there are no cards matching the request");
+        String expectedMessage = "404 NOT_FOUND \"No cards available for requested Area, Category, and Subcategory combination. " +
+                "Send 'all' for these parameters to return all cards regardless of the value.\"";
+        assertEquals(expectedMessage, exception.getMessage(), "getNext from the scheduler throws exception " +
+                "with expected status and message if there are no cards matching the request");
+    }
+
+    @Test
+    void getNext_viewsNotRecorded_returnsSameCardOnNextCall() {
+        String area = "JUnit Area";
+        addArea(area);
+        Long expectedId = addUnviewedCard(area, null, null).getId();
+        addUnviewedCard(area, null, null);
+        FlashcardViewsDAO workingViewsDAO = flashcardDAO.flashcardViewsDAO;
+        flashcardDAO.flashcardViewsDAO = new FlashcardViewsDAO() {
+            @Override
+            public int recordView(Long id) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Flashcard view failed to be recorded.");
+            }
+
+            @Override
+            public int recordViews(List<Long> ids) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Flashcard views failed to be recorded.");
+            }
+        };
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardDAO.getNext(area, "all", "all"),
+                "getNext from the scheduler throws ResponseStatusException if the view can't be recorded");
+        assertEquals("500 INTERNAL_SERVER_ERROR \"Exception getting next card from database.\"", exception.getMessage(),
+                "getNext from the scheduler throws exception with expected status and message if the view can't be recorded");
+
+        flashcardDAO.flashcardViewsDAO = workingViewsDAO;
+        Flashcard actualFlashcard = flashcardDAO.getNext(area, "all", "all");
+        assertEquals(expectedId, actualFlashcard.getId(), "getNext from the scheduler returns the same card again " +
+                "after its view couldn't be recorded");
+    }
+
+    private Flashcard addUnviewedCard(String area, String category, String subcategory) {
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        flashcard.setArea(area);
+        flashcard.setCategory(category);
+        flashcard.setSubcategory(subcategory);
+        return addFlashcard(flashcard);
+    }
+
+    private Timestamp insertLastViewed(Long id) {
+        String sql = "INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) VALUES (?, clock_timestamp()) RETURNING view_timestamp";
+        return jdbcTemplate.queryForObject(sql, Timestamp.class, id);
+    }
+
+    private void updateLastViewed(Long id) {
+        String sql = "UPDATE flashcard_last_view SET view_timestamp = clock_timestamp() WHERE flashcard_id = ?";
+        jdbcTemplate.update(sql, id);
+    }
+}
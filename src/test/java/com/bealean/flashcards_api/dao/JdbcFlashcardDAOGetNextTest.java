@@ -27,7 +27,7 @@ class JdbcFlashcardDAOGetNextTest extends JdbcDAOTest {
         unviewedFlashcard.setArea(area);
         addArea(area);
         Long expectedId = addFlashcard(unviewedFlashcard).getId();
-        Flashcard viewedFlashcard = getCardWithRequiredFields();
+        Flashcard viewedFlashcard = getUniqueCardWithRequiredFields();
         viewedFlashcard.setArea(area);
         addFlashcard(viewedFlashcard);
         insertLastViewed(viewedFlashcard.getId());
@@ -42,7 +42,7 @@ class JdbcFlashcardDAOGetNextTest extends JdbcDAOTest {
         earlierViewedFlashcard.setArea(area);
         addArea(area);
         Long expectedId = addFlashcard(earlierViewedFlashcard).getId();
-        Flashcard laterViewedFlashcard = getCardWithRequiredFields();
+        Flashcard laterViewedFlashcard = getUniqueCardWithRequiredFields();
         laterViewedFlashcard.setArea(area);
         addFlashcard(laterViewedFlashcard);
         Timestamp earlierViewedCardTimestamp = insertLastViewed(earlierViewedFlashcard.getId());
@@ -287,6 +287,19 @@ class JdbcFlashcardDAOGetNextTest extends JdbcDAOTest {
                 "if there are no cards matching the request");
     }
 
+    @Test
+    void getNext_existingAreaNonexistentCategory_throwsResponseStatusExceptionWithExpectedMessage() {
+        String area = "JUnit Test Area";
+        addArea(area);
+        addUnviewedCard(area,null,null);
+        Exception exception = assertThrows(ResponseStatusException.class, ()-> flashcardDAO.getNext(area,"Nonexistent Category",null),
+                "getNext throws ResponseStatusException if the requested Category doesn't exist");
+        String expectedMessage = "404 NOT_FOUND \"No cards available for requested Area, Category, and Subcategory combination. Send 'all' for these parameters to return all cards regardless of the value.\"";
+        String actualMessage = exception.getMessage();
+        assertEquals(expectedMessage,actualMessage, "getNext throws exception with expected status and message " +
+                "if the requested Category doesn't exist, even if cards exist for the requested Area");
+    }
+
     @Test
     void getNext_badDataSourceURL_throwsResponseStatusExceptionWithExpectedMessage() {
         destroyDataSourceAndSetDBConfigFlagFalse();
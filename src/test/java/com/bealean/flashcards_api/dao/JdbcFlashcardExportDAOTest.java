@@ -0,0 +1,69 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardExportDAOTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardExportDAO flashcardExportDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        /* A fetch size smaller than the number of cards, so the cards are read from the cursor in several fetches. */
+        flashcardExportDAO = new JdbcFlashcardExportDAO(jdbcTemplate, 1);
+    }
+
+    @Test
+    void exportFlashcards_area_writesCardsOfAreaInImportFormatThatReimportsAsExisting() {
+        addArea("JUnit Export Area");
+        addCategory("JUnit Export Category");
+        addSubcategory("JUnit Export Subcategory");
+        Flashcard first = getCardWithRequiredFields();
+        first.setFront("Say \"hi\", then \"\"bye\"\"");
+        first.setBack("Line 1\n\nLine 3, with comma");
+        first.setArea("JUnit Export Area");
+        first.setCategory("JUnit Export Category");
+        first.setSubcategory("JUnit Export Subcategory");
+        addFlashcard(first);
+        Flashcard second = getUniqueCardWithRequiredFields();
+        second.setArea("JUnit Export Area");
+        second.setCategory("JUnit Export Category");
+        addFlashcard(second);
+        addFlashcard(getUniqueCardWithRequiredFields());
+        StringWriter writer = new StringWriter();
+
+        long count = flashcardExportDAO.exportFlashcards(
+                flashcardExportDAO.getExportFilter("JUnit Export Area", "all", null), writer);
+
+        assertEquals(2, count, "exportFlashcards returns the number of cards of the Area written");
+        assertEquals(JdbcFlashcardExportDAO.CSV_HEADER + "\n" +
+                        "\"1\",\"Say \"\"hi\"\", then \"\"\"\"bye\"\"\"\"\",\"Line 1\n\nLine 3, with comma\"," +
+                        "\"JUnit Export Area\",\"JUnit Export Category\",\"JUnit Export Subcategory\"\n" +
+                        "\"2\",\"" + second.getFront() + "\",\"test\",\"JUnit Export Area\",\"JUnit Export Category\",\"\"\n",
+                writer.toString(), "exportFlashcards writes six quoted fields per card, in ID order, " +
+                        "with double quotes escaped and an empty field for a missing Subcategory");
+        FlashcardImportResult result = new JdbcFlashcardImportDAO(jdbcTemplate)
+                .importFlashcards(new StringReader(writer.toString()));
+        assertEquals(0, result.getRejected(), "An export is imported without rejected rows");
+        assertEquals(2, result.getExisting(), "An export imported into the same database matches the existing cards");
+    }
+
+    @Test
+    void getExportFilter_missingCategory_throwsResponseStatusExceptionWithNotFoundStatus() {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardExportDAO.getExportFilter("all", "JUnit Export Missing Category", "all"),
+                "getExportFilter throws ResponseStatusException for a Category that doesn't exist");
+        assertEquals("404 NOT_FOUND \"Category not found. Unable to export cards for missing Category. " +
+                        "Send Category 'all' to export the cards of all Categories.\"", exception.getMessage(),
+                "getExportFilter throws exception with NOT_FOUND status and expected message");
+    }
+}
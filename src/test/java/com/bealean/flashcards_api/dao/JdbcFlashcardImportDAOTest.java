@@ -0,0 +1,89 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.FlashcardBatchResult;
+import com.bealean.flashcards_api.model.FlashcardImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardImportDAOTest extends JdbcDAOTest {
+
+    private static final String HEADER = "\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n";
+
+    private static JdbcFlashcardImportDAO flashcardImportDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        flashcardImportDAO = new JdbcFlashcardImportDAO(jdbcTemplate);
+    }
+
+    @Test
+    void importFlashcards_newTaxonomyAndDuplicateRows_addsCardsTaxonomyAndMappingsOnce() {
+        addFlashcard(getCardWithFront("JUnit Import Existing"));
+        String csv = HEADER +
+                "\"1\",\"JUnit Import \"\"Quoted\"\" Front\",\"Back\nline 2\",\"JUnit Import Area\"," +
+                "\"JUnit Import Category\",\"JUnit Import Subcategory\"\n" +
+                "\"2\",\"JUnit Import \"\"Quoted\"\" Front\",\"Back\nline 2\",\"JUnit Import Area\"," +
+                "\"JUnit Import Category\",\"JUnit Import Subcategory\"\n" +
+                "\"3\",\"JUnit Import Second\",\"Back\",\"JUnit Import Area\",\"JUnit Import Category\",\"\"\n" +
+                "\"4\",\"JUnit Import Existing\",\"test\",\"\",\"\",\"\"\n";
+
+        FlashcardImportResult result = flashcardImportDAO.importFlashcards(new StringReader(csv));
+
+        assertEquals(4, result.getCards(), "importFlashcards counts every card row");
+        assertEquals(2, result.getCreated(), "importFlashcards adds each new card once");
+        assertEquals(2, result.getExisting(),
+                "importFlashcards counts a repeated row and a card that already exists as existing");
+        Integer cards = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flashcards f " +
+                "JOIN areas a ON f.area_id = a.id JOIN categories c ON f.category_id = c.id " +
+                "WHERE a.area_name = 'JUnit Import Area' AND c.category_name = 'JUnit Import Category' " +
+                "AND f.front IN ('JUnit Import \"Quoted\" Front', 'JUnit Import Second')", Integer.class);
+        assertEquals(2, cards, "importFlashcards adds the cards with their Area and Category");
+        Integer mappings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM area_category_subcategory " +
+                "WHERE area_id = ?", Integer.class, getAreaIdByName("JUnit Import Area"));
+        assertEquals(2, mappings, "importFlashcards adds a mapping with and without the Subcategory");
+    }
+
+    @Test
+    void importFlashcards_invalidRows_rejectsInvalidRowsAndImportsOthers() {
+        String csv = HEADER +
+                "\"1\",\"JUnit Import Valid\",\"Back\",\"\",\"\",\"\"\n" +
+                "\"2\",\"JUnit Import No Back\",\"\",\"\",\"\",\"\"\n" +
+                "\"3\",\"JUnit Import No Area\",\"Back\",\"\",\"JUnit Import Category\",\"\"\n";
+
+        FlashcardImportResult result = flashcardImportDAO.importFlashcards(new StringReader(csv));
+
+        assertEquals(1, result.getCreated(), "importFlashcards adds the valid rows");
+        assertEquals(2, result.getRejected(), "importFlashcards counts the rejected rows");
+        assertEquals(List.of(1, 2), result.getRejections().stream().map(FlashcardBatchResult::getIndex).toList(),
+                "importFlashcards returns the position of each rejected row");
+        assertEquals(List.of("Back must not be blank.",
+                        "Area must be specified, if Category is specified. Card not added."),
+                result.getRejections().stream().map(FlashcardBatchResult::getReason).toList(),
+                "importFlashcards returns the reason each row was rejected");
+    }
+
+    @Test
+    void importFlashcards_unexpectedFieldCount_throwsResponseStatusExceptionWithBadRequestStatus() {
+        String csv = HEADER + "\"1\",\"JUnit Import Front\",\"Back\"\n";
+
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardImportDAO.importFlashcards(new StringReader(csv)),
+                "importFlashcards throws ResponseStatusException for a row with too few fields");
+        assertEquals("400 BAD_REQUEST \"Card has fewer fields than expected. Check field delimiters\"",
+                exception.getMessage(), "importFlashcards throws exception with BAD_REQUEST status and expected message");
+    }
+
+    private Flashcard getCardWithFront(String front) {
+        Flashcard flashcard = getCardWithRequiredFields();
+        flashcard.setFront(front);
+        return flashcard;
+    }
+}
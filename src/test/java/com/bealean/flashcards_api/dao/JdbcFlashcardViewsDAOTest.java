@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.sql.Timestamp;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -131,9 +132,53 @@ class JdbcFlashcardViewsDAOTest extends JdbcDAOTest {
                 "recordView for a card with previous views inserts a record into flashcard_views for the card with the same timestamp as the updated flashcard_last_view record");
     }
 
+    @Test
+    void recordViews_existingCards_recordsViewForEachCardAndReturnsNumberRecorded() {
+        Long viewedId = insertCard();
+        flashcardViewsDAO.recordView(viewedId);
+        Long unviewedId = insertCard();
+
+        int actualReturnValue = flashcardViewsDAO.recordViews(List.of(viewedId, unviewedId));
+
+        assertEquals(2, actualReturnValue, "recordViews returns the number of views recorded");
+        assertEquals(2, getFlashcardViewsRowCountForCard(viewedId),
+                "recordViews records a view for a previously viewed card");
+        assertEquals(1, getFlashcardViewsRowCountForCard(unviewedId),
+                "recordViews records a view for a card with no views");
+        assertEquals(1, getFlashcardLastViewRowCountForCard(viewedId),
+                "recordViews does not insert a new row into flashcard_last_view for a card with an existing record");
+    }
+
+    @Test
+    void recordViews_missingAndDuplicateIds_recordsOneViewForEachExistingCard() {
+        Long id = insertCard();
+
+        int actualReturnValue = flashcardViewsDAO.recordViews(List.of(id, -1L, id));
+
+        assertEquals(1, actualReturnValue, "recordViews skips missing IDs and records duplicate IDs once");
+        assertEquals(1, getFlashcardViewsRowCountForCard(id),
+                "recordViews records one view for a card with a duplicate ID");
+    }
+
+    @Test
+    void recordViews_badDatabaseURL_throwsException() {
+        Long id = insertCard();
+        destroyDataSourceAndSetDBConfigFlagFalse();
+        configureDatabase();
+        dataSource.setUrl("badURL");
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> flashcardViewsDAO.recordViews(List.of(id)),
+                "recordViews throws ResponseStatusException if database is unavailable");
+        String expectedMessage = "500 INTERNAL_SERVER_ERROR \"Flashcard views failed to be recorded.\"";
+        assertEquals(expectedMessage, exception.getMessage(), "recordViews with bad Database URL throws " +
+                "exception with expected status and message");
+        destroyDataSourceAndSetDBConfigFlagFalse();
+        configureDatabase();
+    }
+
     private Long insertCard() {
-        String sql = "INSERT INTO flashcards (front, back) VALUES ('test front', 'test back') RETURNING id";
-        return jdbcTemplate.queryForObject(sql, Long.class);
+        String sql = "INSERT INTO flashcards (front, back) VALUES (?, 'test back') RETURNING id";
+        return jdbcTemplate.queryForObject(sql, Long.class, getUniqueCardWithRequiredFields().getFront());
     }
 
     private Integer getFlashcardLastViewRowCountForCard(Long id) {
@@ -0,0 +1,173 @@
+package com.bealean.flashcards_api.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcFlashcardViewsDAOWriteBehindTest extends JdbcDAOTest {
+
+    private static JdbcFlashcardViewsDAO flashcardViewsDAO;
+    private static ViewWriteBehindQueue viewWriteBehindQueue;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        flashcardViewsDAO = new JdbcFlashcardViewsDAO(jdbcTemplate);
+        /* The flusher thread is not started, so views are only written when the test calls flush. */
+        viewWriteBehindQueue = new ViewWriteBehindQueue(jdbcTemplate, true, 1000, 3, 5);
+        flashcardViewsDAO.viewWriteBehindQueue = viewWriteBehindQueue;
+    }
+
+    @Test
+    void recordView_writeBehindEnabled_returns1AndDoesNotWriteViewBeforeFlush() {
+        Long id = insertCard();
+        assertEquals(1, flashcardViewsDAO.recordView(id), "recordView with write-behind enabled returns 1");
+        assertEquals(0, getFlashcardLastViewRowCountForCard(id),
+                "recordView with write-behind enabled does not write the view before the queue is flushed");
+    }
+
+    @Test
+    void flush_queuedViewForUnviewedCard_insertsFlashcardLastViewAndFlashcardViewsRecords() {
+        Timestamp priorTimestamp = getDatabaseTimestamp();
+        Long id = insertCard();
+        flashcardViewsDAO.recordView(id);
+        viewWriteBehindQueue.flush();
+        assertEquals(1, getFlashcardLastViewRowCountForCard(id),
+                "flush inserts a flashcard_last_view record for a queued view of an unviewed card");
+        assertEquals(1, getFlashcardViewsRowCountForCard(id),
+                "flush inserts a flashcard_views record for a queued view of an unviewed card");
+        String sql = "SELECT view_timestamp FROM flashcard_last_view WHERE flashcard_id = ?";
+        Timestamp actualTimestamp = jdbcTemplate.queryForObject(sql, Timestamp.class, id);
+        assertTrue(actualTimestamp != null && actualTimestamp.after(priorTimestamp),
+                "flush records the view with the database time of the flush");
+    }
+
+    @Test
+    void flush_multipleViewsForSameCard_recordsEachViewAndKeepsLatestAsLastView() {
+        Long id = insertCard();
+        Long otherId = insertCard();
+        flashcardViewsDAO.recordView(id);
+        flashcardViewsDAO.recordView(otherId);
+        flashcardViewsDAO.recordView(id);
+        flashcardViewsDAO.recordView(id);
+        viewWriteBehindQueue.flush();
+        assertEquals(1, getFlashcardLastViewRowCountForCard(id),
+                "flush keeps one flashcard_last_view record for a card viewed more than once");
+        assertEquals(3, getFlashcardViewsRowCountForCard(id),
+                "flush records every queued view of a card in flashcard_views");
+        assertEquals(1, getFlashcardViewsRowCountForCard(otherId),
+                "flush records views of other cards queued in the same batch");
+        String sql = "SELECT COUNT(*) FROM flashcard_last_view lv WHERE flashcard_id = ? AND " +
+                "view_timestamp = (SELECT MAX(view_timestamp) FROM flashcard_views WHERE flashcard_id = lv.flashcard_id)";
+        assertEquals(1, jdbcTemplate.queryForObject(sql, Integer.class, id),
+                "flush leaves the latest queued view as the last view of the card");
+    }
+
+    @Test
+    void flush_queuedViewOlderThanLastView_keepsLastView() {
+        Long id = insertCard();
+        flashcardViewsDAO.recordView(id);
+        String sql = "INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "VALUES (?, now() + interval '1 hour') RETURNING view_timestamp";
+        Timestamp laterTimestamp = jdbcTemplate.queryForObject(sql, Timestamp.class, id);
+        viewWriteBehindQueue.flush();
+        sql = "SELECT view_timestamp FROM flashcard_last_view WHERE flashcard_id = ?";
+        assertEquals(laterTimestamp, jdbcTemplate.queryForObject(sql, Timestamp.class, id),
+                "flush doesn't replace a later last view with an older queued view");
+        assertEquals(2, getFlashcardViewsRowCountForCard(id),
+                "flush records a queued view in flashcard_views when the card has a later last view");
+    }
+
+    @Test
+    void flush_viewRecordedDirectlyBetweenQueueAndFlush_recordsEveryView() {
+        Long id = insertCard();
+        for (int i = 0; i < 5; i++) {
+            flashcardViewsDAO.recordView(id);
+        }
+        /* The queue is full, so this view is recorded directly, before the queued views are written. */
+        flashcardViewsDAO.recordView(id);
+        assertEquals(1, getFlashcardViewsRowCountForCard(id), "Test setup issue: view not recorded directly");
+        viewWriteBehindQueue.flush();
+        assertEquals(6, getFlashcardViewsRowCountForCard(id),
+                "flush records every queued view after a view recorded directly");
+        String sql = "SELECT COUNT(*) FROM flashcard_last_view lv WHERE flashcard_id = ? AND " +
+                "view_timestamp = (SELECT MAX(view_timestamp) FROM flashcard_views WHERE flashcard_id = lv.flashcard_id)";
+        assertEquals(1, jdbcTemplate.queryForObject(sql, Integer.class, id),
+                "flush leaves the latest view as the last view of the card");
+    }
+
+    @Test
+    void recordView_writeBehindEnabledMissingCard_returns1AndSkipsViewAtFlush() {
+        assertEquals(1, flashcardViewsDAO.recordView(-1L), "recordView with write-behind enabled returns 1 " +
+                "for a card that doesn't exist, instead of throwing ResponseStatusException");
+        viewWriteBehindQueue.flush();
+        String sql = "SELECT COUNT(*) FROM flashcard_views WHERE flashcard_id = -1";
+        assertEquals(0, getFlashcardLastViewRowCountForCard(-1L),
+                "flush doesn't record a last view for a queued card that doesn't exist");
+        assertEquals(0, jdbcTemplate.queryForObject(sql, Integer.class),
+                "flush doesn't add a view to the history for a queued card that doesn't exist");
+    }
+
+    @Test
+    void flush_queuedViewForMissingCard_skipsViewAndRecordsOtherViews() {
+        Long id = insertCard();
+        flashcardViewsDAO.recordView(-1L);
+        flashcardViewsDAO.recordView(id);
+        viewWriteBehindQueue.flush();
+        assertEquals(0, getFlashcardLastViewRowCountForCard(-1L),
+                "flush skips a queued view for a card that doesn't exist");
+        assertEquals(1, getFlashcardLastViewRowCountForCard(id),
+                "flush records other views queued with a view for a card that doesn't exist");
+    }
+
+    @Test
+    void stop_flusherStarted_writesQueuedViewsBeforeFlusherEnds() throws InterruptedException {
+        Long id = insertCard();
+        Long otherId = insertCard();
+        /* The batch isn't full and the delay doesn't pass, so the views are only written by stop. */
+        ViewWriteBehindQueue startedQueue = new ViewWriteBehindQueue(jdbcTemplate, true, 60000, 3, 5);
+        flashcardViewsDAO.viewWriteBehindQueue = startedQueue;
+        startedQueue.start();
+        flashcardViewsDAO.recordView(id);
+        flashcardViewsDAO.recordView(otherId);
+        startedQueue.stop();
+        assertEquals(1, getFlashcardViewsRowCountForCard(id), "stop writes the views queued before it was called");
+        assertEquals(1, getFlashcardViewsRowCountForCard(otherId),
+                "stop writes every view queued before it was called");
+    }
+
+    @Test
+    void recordView_queueFull_recordsViewDirectly() {
+        Long id = insertCard();
+        for (int i = 0; i < 5; i++) {
+            flashcardViewsDAO.recordView(id);
+        }
+        assertEquals(0, getFlashcardLastViewRowCountForCard(id), "Test setup issue: view written before queue was full");
+        flashcardViewsDAO.recordView(id);
+        assertEquals(1, getFlashcardViewsRowCountForCard(id),
+                "recordView records the view directly when the write-behind queue is full");
+    }
+
+    private Long insertCard() {
+        String sql = "INSERT INTO flashcards (front, back) VALUES (?, 'test back') RETURNING id";
+        return jdbcTemplate.queryForObject(sql, Long.class, getUniqueCardWithRequiredFields().getFront());
+    }
+
+    private Integer getFlashcardLastViewRowCountForCard(Long id) {
+        String sql = "SELECT COUNT(*) FROM flashcard_last_view WHERE flashcard_id = ?";
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+
+    private Integer getFlashcardViewsRowCountForCard(Long id) {
+        String sql = "SELECT COUNT(*) FROM flashcard_views WHERE flashcard_id = ?";
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+
+    private Timestamp getDatabaseTimestamp() {
+        String sql = "SELECT clock_timestamp()";
+        return jdbcTemplate.queryForObject(sql, Timestamp.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.ImportCheckpoint;
+import com.bealean.flashcards_api.model.ImportJob;
+import com.bealean.flashcards_api.model.ImportJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcImportJobDAOTest extends JdbcDAOTest {
+
+    private static JdbcImportJobDAO importJobDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        importJobDAO = new JdbcImportJobDAO(jdbcTemplate);
+    }
+
+    @Test
+    void saveCheckpoint_checkpointsOutOfOrder_keepsLatestCheckpoint() {
+        long id = addImportJob(1000);
+
+        importJobDAO.saveCheckpoint(id, new ImportCheckpoint(20, 1, 400, ImportJobStatus.RUNNING));
+        ImportJob importJob = importJobDAO.saveCheckpoint(id, new ImportCheckpoint(10, 0, 200, ImportJobStatus.RUNNING));
+
+        assertEquals(20, importJob.getRowsCommitted(),
+                "saveCheckpoint ignores a checkpoint with fewer rows committed than the saved checkpoint");
+        assertEquals(400, importJob.getByteOffset(), "saveCheckpoint keeps the byte offset of the saved checkpoint");
+        assertEquals(1, importJob.getRowsFailed(), "saveCheckpoint keeps the rows failed of the saved checkpoint");
+        assertEquals(40.0, importJob.getProgress(), 0.001,
+                "getProgress returns the percentage of the source read");
+        assertEquals(id, importJobDAO.getImportJobs().get(0).getId(), "getImportJobs returns the latest job first");
+    }
+
+    @Test
+    void saveCheckpoint_runningCheckpointAfterFailedCheckpoint_keepsJobFailed() {
+        long id = addImportJob(1000);
+        importJobDAO.saveCheckpoint(id, new ImportCheckpoint(20, 0, 400, ImportJobStatus.FAILED));
+
+        ImportJob importJob = importJobDAO.saveCheckpoint(id, new ImportCheckpoint(20, 0, 400, ImportJobStatus.RUNNING));
+        assertEquals(ImportJobStatus.FAILED, importJob.getStatus(),
+                "saveCheckpoint ignores a RUNNING checkpoint with the same rows committed as a FAILED job");
+
+        importJob = importJobDAO.saveCheckpoint(id, new ImportCheckpoint(30, 0, 600, ImportJobStatus.RUNNING));
+        assertEquals(ImportJobStatus.RUNNING, importJob.getStatus(),
+                "saveCheckpoint saves a RUNNING checkpoint with more rows committed than a FAILED job");
+        assertEquals(30, importJob.getRowsCommitted(), "saveCheckpoint saves the rows committed");
+    }
+
+    @Test
+    void resumeImportJob_failedJob_startsNewRunFromCheckpoint() {
+        long id = addImportJob(1000);
+        importJobDAO.saveCheckpoint(id, new ImportCheckpoint(30, 0, 600, ImportJobStatus.FAILED));
+
+        ImportJob importJob = importJobDAO.resumeImportJob(id);
+
+        assertEquals(ImportJobStatus.RUNNING, importJob.getStatus(), "resumeImportJob sets the job RUNNING");
+        assertEquals(600, importJob.getByteOffset(), "resumeImportJob returns the checkpoint to resume from");
+        assertEquals(30, importJob.getRunStartRows(),
+                "resumeImportJob starts the run at the rows committed, so the rate only includes the new run");
+        assertEquals(0, importJob.getRowsPerSecond(), "getRowsPerSecond returns 0 until rows are committed in the run");
+    }
+
+    @Test
+    void resumeImportJob_completedJob_throwsResponseStatusExceptionWithConflictStatus() {
+        long id = addImportJob(1000);
+        importJobDAO.saveCheckpoint(id, new ImportCheckpoint(50, 0, 1000, ImportJobStatus.COMPLETED));
+
+        Exception exception = assertThrows(ResponseStatusException.class, () -> importJobDAO.resumeImportJob(id),
+                "resumeImportJob throws ResponseStatusException for a completed job");
+        assertEquals("409 CONFLICT \"Import job is completed and can't be resumed.\"", exception.getMessage(),
+                "resumeImportJob throws exception with CONFLICT status and expected message");
+    }
+
+    @Test
+    void resumeImportJob_runningJob_throwsResponseStatusExceptionWithConflictStatus() {
+        long id = addImportJob(1000);
+        importJobDAO.saveCheckpoint(id, new ImportCheckpoint(10, 0, 200, ImportJobStatus.RUNNING));
+
+        Exception exception = assertThrows(ResponseStatusException.class, () -> importJobDAO.resumeImportJob(id),
+                "resumeImportJob throws ResponseStatusException for a job that is still running");
+        assertEquals("409 CONFLICT \"Import job is running and can't be resumed until it has saved no checkpoint " +
+                        "for 600 seconds.\"", exception.getMessage(),
+                "resumeImportJob throws exception with CONFLICT status and expected message");
+    }
+
+    @Test
+    void resumeImportJob_stalledRunningJob_startsNewRunFromCheckpoint() {
+        long id = addImportJob(1000);
+        importJobDAO.saveCheckpoint(id, new ImportCheckpoint(10, 0, 200, ImportJobStatus.RUNNING));
+
+        ImportJob importJob = new JdbcImportJobDAO(jdbcTemplate, 0).resumeImportJob(id);
+
+        assertEquals(ImportJobStatus.RUNNING, importJob.getStatus(),
+                "resumeImportJob resumes a RUNNING job with no checkpoint saved for the stall time");
+        assertEquals(10, importJob.getRunStartRows(), "resumeImportJob starts the run at the rows committed");
+    }
+
+    @Test
+    void saveCheckpoint_byteOffsetPastEndOfSource_throwsResponseStatusExceptionWithBadRequestStatus() {
+        long id = addImportJob(1000);
+
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> importJobDAO.saveCheckpoint(id, new ImportCheckpoint(10, 0, 1001, ImportJobStatus.RUNNING)),
+                "saveCheckpoint throws ResponseStatusException for a byte offset past the end of the source");
+        assertEquals("400 BAD_REQUEST \"Byte offset is past the end of the source.\"", exception.getMessage(),
+                "saveCheckpoint throws exception with BAD_REQUEST status and expected message");
+    }
+
+    private static long addImportJob(long sourceBytes) {
+        ImportJob importJob = new ImportJob();
+        importJob.setSourceName("/tmp/junit-import.csv");
+        importJob.setSourceBytes(sourceBytes);
+        return importJobDAO.addImportJob(importJob).getId();
+    }
+}
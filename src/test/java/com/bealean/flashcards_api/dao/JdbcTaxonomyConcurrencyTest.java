@@ -0,0 +1,98 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.FlashcardsApiApplication;
+import com.bealean.flashcards_api.model.Flashcard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Adds cards and taxonomy names from many threads through the Spring managed DAOs, so each card is added
+   in its own committed transaction. The test data is deleted after each test. */
+@SpringBootTest(classes = FlashcardsApiApplication.class)
+class JdbcTaxonomyConcurrencyTest {
+
+    private static final String PREFIX = "JUnit Conc ";
+    private static final int THREADS = 32;
+    private static final int CARDS = 10000;
+    /* Consecutive cards share a new name, so up to this many threads race to add each name. */
+    private static final int CARDS_PER_NAME = 32;
+
+    @Autowired
+    private FlashcardDAO flashcardDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void deleteTestData() {
+        String like = PREFIX + "%";
+        jdbcTemplate.update("DELETE FROM flashcards WHERE front LIKE ?", like);
+        jdbcTemplate.update("DELETE FROM area_category_subcategory WHERE area_id IN " +
+                "(SELECT id FROM areas WHERE area_name LIKE ?)", like);
+        jdbcTemplate.update("DELETE FROM areas WHERE area_name LIKE ?", like);
+        jdbcTemplate.update("DELETE FROM categories WHERE category_name LIKE ?", like);
+        jdbcTemplate.update("DELETE FROM subcategories WHERE subcategory_name LIKE ?", like);
+    }
+
+    @Test
+    void addFlashcard_overlappingNewTaxonomyFromManyThreads_addsEveryCardWithoutFailures() throws Exception {
+        ConcurrentLinkedQueue<Exception> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < CARDS; i++) {
+            int card = i;
+            executor.submit(() -> {
+                try {
+                    Flashcard flashcard = new Flashcard();
+                    flashcard.setFront(PREFIX + "Front " + card);
+                    flashcard.setBack(PREFIX + "Back");
+                    flashcard.setArea(PREFIX + "Area " + card / CARDS_PER_NAME);
+                    flashcard.setCategory(PREFIX + "Category " + card / CARDS_PER_NAME);
+                    /* Half of the cards have no Subcategory, so both kinds of mapping are added concurrently. */
+                    if (card % 2 == 0) {
+                        flashcard.setSubcategory(PREFIX + "Sub " + card / CARDS_PER_NAME);
+                    }
+                    flashcardDAO.addFlashcard(flashcard);
+                } catch (Exception e) {
+                    failures.add(e);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES), "Test setup issue: cards not added in time");
+
+        List<String> failureMessages = new ArrayList<>();
+        failures.forEach(e -> failureMessages.add(e.getMessage()));
+        assertEquals(List.of(), failureMessages,
+                "addFlashcard doesn't fail when threads add the same new names and mappings");
+        int expectedNames = (CARDS + CARDS_PER_NAME - 1) / CARDS_PER_NAME;
+        assertEquals(CARDS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flashcards WHERE front LIKE ?", Integer.class, PREFIX + "%"),
+                "Every card is added");
+        assertEquals(expectedNames, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM areas WHERE area_name LIKE ?", Integer.class, PREFIX + "%"),
+                "Each new Area is added once");
+        assertEquals(expectedNames, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM categories WHERE category_name LIKE ?", Integer.class, PREFIX + "%"),
+                "Each new Category is added once");
+        assertEquals(expectedNames, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM subcategories WHERE subcategory_name LIKE ?", Integer.class, PREFIX + "%"),
+                "Each new Subcategory is added once");
+        assertEquals(expectedNames * 2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM area_category_subcategory acs JOIN areas a ON acs.area_id = a.id " +
+                        "WHERE a.area_name LIKE ?", Integer.class, PREFIX + "%"),
+                "Each new mapping, with and without a Subcategory, is added once");
+    }
+}
@@ -0,0 +1,77 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.ViewExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Views are recorded in 2001, so the exports only include the views added by the tests. */
+class JdbcViewExportDAOTest extends JdbcDAOTest {
+
+    private static final OffsetDateTime SINCE = OffsetDateTime.parse("2001-01-01T00:00:00Z");
+    private static final OffsetDateTime UNTIL = OffsetDateTime.parse("2001-01-02T00:00:00Z");
+
+    private static JdbcViewExportDAO viewExportDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        /* A fetch size smaller than the number of views, so the views are read from the cursor in several fetches. */
+        viewExportDAO = new JdbcViewExportDAO(jdbcTemplate, 2);
+    }
+
+    @Test
+    void exportViews_ndjson_writesOneLinePerViewInRangeInIdOrder() {
+        long flashcardId = addFlashcard(getUniqueCardWithRequiredFields()).getId();
+        List<Long> ids = List.of(
+                recordView(flashcardId, "2001-01-01 10:00:00+00"),
+                recordView(flashcardId, "2001-01-01 11:00:00+00"),
+                recordView(flashcardId, "2001-01-01 12:30:00+00"));
+        recordView(flashcardId, "2001-01-02 00:00:00+00");
+        StringWriter writer = new StringWriter();
+
+        long count = viewExportDAO.exportViews(SINCE, UNTIL, null, ViewExportFormat.NDJSON, writer);
+
+        assertEquals(3, count, "exportViews returns the number of views written");
+        assertEquals("{\"id\":" + ids.get(0) + ",\"flashcardId\":" + flashcardId +
+                        ",\"viewTimestamp\":\"2001-01-01T10:00:00Z\"}\n" +
+                        "{\"id\":" + ids.get(1) + ",\"flashcardId\":" + flashcardId +
+                        ",\"viewTimestamp\":\"2001-01-01T11:00:00Z\"}\n" +
+                        "{\"id\":" + ids.get(2) + ",\"flashcardId\":" + flashcardId +
+                        ",\"viewTimestamp\":\"2001-01-01T12:30:00Z\"}\n", writer.toString(),
+                "exportViews writes the views from since up to, but not including, until, in ID order");
+    }
+
+    @Test
+    void exportViews_afterId_writesOnlyViewsAfterIdAsCsv() {
+        long flashcardId = addFlashcard(getUniqueCardWithRequiredFields()).getId();
+        long firstId = recordView(flashcardId, "2001-01-01 10:00:00+00");
+        long secondId = recordView(flashcardId, "2001-01-01 11:00:00+00");
+        StringWriter writer = new StringWriter();
+
+        long count = viewExportDAO.exportViews(SINCE, UNTIL, firstId, ViewExportFormat.CSV, writer);
+
+        assertEquals(1, count, "exportViews only writes the views with an ID greater than afterId");
+        assertEquals(JdbcViewExportDAO.CSV_HEADER + "\n" + secondId + "," + flashcardId + ",2001-01-01T11:00:00Z\n",
+                writer.toString(), "exportViews writes a CSV header and one line per view");
+    }
+
+    /* Records a view the way the API does, and returns the ID of the view added by the trigger. */
+    private long recordView(long flashcardId, String viewTimestamp) {
+        int updated = jdbcTemplate.update("UPDATE flashcard_last_view SET view_timestamp = ?::timestamptz " +
+                "WHERE flashcard_id = ?", viewTimestamp, flashcardId);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                    "VALUES (?, ?::timestamptz)", flashcardId, viewTimestamp);
+        }
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM flashcard_views WHERE flashcard_id = ?",
+                Long.class, flashcardId);
+        assertNotNull(id, "Recording a view adds it to flashcard_views");
+        return id;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bealean.flashcards_api.dao;
+
+import com.bealean.flashcards_api.model.DailyViewCount;
+import com.bealean.flashcards_api.model.Flashcard;
+import com.bealean.flashcards_api.model.TaxonomyViewCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Views are recorded on days in 2001, so the reports only include the views added by the tests. */
+class JdbcViewReportDAOTest extends JdbcDAOTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2001, 1, 1);
+    private static final LocalDate SECOND_DAY = LocalDate.of(2001, 1, 2);
+
+    private static JdbcViewReportDAO viewReportDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        viewReportDAO = new JdbcViewReportDAO(jdbcTemplate);
+    }
+
+    @Test
+    void recordingViews_severalViewsOfCardOnADay_countsViewsInOneRollupRowPerDay() {
+        long id = addCardWithCategory("JUnit Category");
+        recordView(id, "2001-01-01 10:00:00+00");
+        recordView(id, "2001-01-01 11:00:00+00");
+        recordView(id, "2001-01-02 09:00:00+00");
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flashcard_view_daily WHERE flashcard_id = ?",
+                Integer.class, id);
+        assertEquals(2, rows, "The view triggers add one rollup row for each day a card is viewed");
+        List<DailyViewCount> viewsPerDay = viewReportDAO.getViewsPerDay(FIRST_DAY, SECOND_DAY);
+        assertEquals(List.of(FIRST_DAY, SECOND_DAY), viewsPerDay.stream().map(DailyViewCount::getDay).toList(),
+                "getViewsPerDay returns each day with views in order");
+        assertEquals(List.of(2L, 1L), viewsPerDay.stream().map(DailyViewCount::getViewCount).toList(),
+                "getViewsPerDay returns the number of views on each day");
+    }
+
+    @Test
+    void getViewsPerCategory_existingArea_returnsViewsOfEachCategoryOfArea() {
+        long firstId = addCardWithCategory("JUnit Category A");
+        long secondId = addCardWithCategory("JUnit Category B");
+        recordView(firstId, "2001-01-01 10:00:00+00");
+        recordView(firstId, "2001-01-02 10:00:00+00");
+        recordView(secondId, "2001-01-02 10:00:00+00");
+
+        List<TaxonomyViewCount> viewsPerCategory = viewReportDAO.getViewsPerCategory("JUnit Area", FIRST_DAY, SECOND_DAY);
+        assertEquals(List.of("JUnit Category A", "JUnit Category B"),
+                viewsPerCategory.stream().map(TaxonomyViewCount::getCategory).toList(),
+                "getViewsPerCategory returns each Category of the Area with views, in order");
+        assertEquals(List.of(2L, 1L), viewsPerCategory.stream().map(TaxonomyViewCount::getViewCount).toList(),
+                "getViewsPerCategory returns the number of views of each Category over the range");
+        List<TaxonomyViewCount> viewsPerArea = viewReportDAO.getViewsPerArea(SECOND_DAY, SECOND_DAY);
+        assertEquals(1, viewsPerArea.size(), "getViewsPerArea returns each Area with views in the range");
+        assertEquals(2L, viewsPerArea.get(0).getViewCount(),
+                "getViewsPerArea only counts the views in the range");
+    }
+
+    @Test
+    void getViewsPerCategory_missingArea_throwsResponseStatusExceptionWithNotFoundStatus() {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> viewReportDAO.getViewsPerCategory("JUnit Missing Area", FIRST_DAY, SECOND_DAY),
+                "getViewsPerCategory throws ResponseStatusException for an Area that doesn't exist");
+        assertEquals("404 NOT_FOUND \"Area not found. Unable to get views per Category for missing Area. " +
+                        "Send Area 'all' to report the Categories of all Areas.\"", exception.getMessage(),
+                "getViewsPerCategory throws exception with NOT_FOUND status and expected message for a missing Area");
+    }
+
+    @Test
+    void getViewsPerDay_fromAfterTo_throwsResponseStatusExceptionWithBadRequestStatus() {
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> viewReportDAO.getViewsPerDay(SECOND_DAY, FIRST_DAY),
+                "getViewsPerDay throws ResponseStatusException if from is after to");
+        assertEquals("400 BAD_REQUEST \"From date must not be after To date.\"", exception.getMessage(),
+                "getViewsPerDay throws exception with BAD_REQUEST status and expected message if from is after to");
+    }
+
+    @Test
+    void getViewsPerArea_rangeTooLong_throwsResponseStatusExceptionWithBadRequestStatus() {
+        LocalDate to = FIRST_DAY.plusDays(JdbcViewReportDAO.MAX_REPORT_DAYS);
+        Exception exception = assertThrows(ResponseStatusException.class,
+                () -> viewReportDAO.getViewsPerArea(FIRST_DAY, to),
+                "getViewsPerArea throws ResponseStatusException for a range longer than the limit");
+        assertEquals("400 BAD_REQUEST \"Reports can include no more than " + JdbcViewReportDAO.MAX_REPORT_DAYS +
+                        " days.\"", exception.getMessage(),
+                "getViewsPerArea throws exception with BAD_REQUEST status and expected message for a long range");
+    }
+
+    private long addCardWithCategory(String category) {
+        jdbcTemplate.update("INSERT INTO areas (area_name) VALUES ('JUnit Area') ON CONFLICT DO NOTHING");
+        addCategory(category);
+        Flashcard flashcard = getUniqueCardWithRequiredFields();
+        flashcard.setArea("JUnit Area");
+        flashcard.setCategory(category);
+        return addFlashcard(flashcard).getId();
+    }
+
+    /* The first view of a card is inserted, and later views update the card's last view, as the API does. */
+    private void recordView(long id, String viewTimestamp) {
+        int updated = jdbcTemplate.update("UPDATE flashcard_last_view SET view_timestamp = ?::timestamptz " +
+                "WHERE flashcard_id = ?", viewTimestamp, id);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                    "VALUES (?, ?::timestamptz)", id, viewTimestamp);
+        }
+    }
+}
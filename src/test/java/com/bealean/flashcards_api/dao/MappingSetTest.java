@@ -0,0 +1,100 @@
+package com.bealean.flashcards_api.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappingSetTest extends JdbcDAOTest {
+
+    private static MappingSet mappingSet;
+    private static JdbcAreaCategorySubcategoryDAO areaCategorySubcategoryDAO;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        mappingSet = new MappingSet(jdbcTemplate);
+        areaCategorySubcategoryDAO = new JdbcAreaCategorySubcategoryDAO(new NamedParameterJdbcTemplate(dataSource),
+                jdbcTemplate);
+        areaCategorySubcategoryDAO.mappingSet = mappingSet;
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reload_existingMappings_containsEveryMapping() {
+        Long areaId = addArea("JUnit Area");
+        Long categoryId = addCategory("JUnit Category");
+        Long subcategoryId = addSubcategory("JUnit Subcategory");
+        addMapping(areaId, categoryId, subcategoryId);
+        addMapping(areaId, categoryId, null);
+        Integer expectedSize = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM area_category_subcategory",
+                Integer.class);
+
+        assertEquals(expectedSize, mappingSet.reload(), "reload returns the number of mappings loaded");
+        assertTrue(mappingSet.contains(areaId, categoryId, subcategoryId),
+                "reload loads a mapping with a Subcategory");
+        assertTrue(mappingSet.contains(areaId, categoryId, null),
+                "reload loads a mapping without a Subcategory");
+        assertFalse(mappingSet.contains(areaId, categoryId, subcategoryId + 1),
+                "The set doesn't contain a mapping that wasn't loaded");
+    }
+
+    @Test
+    void doesMappingExist_mappingAddedThenDeletedOutOfBand_returnsTrueUntilReload() {
+        Long areaId = addArea("JUnit Area");
+        Long categoryId = addCategory("JUnit Category");
+        areaCategorySubcategoryDAO.addMapping(areaId, categoryId, null);
+        jdbcTemplate.update("DELETE FROM area_category_subcategory WHERE area_id = ?", areaId);
+
+        assertTrue(areaCategorySubcategoryDAO.doesMappingExist(areaId, categoryId, null),
+                "doesMappingExist answers from the set, without querying the database, for a mapping it added");
+        mappingSet.reload();
+        assertFalse(areaCategorySubcategoryDAO.doesMappingExist(areaId, categoryId, null),
+                "doesMappingExist returns false after reload for a mapping deleted without the API");
+    }
+
+    @Test
+    void doesMappingExist_mappingAddedOutOfBand_returnsTrueAndAddsMappingToSet() {
+        Long areaId = addArea("JUnit Area");
+        Long categoryId = addCategory("JUnit Category");
+        addMapping(areaId, categoryId, null);
+
+        assertTrue(areaCategorySubcategoryDAO.doesMappingExist(areaId, categoryId, null),
+                "doesMappingExist checks the database for a mapping that isn't in the set");
+        assertTrue(mappingSet.contains(areaId, categoryId, null),
+                "doesMappingExist adds a mapping found in the database to the set");
+    }
+
+    @Test
+    void add_idTooLargeToPack_isNotAdded() {
+        long largeId = MappingSet.MAX_PACKED_ID + 1;
+        mappingSet.add(largeId, 1L, null);
+
+        assertFalse(mappingSet.contains(largeId, 1L, null),
+                "A mapping with an ID too large to pack is not added, so it is always checked in the database");
+        assertEquals(0, mappingSet.size(), "The set is unchanged by a mapping with an ID too large to pack");
+    }
+
+    @Test
+    void add_transactionRolledBack_isNotAdded() {
+        TransactionSynchronizationManager.initSynchronization();
+        mappingSet.add(1L, 2L, 3L);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertFalse(mappingSet.contains(1L, 2L, 3L),
+                "A mapping added in a transaction that rolled back is not added to the set");
+    }
+}
@@ -0,0 +1,95 @@
+package com.bealean.flashcards_api.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxonomyIdCacheTest extends JdbcDAOTest {
+
+    private static JdbcAreaDAO areaDAO;
+    private static JdbcCategoryDAO categoryDAO;
+    private static JdbcSubcategoryDAO subcategoryDAO;
+    private static TaxonomyIdCache taxonomyIdCache;
+
+    @BeforeEach
+    void configureDatabase() {
+        super.configureDatabase();
+        taxonomyIdCache = new TaxonomyIdCache();
+        areaDAO = new JdbcAreaDAO(jdbcTemplate);
+        areaDAO.taxonomyIdCache = taxonomyIdCache;
+        categoryDAO = new JdbcCategoryDAO(jdbcTemplate);
+        categoryDAO.taxonomyIdCache = taxonomyIdCache;
+        subcategoryDAO = new JdbcSubcategoryDAO(jdbcTemplate);
+        subcategoryDAO.taxonomyIdCache = taxonomyIdCache;
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getAreaIdByName_repeatedLookup_returnsCachedIdAndCountsHit() {
+        long expectedId = addArea("JUnit Cached Area");
+        assertEquals(expectedId, areaDAO.getAreaIdByName("JUnit Cached Area"), "Test setup issue: Area not found");
+        jdbcTemplate.update("UPDATE areas SET area_name = 'JUnit Renamed Area' WHERE id = ?", expectedId);
+
+        assertEquals(expectedId, areaDAO.getAreaIdByName(" JUnit Cached Area "),
+                "getAreaIdByName returns the cached ID for a name that was already looked up");
+        assertEquals(1, taxonomyIdCache.stats().hitCount(), "Repeated lookup is counted as a cache hit");
+        assertEquals(1, taxonomyIdCache.stats().missCount(), "First lookup is counted as a cache miss");
+    }
+
+    @Test
+    void getCategoryIdByName_missingCategory_doesNotCacheMissingId() {
+        assertEquals(-1L, categoryDAO.getCategoryIdByName("JUnit Category"), "Test setup issue: Category exists");
+        long expectedId = addCategory("JUnit Category");
+
+        assertEquals(expectedId, categoryDAO.getCategoryIdByName("JUnit Category"),
+                "getCategoryIdByName finds a Category added after a lookup that didn't find it");
+    }
+
+    @Test
+    void addSubcategory_newSubcategory_cachesInsertedId() {
+        long expectedId = subcategoryDAO.addSubcategory("JUnit Subcategory");
+
+        assertEquals(expectedId, taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.SUBCATEGORY, "JUnit Subcategory"),
+                "addSubcategory caches the ID of the inserted Subcategory");
+    }
+
+    @Test
+    void addArea_transactionCommitted_cachesIdAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        long expectedId = areaDAO.addArea("JUnit Area");
+        assertNull(taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.AREA, "JUnit Area"),
+                "addArea doesn't cache the ID before the transaction commits");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(expectedId, taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.AREA, "JUnit Area"),
+                "addArea caches the ID of the inserted Area after the transaction commits");
+    }
+
+    @Test
+    void addArea_transactionRolledBack_doesNotCacheId() {
+        TransactionSynchronizationManager.initSynchronization();
+        areaDAO.addArea("JUnit Area");
+        areaDAO.getAreaIdByName("JUnit Area");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertNull(taxonomyIdCache.get(TaxonomyIdCache.Taxonomy.AREA, "JUnit Area"),
+                "The ID of an Area inserted in a transaction that rolled back is not cached");
+    }
+}
@@ -0,0 +1,87 @@
+package com.bealean.flashcards_api.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewPartitionMaintenanceTest extends JdbcDAOTest {
+
+    @Test
+    void createFuturePartitions_monthsAhead_createsPartitionForCurrentAndEachFutureMonth() {
+        ViewPartitionMaintenance maintenance = new ViewPartitionMaintenance(jdbcTemplate, 6, 0, false);
+
+        List<String> partitions = maintenance.createFuturePartitions();
+
+        assertEquals(7, partitions.size(), "createFuturePartitions returns the current month and 6 future months");
+        String expectedLast = jdbcTemplate.queryForObject("SELECT 'flashcard_views_' || " +
+                "to_char(date_trunc('month', now() AT TIME ZONE 'UTC') + interval '6 months', 'YYYY_MM')", String.class);
+        assertEquals(expectedLast, partitions.get(6), "createFuturePartitions names partitions by month");
+        assertTrue(isAttached(expectedLast), "createFuturePartitions attaches the partitions to flashcard_views");
+    }
+
+    @Test
+    void insertView_monthPartitionExists_rowIsStoredInMonthPartition() {
+        new ViewPartitionMaintenance(jdbcTemplate, 1, 0, false).createFuturePartitions();
+        long id = addFlashcard(getUniqueCardWithRequiredFields()).getId();
+        jdbcTemplate.update("INSERT INTO flashcard_last_view (flashcard_id, view_timestamp) " +
+                "VALUES (?, clock_timestamp())", id);
+
+        String partition = jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM flashcard_views " +
+                "WHERE flashcard_id = ?", String.class, id);
+        String expected = jdbcTemplate.queryForObject("SELECT 'flashcard_views_' || " +
+                "to_char(now() AT TIME ZONE 'UTC', 'YYYY_MM')", String.class);
+        assertEquals(expected, partition, "A view is stored in the partition for the month of the view");
+    }
+
+    @Test
+    void removeExpiredPartitions_partitionOlderThanRetention_detachesAndKeepsTable() {
+        jdbcTemplate.queryForObject("SELECT create_flashcard_views_partition(" +
+                "(now() - interval '3 years')::date)", String.class);
+        String oldPartition = jdbcTemplate.queryForObject("SELECT 'flashcard_views_' || " +
+                "to_char(date_trunc('month', now() AT TIME ZONE 'UTC') - interval '3 years', 'YYYY_MM')", String.class);
+        jdbcTemplate.queryForObject("SELECT create_flashcard_views_partition(now()::date)", String.class);
+        String currentPartition = jdbcTemplate.queryForObject("SELECT 'flashcard_views_' || " +
+                "to_char(now() AT TIME ZONE 'UTC', 'YYYY_MM')", String.class);
+
+        List<String> removed = new ViewPartitionMaintenance(jdbcTemplate, 3, 12, false).removeExpiredPartitions();
+
+        assertTrue(removed.contains(oldPartition), "removeExpiredPartitions removes a partition older than retention");
+        assertFalse(isAttached(oldPartition), "removeExpiredPartitions detaches the expired partition");
+        assertTrue(tableExists(oldPartition), "removeExpiredPartitions keeps a detached partition when not dropping");
+        assertTrue(isAttached(currentPartition), "removeExpiredPartitions keeps the current month's partition");
+    }
+
+    @Test
+    void removeExpiredPartitions_dropExpired_dropsExpiredPartition() {
+        jdbcTemplate.queryForObject("SELECT create_flashcard_views_partition(" +
+                "(now() - interval '3 years')::date)", String.class);
+        String oldPartition = jdbcTemplate.queryForObject("SELECT 'flashcard_views_' || " +
+                "to_char(date_trunc('month', now() AT TIME ZONE 'UTC') - interval '3 years', 'YYYY_MM')", String.class);
+
+        new ViewPartitionMaintenance(jdbcTemplate, 3, 12, true).removeExpiredPartitions();
+
+        assertFalse(tableExists(oldPartition), "removeExpiredPartitions drops the expired partition when dropping");
+    }
+
+    @Test
+    void removeExpiredPartitions_noRetention_removesNothing() {
+        jdbcTemplate.queryForObject("SELECT create_flashcard_views_partition(" +
+                "(now() - interval '3 years')::date)", String.class);
+
+        assertTrue(new ViewPartitionMaintenance(jdbcTemplate, 3, 0, true).removeExpiredPartitions().isEmpty(),
+                "removeExpiredPartitions keeps every partition when retention is 0");
+    }
+
+    private boolean isAttached(String partition) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_inherits i " +
+                "JOIN pg_class c ON i.inhrelid = c.oid " +
+                "WHERE i.inhparent = 'flashcard_views'::regclass AND c.relname = ?", Integer.class, partition);
+        return count != null && count == 1;
+    }
+
+    private boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bealean.flashcards_api.utility;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedCsvReaderTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void readRecord_smallChunksWithQuotedLineFeeds_returnsSameRecordsAndOffsetsAsCsvRecordReader(
+            @TempDir Path directory) throws IOException {
+        StringBuilder rows = new StringBuilder();
+        for (int row = 1; row <= 200; row++) {
+            rows.append("\"").append(row).append("\",\"Front \"\"").append(row).append("\"\"\n,\"\"\n\",\"Bäck ")
+                    .append("€".repeat(row % 7)).append("\n\nline\",\"A\",\"C\",\"\"")
+                    .append(row % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path csv = directory.resolve("cards.csv");
+        Files.writeString(csv, rows, StandardCharsets.UTF_8);
+
+        List<List<String>> expectedRecords = new ArrayList<>();
+        List<Long> expectedOffsets = new ArrayList<>();
+        try (CsvRecordReader reader = new CsvRecordReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8))) {
+            for (List<String> record = reader.readRecord(); record != null; record = reader.readRecord()) {
+                expectedRecords.add(record);
+                expectedOffsets.add(reader.getByteOffset());
+            }
+        }
+        List<List<String>> records = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        try (ChunkedCsvReader reader = new ChunkedCsvReader(csv, 0, 0, 1, pool, 64)) {
+            assertTrue(reader.getChunkCount() > 50, "The file is split into many chunks");
+            for (List<String> record = reader.readRecord(); record != null; record = reader.readRecord()) {
+                records.add(record);
+                offsets.add(reader.getByteOffset());
+            }
+        }
+
+        assertEquals(expectedRecords, records, "readRecord returns the records in the order of the file, " +
+                "without splitting a record at a line feed within a quoted field");
+        assertEquals(expectedOffsets, offsets, "getByteOffset returns the position after each record");
+    }
+
+    @Test
+    void readRecord_errorInLaterChunk_returnsEarlierRecordsThenThrowsWithRecordAndLine(@TempDir Path directory)
+            throws IOException {
+        StringBuilder rows = new StringBuilder();
+        for (int row = 1; row <= 30; row++) {
+            rows.append("\"").append(row).append("\",\"Front\nline 2\",\"Back\"").append(row == 25 ? "x" : "")
+                    .append("\n");
+        }
+        Path csv = directory.resolve("cards.csv");
+        Files.writeString(csv, rows, StandardCharsets.UTF_8);
+
+        try (ChunkedCsvReader reader = new ChunkedCsvReader(csv, 0, 0, 1, pool, 32)) {
+            for (int row = 1; row <= 24; row++) {
+                assertEquals(String.valueOf(row), reader.readRecord().get(0),
+                        "readRecord returns the records before the error in order");
+            }
+            Exception exception = assertThrows(ResponseStatusException.class, reader::readRecord,
+                    "readRecord throws ResponseStatusException at the record with the error");
+            assertEquals("400 BAD_REQUEST \"Unexpected CSV format. Unexpected character after closing double quote " +
+                            "in record 25 starting on line 49.\"", exception.getMessage(),
+                    "readRecord throws the same exception as CsvRecordReader, with the record and line in the file");
+        }
+    }
+}
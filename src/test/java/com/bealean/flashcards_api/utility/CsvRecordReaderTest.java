@@ -0,0 +1,87 @@
+package com.bealean.flashcards_api.utility;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readRecord_quotedFieldsWithEscapedQuotesAndCommas_returnsUnescapedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\"1\",\"Say \"\"\"\"\"\"\"\"\"\"\"\"hi\"\"\"\"\"\"\"\"\"\"\"\"\",\"a,b\",plain,,\"\"\n"));
+
+        assertEquals(List.of("1", "Say \"\"\"\"\"\"hi\"\"\"\"\"\"", "a,b", "plain", "", ""), reader.readRecord(),
+                "readRecord replaces each pair of double quotes with one, however many pairs there are, " +
+                        "and keeps commas within quoted fields");
+        assertNull(reader.readRecord(), "readRecord returns null at the end of the input");
+    }
+
+    @Test
+    void readRecord_lineBreaksInQuotedFields_returnsOneRecordPerRow() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\"1\",\"Front\n\nwith blank line\",\"Back\r\nline\"\r\n\"2\",\"F\",\"B\""));
+
+        assertEquals(List.of("1", "Front\n\nwith blank line", "Back\r\nline"), reader.readRecord(),
+                "readRecord keeps line breaks within quoted fields and ends the record at a CRLF");
+        assertEquals(List.of("2", "F", "B"), reader.readRecord(),
+                "readRecord returns a last record that doesn't end with a line break");
+        assertEquals(2, reader.getRecordNumber(), "getRecordNumber returns the number of records read");
+    }
+
+    @Test
+    void readRecord_quotedFieldNotClosed_throwsResponseStatusExceptionWithRecordAndLine() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"1\",\"F\"\n\"2\",\"F\nB\n"));
+        reader.readRecord();
+
+        Exception exception = assertThrows(ResponseStatusException.class, reader::readRecord,
+                "readRecord throws ResponseStatusException if the input ends within a quoted field");
+        assertEquals("400 BAD_REQUEST \"Unexpected CSV format. Quoted field is not closed " +
+                        "in record 2 starting on line 2.\"", exception.getMessage(),
+                "readRecord throws exception with BAD_REQUEST status and the record and line of the error");
+    }
+
+    @Test
+    void readRecord_characterAfterClosingQuote_throwsResponseStatusException() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"1\",\"F\"x,\"B\"\n"));
+
+        Exception exception = assertThrows(ResponseStatusException.class, reader::readRecord,
+                "readRecord throws ResponseStatusException for a character after a closing double quote");
+        assertEquals("400 BAD_REQUEST \"Unexpected CSV format. Unexpected character after closing double quote " +
+                        "in record 1 starting on line 1.\"", exception.getMessage(),
+                "readRecord throws exception with BAD_REQUEST status and expected message");
+    }
+
+    @Test
+    void getByteOffset_multiByteCharacters_returnsUtf8PositionAfterEachRecord() throws IOException {
+        String first = "\"1\",\"caf\u00e9 \u20ac\",\"\ud83d\ude00\"\r\n";
+        String second = "\"2\",\"F\",\"B\"\n";
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(first + second + "\"3\",\"F\",\"B\""));
+
+        reader.readRecord();
+        assertEquals(first.getBytes(StandardCharsets.UTF_8).length, reader.getByteOffset(),
+                "getByteOffset counts 2, 3, and 4 byte characters as in UTF-8, and includes the CRLF");
+        reader.readRecord();
+        assertEquals((first + second).getBytes(StandardCharsets.UTF_8).length, reader.getByteOffset(),
+                "getByteOffset returns the position just after the last record read");
+    }
+
+    @Test
+    void readRecord_resumedAtByteOffset_continuesByteOffsetAndRecordNumber() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"3\",\"F\"x\n"), 100, 2);
+
+        Exception exception = assertThrows(ResponseStatusException.class, reader::readRecord,
+                "readRecord throws ResponseStatusException for a character after a closing double quote");
+        assertEquals("400 BAD_REQUEST \"Unexpected CSV format. Unexpected character after closing double quote " +
+                        "in record 3 starting on line 1.\"", exception.getMessage(),
+                "readRecord numbers records from the record number the reader was created with");
+        assertEquals(100, reader.getByteOffset(),
+                "getByteOffset returns the starting byte offset until a record is read");
+    }
+}
@@ -0,0 +1,129 @@
+package com.bealean.flashcards_api.utility;
+
+import com.bealean.flashcards_api.model.ImportJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ParallelImporterTest {
+
+    private static final String NEW_FLASHCARD_URL = "http://localhost:8080/new-flashcard";
+    private static final long JOB_ID = 5;
+    private static final String CHECKPOINT_URL = "http://localhost:8080/import-jobs/" + JOB_ID + "/checkpoint";
+
+    @Test
+    void importFlashcards_oneCardRejected_sendsEveryCardAndCountsFailure(@TempDir Path directory) throws Exception {
+        Path csv = directory.resolve("cards.csv");
+        StringBuilder rows = new StringBuilder("\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n");
+        for (int row = 1; row <= 20; row++) {
+            String front = row == 7 ? "Rejected" : "Front " + row;
+            rows.append("\"").append(row).append("\",\"").append(front).append("\",\"Back\nline\",\"A\",\"C\",\"\"\n");
+        }
+        Files.writeString(csv, rows, StandardCharsets.UTF_8);
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        server.expect(ExpectedCount.once(), requestTo(NEW_FLASHCARD_URL))
+                .andExpect(content().string(containsString("\"front\":\"Rejected\"")))
+                .andRespond(withBadRequest());
+        server.expect(ExpectedCount.times(19), requestTo(NEW_FLASHCARD_URL))
+                .andExpect(content().string(containsString("\"back\":\"Back\\nline\"")))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        ParallelImporter.ImportSummary summary = new ParallelImporter(4, restTemplate,
+                ParallelImporter.SLOW_RESPONSE_MILLIS).importFlashcards(csv);
+
+        server.verify();
+        assertEquals(20, summary.sent(), "importFlashcards sends every card in the CSV");
+        assertEquals(1, summary.failed(), "importFlashcards counts the cards the API rejects and continues");
+    }
+
+    @Test
+    void importFlashcards_importJobWithCheckpoint_sendsRowsAfterCheckpointAndCompletesJob(@TempDir Path directory)
+            throws Exception {
+        Path csv = writeCsv(directory, 20);
+        ImportJob importJob = getImportJob(csv, 10);
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        server.expect(ExpectedCount.times(10), requestTo(NEW_FLASHCARD_URL))
+                .andExpect(content().string(matchesPattern(".*\"front\":\"Front (1[1-9]|20)\".*")))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(CHECKPOINT_URL))
+                .andExpect(method(HttpMethod.PUT))
+                .andExpect(jsonPath("$.rowsCommitted").value(20))
+                .andExpect(jsonPath("$.byteOffset").value(Files.size(csv)))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andRespond(withSuccess());
+
+        new ParallelImporter(4, restTemplate, ParallelImporter.SLOW_RESPONSE_MILLIS).importFlashcards(csv, importJob);
+
+        server.verify();
+    }
+
+    @Test
+    void importFlashcards_serverErrorForRow_savesFailedCheckpointBeforeRow(@TempDir Path directory)
+            throws Exception {
+        Path csv = writeCsv(directory, 20);
+        ImportJob importJob = getImportJob(csv, 0);
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        server.expect(ExpectedCount.once(), requestTo(NEW_FLASHCARD_URL))
+                .andExpect(content().string(containsString("\"front\":\"Front 7\"")))
+                .andRespond(withServerError());
+        server.expect(ExpectedCount.times(19), requestTo(NEW_FLASHCARD_URL))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(CHECKPOINT_URL))
+                .andExpect(jsonPath("$.rowsCommitted").value(6))
+                .andExpect(jsonPath("$.byteOffset").value(getImportJob(csv, 6).getByteOffset()))
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andRespond(withSuccess());
+
+        new ParallelImporter(4, restTemplate, ParallelImporter.SLOW_RESPONSE_MILLIS).importFlashcards(csv, importJob);
+
+        server.verify();
+    }
+
+    private static Path writeCsv(Path directory, int cards) throws IOException {
+        Path csv = directory.resolve("cards.csv");
+        StringBuilder rows = new StringBuilder("\"Row\",\"Front\",\"Back\",\"Area\",\"Category\",\"Subcategory\"\n");
+        for (int row = 1; row <= cards; row++) {
+            rows.append("\"").append(row).append("\",\"Front ").append(row).append("\",\"B\u00e4ck\",\"A\",\"C\",\"\"\n");
+        }
+        Files.writeString(csv, rows, StandardCharsets.UTF_8);
+        return csv;
+    }
+
+    /* An import job with a checkpoint after rowsCommitted rows, at the byte offset CsvRecordReader returns. */
+    private static ImportJob getImportJob(Path csv, int rowsCommitted) throws IOException {
+        ImportJob importJob = new ImportJob();
+        importJob.setId(JOB_ID);
+        importJob.setSourceBytes(Files.size(csv));
+        try (CsvRecordReader reader = ImportUtility.openCsv(csv, null)) {
+            for (int row = 0; row < rowsCommitted; row++) {
+                reader.readRecord();
+            }
+            importJob.setByteOffset(rowsCommitted == 0 ? 0 : reader.getByteOffset());
+        }
+        importJob.setRowsCommitted(rowsCommitted);
+        return importJob;
+    }
+}